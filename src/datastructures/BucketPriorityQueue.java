@@ -0,0 +1,222 @@
+package datastructures;
+
+import java.util.Arrays;
+
+/**
+ * A monotone bucket queue for small non-negative int keys, such as the
+ * depth + Manhattan distance keys that KeyableObject.calculateKey() yields on
+ * unit-cost grids. There is one bucket per key value, each an intrusive
+ * doubly-linked list threaded through per-handle next/prev arrays, so
+ * insert() and decreaseKey() are O(1) with no comparisons, and poll() only
+ * walks forward from the smallest key seen so far. A* with a consistent
+ * heuristic never produces a key below the last one polled, so that cursor
+ * moves across every bucket at most once per search (amortized O(1) poll).
+ * Smaller keys are still accepted; they simply move the cursor back.
+ *
+ * Within a bucket handles come out last-in-first-out, matching
+ * IndexedDaryHeap's tie-breaking.
+ *
+ * @author Mauricio Esquivel Rogel
+ * @date Fall Term 2016
+ */
+public class BucketPriorityQueue implements IndexedPriorityQueue {
+/******************************** CONSTANTS ***********************************/
+	// PRIVATE
+	private static final int NOT_QUEUED = -1;
+	private static final int EMPTY = -1;
+
+/*************************** INSTANCE VARIABLES *******************************/
+	// PUBLIC
+		//
+
+	// PRIVATE
+	private int numberOfNodes, cursor, maxKey;
+	private int[] buckets;  // first handle of each key's list, EMPTY if none
+	private int[] keys;     // key of each handle, NOT_QUEUED if absent
+	private int[] next, previous;
+
+/****************************** CONSTRUCTOR ***********************************/
+	/*
+	 * @param capacity - expected number of distinct handles
+	 * @param keyRange - expected largest key + 1
+	 */
+	public BucketPriorityQueue(int capacity, int keyRange) {
+		numberOfNodes = 0;
+		cursor = 0;
+		maxKey = -1;
+		buckets = new int[Math.max(keyRange, 1)];
+		keys = new int[Math.max(capacity, 1)];
+		next = new int[Math.max(capacity, 1)];
+		previous = new int[Math.max(capacity, 1)];
+
+		Arrays.fill(buckets, EMPTY);
+		Arrays.fill(keys, NOT_QUEUED);
+	}
+
+/******************************* PUBLIC METHODS *******************************/
+//--------------------------------- insert() ---------------------------------//
+	/*
+	 * Adds a handle that isn't in the queue yet.
+	 * @param handle - non-negative handle
+	 * @param key - non-negative key
+	 */
+	@Override
+	public void insert(int handle, int key) {
+		if (key < 0) {
+			throw new IllegalArgumentException("negative key " + key);
+		}
+
+		ensureCapacity(handle + 1);
+		push(handle, key);
+		this.numberOfNodes++;
+	}
+
+//------------------------------ decreaseKey() -------------------------------//
+	/*
+	 * Moves a handle already in the queue to a smaller key's bucket; larger
+	 * keys are ignored.
+	 * @param handle - handle in the queue
+	 * @param key - handle's new key
+	 */
+	@Override
+	public void decreaseKey(int handle, int key) {
+		if (!contains(handle) || key >= this.keys[handle]) { return; }
+
+		if (key < 0) {
+			throw new IllegalArgumentException("negative key " + key);
+		}
+
+		unlink(handle);
+		push(handle, key);
+	}
+
+//---------------------------------- poll() ----------------------------------//
+	/*
+	 * Removes a handle with the smallest key.
+	 * @return that handle, or NO_HANDLE if the queue is empty
+	 */
+	@Override
+	public int poll() {
+		int min = peek();
+
+		if (min != NO_HANDLE) {
+			unlink(min);
+			this.keys[min] = NOT_QUEUED;
+			this.numberOfNodes--;
+		}
+
+		return min;
+	}
+
+//---------------------------------- peek() ----------------------------------//
+	@Override
+	public int peek() {
+		if (this.numberOfNodes == 0) { return NO_HANDLE; }
+
+		while (this.buckets[this.cursor] == EMPTY) { this.cursor++; }
+
+		return this.buckets[this.cursor];
+	}
+
+//--------------------------------- getKey() ---------------------------------//
+	@Override
+	public int getKey(int handle) {
+		return this.keys[handle];
+	}
+
+//-------------------------------- contains() --------------------------------//
+	@Override
+	public boolean contains(int handle) {
+		return handle < this.keys.length && this.keys[handle] != NOT_QUEUED;
+	}
+
+//---------------------------------- size() ----------------------------------//
+	@Override
+	public int size() {
+		return this.numberOfNodes;
+	}
+
+//-------------------------------- isEmpty() ---------------------------------//
+	@Override
+	public boolean isEmpty() {
+		return this.numberOfNodes == 0;
+	}
+
+//--------------------------------- clear() ----------------------------------//
+	/*
+	 * Empties the queue in time proportional to its size plus the range of
+	 * keys in use.
+	 */
+	@Override
+	public void clear() {
+		for (int key = this.cursor; key <= this.maxKey; key++) {
+			for (int h = this.buckets[key]; h != EMPTY; h = this.next[h]) {
+				this.keys[h] = NOT_QUEUED;
+			}
+
+			this.buckets[key] = EMPTY;
+		}
+
+		this.numberOfNodes = 0;
+		this.cursor = 0;
+		this.maxKey = -1;
+	}
+
+/**************************** PRIVATE METHODS *********************************/
+//---------------------------------- push() ----------------------------------//
+	/*
+	 * Links a handle at the front of its key's bucket.
+	 */
+	private void push(int handle, int key) {
+		if (key >= this.buckets.length) {
+			int oldLength = this.buckets.length;
+
+			this.buckets = Arrays.copyOf(this.buckets,
+					Math.max(key + 1, oldLength * 2));
+			Arrays.fill(this.buckets, oldLength, this.buckets.length, EMPTY);
+		}
+
+		this.keys[handle] = key;
+		this.previous[handle] = EMPTY;
+		this.next[handle] = this.buckets[key];
+
+		if (this.buckets[key] != EMPTY) {
+			this.previous[this.buckets[key]] = handle;
+		}
+
+		this.buckets[key] = handle;
+
+		if (key < this.cursor || this.numberOfNodes == 0) {
+			this.cursor = key;
+		}
+
+		this.maxKey = Math.max(this.maxKey, key);
+	}
+
+//--------------------------------- unlink() ---------------------------------//
+	private void unlink(int handle) {
+		if (this.previous[handle] == EMPTY) {
+			this.buckets[this.keys[handle]] = this.next[handle];
+		} else {
+			this.next[this.previous[handle]] = this.next[handle];
+		}
+
+		if (this.next[handle] != EMPTY) {
+			this.previous[this.next[handle]] = this.previous[handle];
+		}
+	}
+
+//----------------------------- ensureCapacity() -----------------------------//
+	private void ensureCapacity(int handles) {
+		int oldLength = this.keys.length;
+
+		if (handles <= oldLength) { return; }
+
+		int newLength = Math.max(handles, oldLength * 2);
+
+		this.keys = Arrays.copyOf(this.keys, newLength);
+		this.next = Arrays.copyOf(this.next, newLength);
+		this.previous = Arrays.copyOf(this.previous, newLength);
+		Arrays.fill(this.keys, oldLength, newLength, NOT_QUEUED);
+	}
+}
@@ -0,0 +1,301 @@
+package datastructures;
+
+import java.util.Arrays;
+
+/**
+ * An indexed d-ary min-heap over parallel primitive arrays. The heap itself
+ * is an int array of handles, keys are stored by handle, and a position
+ * array maps each handle back to its slot so that decreaseKey() can sift it
+ * up in place. No objects are allocated per entry, and the children of a
+ * slot sit next to each other in memory, so with a small arity (4 is a good
+ * default) a sift-down touches one or two cache lines per level. Arrays grow
+ * as larger handles are inserted.
+ *
+ * Keys are kept as longs, so besides the int keys of IndexedPriorityQueue
+ * the heap takes long keys, e.g. two ints compared lexicographically and
+ * packed high and low, and lets keys move in both directions with update()
+ * or leave the heap with remove().
+ *
+ * Ties are broken in favor of the handle inserted/decreased last, which makes
+ * A* prefer the deeper of two nodes with the same estimate instead of
+ * widening the search across a whole band of equal-cost cells.
+ *
+ * @author Mauricio Esquivel Rogel
+ * @date Fall Term 2016
+ */
+public class IndexedDaryHeap implements IndexedPriorityQueue {
+/******************************** CONSTANTS ***********************************/
+	// PRIVATE
+	private static final int NOT_IN_HEAP = -1;
+
+/*************************** INSTANCE VARIABLES *******************************/
+	// PUBLIC
+		//
+
+	// PRIVATE
+	private int arity, numberOfNodes, clock;
+	private int[] heap;       // handle stored in each slot
+	private int[] positions;  // slot of each handle, NOT_IN_HEAP if absent
+	private long[] keys;      // key of each handle
+	private int[] stamps;     // clock value when each handle's key was set
+
+/****************************** CONSTRUCTOR ***********************************/
+	/*
+	 * @param d - number of children per node, at least 2
+	 * @param capacity - expected number of distinct handles
+	 */
+	public IndexedDaryHeap(int d, int capacity) {
+		if (d < 2) {
+			throw new IllegalArgumentException("arity must be at least 2");
+		}
+
+		arity = d;
+		numberOfNodes = 0;
+		heap = new int[Math.max(capacity, 1)];
+		positions = new int[Math.max(capacity, 1)];
+		keys = new long[Math.max(capacity, 1)];
+		stamps = new int[Math.max(capacity, 1)];
+
+		Arrays.fill(positions, NOT_IN_HEAP);
+	}
+
+/******************************* PUBLIC METHODS *******************************/
+//--------------------------------- insert() ---------------------------------//
+	/*
+	 * Adds a handle that isn't in the heap yet.
+	 * @param handle - non-negative handle
+	 * @param key - handle's key
+	 */
+	@Override
+	public void insert(int handle, int key) {
+		insert(handle, (long) key);
+	}
+
+	public void insert(int handle, long key) {
+		ensureCapacity(handle + 1);
+
+		if (this.numberOfNodes == this.heap.length) {
+			this.heap = Arrays.copyOf(this.heap, this.heap.length * 2);
+		}
+
+		this.keys[handle] = key;
+		this.stamps[handle] = ++this.clock;
+		siftUp(this.numberOfNodes++, handle);
+	}
+
+//------------------------------ decreaseKey() -------------------------------//
+	/*
+	 * Lowers the key of a handle already in the heap; larger keys are ignored.
+	 * @param handle - handle in the heap
+	 * @param key - handle's new key
+	 */
+	@Override
+	public void decreaseKey(int handle, int key) {
+		if (!contains(handle) || key >= this.keys[handle]) { return; }
+
+		update(handle, key);
+	}
+
+//--------------------------------- update() ---------------------------------//
+	/*
+	 * Sets the key of a handle already in the heap, moving it up or down.
+	 * @param handle - handle in the heap
+	 * @param key - handle's new key
+	 */
+	public void update(int handle, long key) {
+		this.keys[handle] = key;
+		this.stamps[handle] = ++this.clock;
+		sift(this.positions[handle], handle);
+	}
+
+//--------------------------------- remove() ---------------------------------//
+	/*
+	 * Takes a handle out of the heap wherever it is; absent handles are
+	 * ignored.
+	 */
+	public void remove(int handle) {
+		int slot = 0, last = 0;
+
+		if (!contains(handle)) { return; }
+
+		slot = this.positions[handle];
+		last = this.heap[--this.numberOfNodes];
+		this.positions[handle] = NOT_IN_HEAP;
+
+		// the last handle fills the hole, from where it may have to go either
+		// way
+		if (last != handle) { sift(slot, last); }
+	}
+
+//---------------------------------- poll() ----------------------------------//
+	/*
+	 * Removes the handle with the smallest key.
+	 * @return that handle, or NO_HANDLE if the heap is empty
+	 */
+	@Override
+	public int poll() {
+		int min = 0, last = 0;
+
+		if (this.numberOfNodes == 0) { return NO_HANDLE; }
+
+		min = this.heap[0];
+		last = this.heap[--this.numberOfNodes];
+		this.positions[min] = NOT_IN_HEAP;
+
+		if (this.numberOfNodes > 0) { siftDown(0, last); }
+
+		return min;
+	}
+
+//---------------------------------- peek() ----------------------------------//
+	@Override
+	public int peek() {
+		return this.numberOfNodes == 0 ? NO_HANDLE : this.heap[0];
+	}
+
+//--------------------------------- getKey() ---------------------------------//
+	@Override
+	public int getKey(int handle) {
+		return (int) this.keys[handle];
+	}
+
+//------------------------------ getLongKey() --------------------------------//
+	public long getLongKey(int handle) {
+		return this.keys[handle];
+	}
+
+//-------------------------------- peekKey() ---------------------------------//
+	/*
+	 * @return smallest key in the heap, or Long.MAX_VALUE if it is empty
+	 */
+	public long peekKey() {
+		return this.numberOfNodes == 0 ? Long.MAX_VALUE :
+			this.keys[this.heap[0]];
+	}
+
+//-------------------------------- contains() --------------------------------//
+	@Override
+	public boolean contains(int handle) {
+		return handle < this.positions.length &&
+				this.positions[handle] != NOT_IN_HEAP;
+	}
+
+//---------------------------------- size() ----------------------------------//
+	@Override
+	public int size() {
+		return this.numberOfNodes;
+	}
+
+//-------------------------------- isEmpty() ---------------------------------//
+	@Override
+	public boolean isEmpty() {
+		return this.numberOfNodes == 0;
+	}
+
+//--------------------------------- clear() ----------------------------------//
+	/*
+	 * Empties the heap in time proportional to its size, not its capacity.
+	 */
+	@Override
+	public void clear() {
+		for (int i = 0; i < this.numberOfNodes; i++) {
+			this.positions[this.heap[i]] = NOT_IN_HEAP;
+		}
+
+		this.numberOfNodes = 0;
+	}
+
+/**************************** PRIVATE METHODS *********************************/
+//--------------------------------- siftUp() ---------------------------------//
+	/*
+	 * Moves a handle up from a slot until its parent goes first.
+	 * @param slot - slot the handle starts at
+	 * @param handle - handle being placed
+	 */
+	private void siftUp(int slot, int handle) {
+		int parent = 0;
+
+		while (slot > 0) {
+			parent = (slot - 1) / this.arity;
+
+			if (!before(handle, this.heap[parent])) { break; }
+
+			place(slot, this.heap[parent]);
+			slot = parent;
+		}
+
+		place(slot, handle);
+	}
+
+//---------------------------------- sift() ----------------------------------//
+	/*
+	 * Moves a handle up or down from a slot, whichever its key calls for.
+	 * @param slot - slot the handle starts at
+	 * @param handle - handle being placed
+	 */
+	private void sift(int slot, int handle) {
+		if (slot > 0 && before(handle, this.heap[(slot - 1) / this.arity])) {
+			siftUp(slot, handle);
+		} else {
+			siftDown(slot, handle);
+		}
+	}
+
+//-------------------------------- siftDown() --------------------------------//
+	/*
+	 * Moves a handle down from a slot until it goes before all its children.
+	 * @param slot - slot the handle starts at
+	 * @param handle - handle being placed
+	 */
+	private void siftDown(int slot, int handle) {
+		int child = 0, lastChild = 0, minChild = 0;
+
+		while ((child = slot * this.arity + 1) < this.numberOfNodes) {
+			lastChild = Math.min(child + this.arity, this.numberOfNodes);
+			minChild = child;
+
+			// pick the child that goes first
+			for (child++; child < lastChild; child++) {
+				if (before(this.heap[child], this.heap[minChild])) {
+					minChild = child;
+				}
+			}
+
+			if (!before(this.heap[minChild], handle)) { break; }
+
+			place(slot, this.heap[minChild]);
+			slot = minChild;
+		}
+
+		place(slot, handle);
+	}
+
+//--------------------------------- before() ---------------------------------//
+	/*
+	 * @return true if handle x has to be extracted before handle y
+	 */
+	private boolean before(int x, int y) {
+		return this.keys[x] < this.keys[y] ||
+				(this.keys[x] == this.keys[y] && this.stamps[x] > this.stamps[y]);
+	}
+
+//--------------------------------- place() ----------------------------------//
+	private void place(int slot, int handle) {
+		this.heap[slot] = handle;
+		this.positions[handle] = slot;
+	}
+
+//----------------------------- ensureCapacity() -----------------------------//
+	private void ensureCapacity(int handles) {
+		int oldLength = this.positions.length;
+
+		if (handles <= oldLength) { return; }
+
+		int newLength = Math.max(handles, oldLength * 2);
+
+		this.positions = Arrays.copyOf(this.positions, newLength);
+		this.keys = Arrays.copyOf(this.keys, newLength);
+		this.stamps = Arrays.copyOf(this.stamps, newLength);
+		Arrays.fill(this.positions, oldLength, newLength, NOT_IN_HEAP);
+	}
+}
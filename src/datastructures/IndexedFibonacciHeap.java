@@ -0,0 +1,139 @@
+package datastructures;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Exposes a PriorityFibonacciHeap through the IndexedPriorityQueue interface,
+ * keeping the heap node of every handle in a flat array, so that searches
+ * written against int handles can still run on the Fibonacci heap.
+ *
+ * @author Mauricio Esquivel Rogel
+ * @date Fall Term 2016
+ */
+public class IndexedFibonacciHeap implements IndexedPriorityQueue {
+/*************************** INSTANCE VARIABLES *******************************/
+	// PUBLIC
+		//
+
+	// PRIVATE
+	private PriorityFibonacciHeap<HandleKey> heap;
+	private FibonacciHeapNode<HandleKey>[] nodes;
+
+/***************************** INNER CLASSES **********************************/
+	/**
+	 * Heap value pairing a handle with its current key
+	 *
+	 * @author Mauricio Esquivel Rogel
+	 * @date Fall Term 2016
+	 */
+	private static class HandleKey implements KeyableObject {
+		private int handle, key;
+
+		private HandleKey(int h, int k) {
+			handle = h;
+			key = k;
+		}
+
+		@Override
+		public int calculateKey() {
+			return this.key;
+		}
+	}
+
+	private static class HandleKeyComparator implements Comparator<HandleKey> {
+		@Override
+		public int compare(HandleKey x, HandleKey y) {
+			if (x.key > y.key) { return 1; }
+			if (x.key < y.key) { return -1; }
+
+			return 0;
+		}
+	}
+
+/****************************** CONSTRUCTOR ***********************************/
+	/*
+	 * @param capacity - expected number of distinct handles
+	 */
+	@SuppressWarnings("unchecked")
+	public IndexedFibonacciHeap(int capacity) {
+		heap = new PriorityFibonacciHeap<HandleKey>(new HandleKeyComparator());
+		nodes = (FibonacciHeapNode<HandleKey>[])
+				new FibonacciHeapNode<?>[Math.max(capacity, 1)];
+	}
+
+/******************************* PUBLIC METHODS *******************************/
+//--------------------------------- insert() ---------------------------------//
+	@Override
+	public void insert(int handle, int key) {
+		if (handle >= this.nodes.length) {
+			this.nodes = Arrays.copyOf(this.nodes,
+					Math.max(handle + 1, this.nodes.length * 2));
+		}
+
+		this.nodes[handle] = new FibonacciHeapNode<HandleKey>(
+				new HandleKey(handle, key));
+		this.heap.insert(this.nodes[handle]);
+	}
+
+//------------------------------ decreaseKey() -------------------------------//
+	@Override
+	public void decreaseKey(int handle, int key) {
+		if (!contains(handle) || key >= this.nodes[handle].getValue().key) {
+			return;
+		}
+
+		this.nodes[handle].getValue().key = key;
+		this.heap.decreaseKey(this.nodes[handle], key);
+	}
+
+//---------------------------------- poll() ----------------------------------//
+	@Override
+	public int poll() {
+		FibonacciHeapNode<HandleKey> min = this.heap.poll();
+
+		if (min == null) { return NO_HANDLE; }
+
+		this.nodes[min.getValue().handle] = null;
+
+		return min.getValue().handle;
+	}
+
+//---------------------------------- peek() ----------------------------------//
+	@Override
+	public int peek() {
+		FibonacciHeapNode<HandleKey> min = this.heap.peek();
+
+		return min == null ? NO_HANDLE : min.getValue().handle;
+	}
+
+//--------------------------------- getKey() ---------------------------------//
+	@Override
+	public int getKey(int handle) {
+		return this.nodes[handle].getValue().key;
+	}
+
+//-------------------------------- contains() --------------------------------//
+	@Override
+	public boolean contains(int handle) {
+		return handle < this.nodes.length && this.nodes[handle] != null;
+	}
+
+//---------------------------------- size() ----------------------------------//
+	@Override
+	public int size() {
+		return this.heap.size();
+	}
+
+//-------------------------------- isEmpty() ---------------------------------//
+	@Override
+	public boolean isEmpty() {
+		return this.heap.isEmpty();
+	}
+
+//--------------------------------- clear() ----------------------------------//
+	@Override
+	public void clear() {
+		while (!this.heap.isEmpty()) { poll(); }
+	}
+}
@@ -0,0 +1,23 @@
+package datastructures;
+
+/**
+ * Interface for a min-priority queue of int handles (e.g. packed cell ids)
+ * ordered by int keys, where each handle is in the queue at most once and
+ * can have its key decreased in place.
+ *
+ * @author Mauricio Esquivel Rogel
+ * @date Fall Term 2016
+ */
+public interface IndexedPriorityQueue {
+	public static final int NO_HANDLE = -1;
+	
+	public void insert(int handle, int key);
+	public void decreaseKey(int handle, int key);
+	public int poll();
+	public int peek();
+	public int getKey(int handle);
+	public boolean contains(int handle);
+	public int size();
+	public boolean isEmpty();
+	public void clear();
+}
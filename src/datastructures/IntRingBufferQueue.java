@@ -0,0 +1,144 @@
+package datastructures;
+
+import java.util.NoSuchElementException;
+
+/**
+ * A first-in-first-out queue of primitive ints (e.g. packed cell ids) kept
+ * in a circular array whose length is a power of two, so wrapping around is
+ * a mask instead of a branch or a division. The array doubles when it fills
+ * up and never shrinks, which makes add() amortized O(1) and, once the queue
+ * has reached its working size, free of allocation; poll() never allocates.
+ * Unlike a LinkedList<Integer>, there is no node or box per element and
+ * consecutive elements sit next to each other in memory.
+ *
+ * @author Mauricio Esquivel Rogel
+ * @date Fall Term 2016
+ */
+public class IntRingBufferQueue {
+/******************************** CONSTANTS ***********************************/
+	// PRIVATE
+	private static final int MIN_CAPACITY = 16;
+	private static final int MAX_CAPACITY = 1 << 30;
+
+/*************************** INSTANCE VARIABLES *******************************/
+	// PUBLIC
+		//
+
+	// PRIVATE
+	private int[] elements;
+	private int head, numberOfElements, mask;
+
+/****************************** CONSTRUCTOR ***********************************/
+	public IntRingBufferQueue() {
+		this(MIN_CAPACITY);
+	}
+
+	/*
+	 * @param capacity - expected largest number of elements, rounded up to a
+	 * 					 power of two
+	 */
+	public IntRingBufferQueue(int capacity) {
+		elements = new int[roundUpToPowerOfTwo(capacity)];
+		mask = elements.length - 1;
+		head = 0;
+		numberOfElements = 0;
+	}
+
+/******************************* PUBLIC METHODS *******************************/
+//---------------------------------- add() -----------------------------------//
+	/*
+	 * Appends an element at the tail of the queue.
+	 */
+	public void add(int element) {
+		if (this.numberOfElements == this.elements.length) { grow(); }
+
+		this.elements[(this.head + this.numberOfElements++) & this.mask] =
+				element;
+	}
+
+//---------------------------------- poll() ----------------------------------//
+	/*
+	 * Removes the element at the head of the queue.
+	 * @return that element
+	 * @throws NoSuchElementException if the queue is empty
+	 */
+	public int poll() {
+		int element = peek();
+
+		this.head = (this.head + 1) & this.mask;
+		this.numberOfElements--;
+
+		return element;
+	}
+
+//---------------------------------- peek() ----------------------------------//
+	/*
+	 * @return element at the head of the queue
+	 * @throws NoSuchElementException if the queue is empty
+	 */
+	public int peek() {
+		if (this.numberOfElements == 0) {
+			throw new NoSuchElementException("empty queue");
+		}
+
+		return this.elements[this.head];
+	}
+
+//---------------------------------- size() ----------------------------------//
+	public int size() {
+		return this.numberOfElements;
+	}
+
+//-------------------------------- isEmpty() ---------------------------------//
+	public boolean isEmpty() {
+		return this.numberOfElements == 0;
+	}
+
+//-------------------------------- capacity() --------------------------------//
+	/*
+	 * @return number of elements the queue can hold before growing again
+	 */
+	public int capacity() {
+		return this.elements.length;
+	}
+
+//--------------------------------- clear() ----------------------------------//
+	/*
+	 * Empties the queue in O(1), keeping its capacity.
+	 */
+	public void clear() {
+		this.head = 0;
+		this.numberOfElements = 0;
+	}
+
+/**************************** PRIVATE METHODS *********************************/
+//---------------------------------- grow() ----------------------------------//
+	/*
+	 * Doubles the array, unrolling the elements so that the head lands at
+	 * index 0.
+	 */
+	private void grow() {
+		int[] grown = null;
+		int headRun = this.elements.length - this.head;
+
+		if (this.elements.length == MAX_CAPACITY) {
+			throw new IllegalStateException("queue full");
+		}
+
+		grown = new int[this.elements.length << 1];
+		System.arraycopy(this.elements, this.head, grown, 0, headRun);
+		System.arraycopy(this.elements, 0, grown, headRun, this.head);
+
+		this.elements = grown;
+		this.mask = grown.length - 1;
+		this.head = 0;
+	}
+
+//-------------------------- roundUpToPowerOfTwo() ---------------------------//
+	private static int roundUpToPowerOfTwo(int capacity) {
+		if (capacity <= MIN_CAPACITY) { return MIN_CAPACITY; }
+		if (capacity >= MAX_CAPACITY) { return MAX_CAPACITY; }
+
+		return Integer.highestOneBit(capacity - 1) << 1;
+	}
+}
@@ -0,0 +1,199 @@
+package datastructures;
+
+import java.util.Arrays;
+
+/**
+ * A hash map from primitive longs (e.g. packed multi-robot states) to
+ * primitive ints (e.g. node ids), with open addressing and linear probing in
+ * two parallel arrays. There is no entry object or boxed key per mapping, a
+ * lookup is a run of adjacent array slots, and the table, whose length is a
+ * power of two, doubles once it is half full to keep those runs short. Keys
+ * are scrambled with MurmurHash3's 64-bit finalizer first, so packed keys
+ * that only differ in a few high bits still spread over the whole table.
+ *
+ * Long.MIN_VALUE marks empty slots and can't be used as a key. Mappings can't
+ * be removed one by one, only all at once with clear().
+ *
+ * @author Mauricio Esquivel Rogel
+ * @date Fall Term 2016
+ */
+public class LongIntHashMap {
+/******************************** CONSTANTS ***********************************/
+	// PUBLIC
+	public static final int NO_VALUE = -1;
+
+	// PRIVATE
+	private static final long EMPTY = Long.MIN_VALUE;
+	private static final int MIN_CAPACITY = 16;
+	private static final int MAX_CAPACITY = 1 << 30;
+
+/*************************** INSTANCE VARIABLES *******************************/
+	// PUBLIC
+		//
+
+	// PRIVATE
+	private long[] keys;
+	private int[] values;
+	private int numberOfEntries, mask;
+
+/****************************** CONSTRUCTOR ***********************************/
+	public LongIntHashMap() {
+		this(MIN_CAPACITY);
+	}
+
+	/*
+	 * @param expected - expected number of mappings
+	 */
+	public LongIntHashMap(int expected) {
+		int capacity = MIN_CAPACITY;
+
+		while (capacity < MAX_CAPACITY && capacity < 2L * expected) {
+			capacity <<= 1;
+		}
+
+		keys = new long[capacity];
+		values = new int[capacity];
+		mask = capacity - 1;
+		numberOfEntries = 0;
+
+		Arrays.fill(keys, EMPTY);
+	}
+
+/******************************* PUBLIC METHODS *******************************/
+//---------------------------------- get() -----------------------------------//
+	/*
+	 * @return value mapped to a key, or NO_VALUE if there is none
+	 */
+	public int get(long key) {
+		for (int slot = slotOf(key); ; slot = (slot + 1) & this.mask) {
+			if (this.keys[slot] == key) { return this.values[slot]; }
+			if (this.keys[slot] == EMPTY) { return NO_VALUE; }
+		}
+	}
+
+//---------------------------------- put() -----------------------------------//
+	/*
+	 * Maps a key to a value, replacing the value it was mapped to, if any.
+	 * @param key - any key but Long.MIN_VALUE
+	 * @return previous value, or NO_VALUE if the key is new
+	 */
+	public int put(long key, int value) {
+		int slot = slotOf(key), previous = 0;
+
+		if (key == EMPTY) {
+			throw new IllegalArgumentException("reserved key " + key);
+		}
+
+		while (this.keys[slot] != EMPTY) {
+			if (this.keys[slot] == key) {
+				previous = this.values[slot];
+				this.values[slot] = value;
+
+				return previous;
+			}
+
+			slot = (slot + 1) & this.mask;
+		}
+
+		this.keys[slot] = key;
+		this.values[slot] = value;
+
+		if (++this.numberOfEntries * 2 > this.keys.length) { grow(); }
+
+		return NO_VALUE;
+	}
+
+//------------------------------ containsKey() -------------------------------//
+	public boolean containsKey(long key) {
+		for (int slot = slotOf(key); ; slot = (slot + 1) & this.mask) {
+			if (this.keys[slot] == key) { return true; }
+			if (this.keys[slot] == EMPTY) { return false; }
+		}
+	}
+
+//---------------------------------- size() ----------------------------------//
+	public int size() {
+		return this.numberOfEntries;
+	}
+
+//-------------------------------- isEmpty() ---------------------------------//
+	public boolean isEmpty() {
+		return this.numberOfEntries == 0;
+	}
+
+//--------------------------------- clear() ----------------------------------//
+	/*
+	 * Drops every mapping, keeping the table's capacity.
+	 */
+	public void clear() {
+		Arrays.fill(this.keys, EMPTY);
+		this.numberOfEntries = 0;
+	}
+
+	/*
+	 * Drops every mapping in time proportional to their number rather than
+	 * to the table's capacity, given every key mapped, e.g. to reuse a table
+	 * that grew large for a few keys. Wiping the run of slots from each key's
+	 * first probe on up to an empty one clears every slot a key was put in.
+	 * @param mapped - every key mapped, in any order, and maybe others
+	 * @param count - number of keys of mapped to read
+	 */
+	public void clear(long[] mapped, int count) {
+		if (count * 4L >= this.keys.length) {
+			clear();
+			return;
+		}
+
+		for (int i = 0; i < count; i++) {
+			for (int slot = slotOf(mapped[i]); this.keys[slot] != EMPTY;
+					slot = (slot + 1) & this.mask) {
+				this.keys[slot] = EMPTY;
+			}
+		}
+
+		this.numberOfEntries = 0;
+	}
+
+/**************************** PRIVATE METHODS *********************************/
+//--------------------------------- slotOf() ---------------------------------//
+	/*
+	 * @return first slot probed for a key
+	 */
+	private int slotOf(long key) {
+		key = (key ^ (key >>> 33)) * 0xFF51AFD7ED558CCDL;
+		key = (key ^ (key >>> 33)) * 0xC4CEB9FE1A85EC53L;
+
+		return (int) (key ^ (key >>> 33)) & this.mask;
+	}
+
+//---------------------------------- grow() ----------------------------------//
+	/*
+	 * Doubles the table and puts every mapping back in.
+	 */
+	private void grow() {
+		long[] oldKeys = this.keys;
+		int[] oldValues = this.values;
+		int slot = 0;
+
+		if (oldKeys.length == MAX_CAPACITY) {
+			throw new IllegalStateException("map full");
+		}
+
+		this.keys = new long[oldKeys.length << 1];
+		this.values = new int[oldKeys.length << 1];
+		this.mask = this.keys.length - 1;
+
+		Arrays.fill(this.keys, EMPTY);
+
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] == EMPTY) { continue; }
+
+			slot = slotOf(oldKeys[i]);
+
+			while (this.keys[slot] != EMPTY) { slot = (slot + 1) & this.mask; }
+
+			this.keys[slot] = oldKeys[i];
+			this.values[slot] = oldValues[i];
+		}
+	}
+}
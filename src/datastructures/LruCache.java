@@ -0,0 +1,151 @@
+package datastructures;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A map of at most a fixed number of entries that evicts the least recently
+ * used one to make room for a new one. Entries sit in a LinkedHashMap kept
+ * in access order, so get() and put() move an entry to the most recent end
+ * and the eviction candidate is always at the other end, all in O(1). Hits,
+ * misses and evictions are counted from creation or the last resetStats().
+ *
+ * Every method is synchronized, so one cache can be shared between threads
+ * as long as keys and values are immutable.
+ *
+ * @author Mauricio Esquivel Rogel
+ * @date Fall Term 2016
+ */
+public class LruCache<K, V> {
+/******************************** CONSTANTS ***********************************/
+	// PRIVATE
+	private static final float LOAD_FACTOR = 0.75f;
+
+/*************************** INSTANCE VARIABLES *******************************/
+	// PUBLIC
+		//
+
+	// PRIVATE
+	private int capacity;
+	private long hits, misses, evictions;
+	private LinkedHashMap<K, V> entries;
+
+/****************************** CONSTRUCTOR ***********************************/
+	/*
+	 * @param c - largest number of entries kept, at least 1
+	 */
+	public LruCache(int c) {
+		if (c < 1) {
+			throw new IllegalArgumentException("capacity " + c + " < 1");
+		}
+
+		capacity = c;
+		hits = 0;
+		misses = 0;
+		evictions = 0;
+
+		// sized so the map never rehashes, even one entry over capacity
+		entries = new LinkedHashMap<K, V>((int) ((c + 1) / LOAD_FACTOR) + 1,
+				LOAD_FACTOR, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+				if (size() <= capacity) { return false; }
+
+				evictions++;
+
+				return true;
+			}
+		};
+	}
+
+/******************************* PUBLIC METHODS *******************************/
+//---------------------------------- get() -----------------------------------//
+	/*
+	 * Looks an entry up, making it the most recently used one if found.
+	 * @return value stored under the key, or null if there is none
+	 */
+	public synchronized V get(K key) {
+		V value = this.entries.get(key);
+
+		if (value == null) {
+			this.misses++;
+		} else {
+			this.hits++;
+		}
+
+		return value;
+	}
+
+//---------------------------------- put() -----------------------------------//
+	/*
+	 * Stores an entry as the most recently used one, evicting the least
+	 * recently used entry if the cache was full.
+	 * @param value - value to store, never null
+	 */
+	public synchronized void put(K key, V value) {
+		if (value == null) { throw new NullPointerException("null value"); }
+
+		this.entries.put(key, value);
+	}
+
+//--------------------------------- clear() ----------------------------------//
+	/*
+	 * Drops every entry, keeping the counters.
+	 */
+	public synchronized void clear() {
+		this.entries.clear();
+	}
+
+//------------------------------- resetStats() -------------------------------//
+	public synchronized void resetStats() {
+		this.hits = 0;
+		this.misses = 0;
+		this.evictions = 0;
+	}
+
+//---------------------------------- size() ----------------------------------//
+	public synchronized int size() {
+		return this.entries.size();
+	}
+
+//------------------------------- getCapacity() ------------------------------//
+	public int getCapacity() {
+		return this.capacity;
+	}
+
+//--------------------------------- getHits() --------------------------------//
+	public synchronized long getHits() {
+		return this.hits;
+	}
+
+//-------------------------------- getMisses() -------------------------------//
+	public synchronized long getMisses() {
+		return this.misses;
+	}
+
+//------------------------------ getEvictions() ------------------------------//
+	public synchronized long getEvictions() {
+		return this.evictions;
+	}
+
+//------------------------------- getHitRate() -------------------------------//
+	/*
+	 * @return hits over lookups, or 0 before the first lookup
+	 */
+	public synchronized double getHitRate() {
+		long lookups = this.hits + this.misses;
+
+		return lookups == 0 ? 0 : (double) this.hits / lookups;
+	}
+
+/********************************** OVERRIDES *********************************/
+//-------------------------------- toString() --------------------------------//
+	@Override
+	public synchronized String toString() {
+		return String.format("%d/%d entries, %d hits, %d misses, %d evictions",
+				this.entries.size(), this.capacity, this.hits, this.misses,
+				this.evictions);
+	}
+}
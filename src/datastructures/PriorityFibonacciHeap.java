@@ -1,6 +1,6 @@
 package datastructures;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Iterator;
 
@@ -21,16 +21,24 @@ import java.util.Iterator;
  */
 public class PriorityFibonacciHeap<E extends KeyableObject> implements Iterable<E>{
 /******************************** CONSTANTS ***********************************/
-	//
+	// PRIVATE
+	// 1 / ln(golden ratio): log base phi of n is ln(n) * PHI_FACTOR
+	private static final double PHI_FACTOR = 
+			1.0 / Math.log((1.0 + Math.sqrt(5.0)) / 2.0);
+	private static final int INITIAL_DEGREE_TABLE = 16;
 	
 /*************************** INSTANCE VARIABLES *******************************/
 	// PUBLIC
 		//
 	
 	// PRIVATE
-	private int numberOfNodes;
+	private int numberOfNodes, numberOfRootNodes;
 	private Comparator<E> comparator;
 	private FibonacciHeapNode<E> min;
+	
+	// root of each degree during consolidate(); only ever grows, and every
+	// entry is back to null once consolidate() returns
+	private FibonacciHeapNode<E>[] degreeTable;
 
 /***************************** INNER CLASSES **********************************/
 	private class EmptyHeapIterator implements Iterator<E> {
@@ -52,10 +60,14 @@ public class PriorityFibonacciHeap<E extends KeyableObject> implements Iterable<
 	}
 	
 /****************************** CONSTRUCTOR ***********************************/	
+	@SuppressWarnings("unchecked")
 	public PriorityFibonacciHeap(Comparator<E> c){
 		numberOfNodes = 0;
+		numberOfRootNodes = 0;
 		comparator = c;
 		min = null;
+		degreeTable = (FibonacciHeapNode<E>[])
+				new FibonacciHeapNode<?>[INITIAL_DEGREE_TABLE];
 	}
 
 	
@@ -81,6 +93,7 @@ public class PriorityFibonacciHeap<E extends KeyableObject> implements Iterable<
 		}
 		
 		this.numberOfNodes++; 
+		this.numberOfRootNodes++;
 	}
 
 //---------------------------------- peek() ----------------------------------//
@@ -117,10 +130,12 @@ public class PriorityFibonacciHeap<E extends KeyableObject> implements Iterable<
 				
 				min.decreaseDegree();
 				child = temp;
+				this.numberOfRootNodes++;
 			}
 			
 			// extract min element
 			min.spliceOut();
+			this.numberOfRootNodes--;
 			
 			// if min element was the only element, then there is no new min
 			if (min == min.right) { this.min = null; }
@@ -217,6 +232,7 @@ public class PriorityFibonacciHeap<E extends KeyableObject> implements Iterable<
 	public void clear() {
 		this.min = null;
 		this.numberOfNodes = 0;
+		this.numberOfRootNodes = 0;
 	}
 
 /********************************** OVERRIDES *********************************/
@@ -229,33 +245,18 @@ public class PriorityFibonacciHeap<E extends KeyableObject> implements Iterable<
 	 * satisfying the Fibonacci heap constraints 
 	 */
 	private void consolidate() {
-		// Create an auxiliary array with enough capacity to hold the maximum
-		// number of root nodes possible i.e. the Fibonacci determined upper 
-		// bound
-		int upperBound = getUpperBound(), currentDegree = 0,
-				numberOfRootNodes = 0;
-		FibonacciHeapNode<E> currentNode = null, otherNode = null, temp = null,
-				tempRight = null;
-		ArrayList<FibonacciHeapNode<E>> auxiliaryArray = 
-				new ArrayList<FibonacciHeapNode<E>>(upperBound);
+		// the root count is kept up to date by every operation that adds or
+		// removes roots, so there is no need for a pass to count them
+		int currentDegree = 0, maxDegree = 0,
+				numberOfRootNodes = this.numberOfRootNodes;
+		FibonacciHeapNode<E> currentNode = this.min, otherNode = null,
+				temp = null, tempRight = null;
+		FibonacciHeapNode<E>[] degreeTable = null;
 		
-		// temporarily initialize array to null values to hold the root nodes
-		for (int i = 0; i < upperBound; i++) {	
-			auxiliaryArray.add(i, null);
-		}
-		
-		// count the current number of root nodes
-		if ((currentNode = this.min) != null) {
-			numberOfRootNodes++;
-            currentNode = currentNode.right;
-            
-
-            
-            while (currentNode != this.min) {
-            	numberOfRootNodes++;
-                currentNode = currentNode.right;
-            }
-		}
+		// make sure the reusable degree table can hold the Fibonacci
+		// determined upper bound to the degree of any root
+		ensureDegreeTable(getUpperBound());
+		degreeTable = this.degreeTable;
 		
 		// navigate through the current root list, merging nodes to satisfy
 		// the constraint
@@ -265,7 +266,7 @@ public class PriorityFibonacciHeap<E extends KeyableObject> implements Iterable<
 			
 			// fix all conflicting degrees by making the node with the bigger
 			// key a child of the node with the smaller key
-			while ((otherNode = auxiliaryArray.get(currentDegree)) != null) {
+			while ((otherNode = degreeTable[currentDegree]) != null) {
 				// if the node to the left is bigger than the node to the right,
 				// swap the nodes with each other
 				if (this.comparator.compare(currentNode.getValue(),
@@ -279,24 +280,29 @@ public class PriorityFibonacciHeap<E extends KeyableObject> implements Iterable<
 				// the node with the smaller key
 				link(otherNode, currentNode);
 				
-				auxiliaryArray.set(currentDegree, null);
+				degreeTable[currentDegree] = null;
 				currentDegree++;
 			}
 			
 			// occupy the unique position of the current degree with the latest
 			// node
-			auxiliaryArray.set(currentDegree, currentNode);
+			degreeTable[currentDegree] = currentNode;
+			maxDegree = Math.max(maxDegree, currentDegree);
 			currentNode = tempRight;
 			numberOfRootNodes--;
 		}
 		
 		// reset min
 		this.min = null;
+		this.numberOfRootNodes = 0;
 		
-		// go through the auxiliary array to build the new root list and 
-		// determine the new min
-		for (int i = 0; i < upperBound; i++) {
-			if ((currentNode = auxiliaryArray.get(i)) == null) { continue; }
+		// go through the degree table to build the new root list and 
+		// determine the new min, leaving the table empty for the next call
+		for (int i = 0; i <= maxDegree; i++) {
+			if ((currentNode = degreeTable[i]) == null) { continue; }
+			
+			degreeTable[i] = null;
+			this.numberOfRootNodes++;
 			
 			// if root list is still empty, make this node its first element
 			if (this.min == null) { this.min = currentNode; }
@@ -364,6 +370,7 @@ public class PriorityFibonacciHeap<E extends KeyableObject> implements Iterable<
 		
 		// add node to root list
 		this.min.spliceRight(node);
+		this.numberOfRootNodes++;
 		
 		// update node's parent reference and indicate that the node hasn't
 		// lost any children since it was last made child to another node (in
@@ -401,12 +408,23 @@ public class PriorityFibonacciHeap<E extends KeyableObject> implements Iterable<
 	 * @return Fibonacci determined upper-bound to the number of root nodes 
 	 */
 	private int getUpperBound() {
-		double PHI_FACTOR = 1.0 / Math.log((1.0 + Math.sqrt(5.0)) / 2.0);
-		
 		return ((int) Math.floor(Math.log(this.numberOfNodes) *
 				PHI_FACTOR)) + 1;
 	}
 
+//-------------------------- ensureDegreeTable() -----------------------------//
+	/*
+	 * Grows the degree table, never shrinking it, so that once a heap has
+	 * reached its working size consolidate() allocates nothing.
+	 * @param capacity - number of degrees the table must hold
+	 */
+	private void ensureDegreeTable(int capacity) {
+		if (capacity > this.degreeTable.length) {
+			this.degreeTable = Arrays.copyOf(this.degreeTable,
+					Math.max(capacity, this.degreeTable.length * 2));
+		}
+	}
+
 	@Override
 	public Iterator<E> iterator() {
 		return new EmptyHeapIterator(this);
@@ -0,0 +1,221 @@
+package mazeworld;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import datastructures.LruCache;
+
+/**
+ * Solves batches of independent MazeQuery objects on a work-stealing
+ * ForkJoinPool. A batch is split in halves recursively down to a handful of
+ * queries per task, so idle workers steal whatever is left when some queries
+ * take much longer than others. Every query runs on its own MazeworldProblem,
+ * which keeps search stats in instance fields and must never be shared
+ * between threads, while the mazes themselves are only read and can be
+ * shared by any number of queries. Each worker thread keeps one
+ * SearchContext that every query it solves searches in, so a batch of small
+ * queries doesn't allocate per-cell arrays for each of them.
+ *
+ * @author Mauricio Esquivel Rogel
+ * @date Fall Term 2016
+ */
+public class BatchSolver {
+/******************************** CONSTANTS ***********************************/
+	// PRIVATE
+	private static final int SEQUENTIAL_THRESHOLD = 4;
+
+/*************************** INSTANCE VARIABLES *******************************/
+	// PUBLIC
+		//
+
+	// PRIVATE
+	private ForkJoinPool pool;
+	private int frontierType, lastBatchSize;
+	private Duration lastBatchTime;
+	private ThreadLocal<SearchContext> contexts;
+	private LruCache<Object, int[]> pathCache;
+
+/***************************** INNER CLASSES **********************************/
+	/**
+	 * Solves queries [from, to) of a batch, splitting the range between two
+	 * subtasks while it is larger than SEQUENTIAL_THRESHOLD
+	 *
+	 * @author Mauricio Esquivel Rogel
+	 * @date Fall Term 2016
+	 */
+	private class SolveTask extends RecursiveAction {
+	//----------------------------- CONSTANTS --------------------------------//
+		// PRIVATE
+		private static final long serialVersionUID = 1L;
+
+	//----------------------INSTANCE VARIABLES--------------------------------//
+		// PRIVATE
+		private MazeQuery[] queries;
+		private QueryResult[] results;
+		private int from, to;
+
+	//--------------------------- CONSTRUCTOR --------------------------------//
+		private SolveTask(MazeQuery[] q, QueryResult[] r, int f, int t) {
+			queries = q;
+			results = r;
+			from = f;
+			to = t;
+		}
+
+	//----------------------------- OVERRIDES --------------------------------//
+	//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ compute() ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~//
+		@Override
+		protected void compute() {
+			int middle = 0;
+
+			if (this.to - this.from <= SEQUENTIAL_THRESHOLD) {
+				for (int i = this.from; i < this.to; i++) {
+					this.results[i] = solveQuery(this.queries[i]);
+				}
+
+				return;
+			}
+
+			middle = (this.from + this.to) >>> 1;
+			invokeAll(new SolveTask(this.queries, this.results, this.from,
+					middle), new SolveTask(this.queries, this.results, middle,
+							this.to));
+		}
+	}
+
+/****************************** CONSTRUCTOR ***********************************/
+	/*
+	 * Uses one worker per available core.
+	 */
+	public BatchSolver() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/*
+	 * @param parallelism - number of worker threads
+	 */
+	public BatchSolver(int parallelism) {
+		pool = new ForkJoinPool(parallelism);
+		frontierType = UUSearchProblem.FIBONACCI_HEAP_FRONTIER;
+		lastBatchSize = 0;
+		lastBatchTime = Duration.ZERO;
+		pathCache = null;
+		contexts = new ThreadLocal<SearchContext>() {
+			@Override
+			protected SearchContext initialValue() {
+				return new SearchContext();
+			}
+		};
+	}
+
+/******************************* PUBLIC METHODS *******************************/
+//--------------------------------- solve() ----------------------------------//
+	/*
+	 * Solves a batch of queries, blocking until all of them are done.
+	 * @param queries - queries to solve
+	 * @return result of each query, in the same order as the queries
+	 */
+	public QueryResult[] solve(MazeQuery[] queries) {
+		QueryResult[] results = new QueryResult[queries.length];
+		Instant start = Instant.now();
+
+		this.pool.invoke(new SolveTask(queries, results, 0, queries.length));
+
+		this.lastBatchTime = Duration.between(start, Instant.now());
+		this.lastBatchSize = queries.length;
+
+		return results;
+	}
+
+	public List<QueryResult> solve(List<MazeQuery> queries) {
+		return Arrays.asList(solve(queries.toArray(
+				new MazeQuery[queries.size()])));
+	}
+
+//---------------------------- setFrontierType() -----------------------------//
+	/*
+	 * Chooses the priority queue used by A* and JPS queries (see
+	 * UUSearchProblem.setFrontierType()).
+	 */
+	public void setFrontierType(int type) {
+		this.frontierType = type;
+	}
+
+//------------------------------ setPathCache() ------------------------------//
+	/*
+	 * Shares a path cache between every A* query of every batch from now on
+	 * (see UUSearchProblem.setPathCache()), so repeated queries are looked up
+	 * instead of searched.
+	 * @param c - cache, or null to search every query
+	 */
+	public void setPathCache(LruCache<Object, int[]> c) {
+		this.pathCache = c;
+	}
+
+//---------------------------- getParallelism() ------------------------------//
+	public int getParallelism() {
+		return this.pool.getParallelism();
+	}
+
+//----------------------------- getThroughput() ------------------------------//
+	/*
+	 * @return queries solved per second during the last batch
+	 */
+	public double getThroughput() {
+		long nanos = this.lastBatchTime.toNanos();
+
+		return nanos == 0 ? 0 : this.lastBatchSize / (nanos / 1e9);
+	}
+
+//------------------------------- printStats() -------------------------------//
+	public void printStats() {
+		System.out.println("Queries solved during last batch: " +
+				this.lastBatchSize);
+		System.out.println("Worker threads: " + getParallelism());
+		System.out.println("Running time: " + this.lastBatchTime.toMillis() /
+				1000.0 + "s");
+		System.out.println(String.format("Throughput: %.1f queries/s",
+				getThroughput()));
+	}
+
+//-------------------------------- shutdown() --------------------------------//
+	/*
+	 * Stops the worker threads once the current batch, if any, is done.
+	 */
+	public void shutdown() {
+		this.pool.shutdown();
+	}
+
+/**************************** PRIVATE METHODS *********************************/
+//------------------------------- solveQuery() -------------------------------//
+	private QueryResult solveQuery(MazeQuery query) {
+		MazeworldProblem problem = new MazeworldProblem(query.getMaze(),
+				query.getStartX(), query.getStartY(), query.getGoalX(),
+				query.getGoalY());
+
+		problem.setFrontierType(this.frontierType);
+		problem.setSearchContext(this.contexts.get());
+		problem.setPathCache(this.pathCache);
+
+		switch (query.getAlgorithm()) {
+			case MazeQuery.A_STAR_SEARCH:
+				return new QueryResult(query, problem.aStarSearch(), problem);
+
+			case MazeQuery.JUMP_POINT_SEARCH:
+				return new QueryResult(query, problem.jumpPointSearch(),
+						problem);
+
+			case MazeQuery.DISTANCE_FIELD:
+				return new QueryResult(query, problem.distanceFieldSearch(),
+						problem);
+
+			default:
+				return new QueryResult(query, problem.breadthFirstSearch(),
+						problem);
+		}
+	}
+}
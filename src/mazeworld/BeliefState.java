@@ -0,0 +1,244 @@
+package mazeworld;
+
+import java.util.Arrays;
+
+/**
+ * Belief state of a blind robot on a MazeGrid: the set of cells it may have
+ * started from, as a bitset laid out like the maze's own (bit x * height + y
+ * of the cells is set if the robot may have started in (x, y)). Moving every
+ * candidate by the same offset is a shift of the maze's free-cell bitmap by
+ * x * height + y bits, masked where the offset wraps around a column or off
+ * the maze, so filtering the whole belief after a move takes a few passes
+ * over long[] instead of a lookup per candidate, and starting positions on
+ * mazes of a million cells fit in 16K words.
+ *
+ * @author Mauricio Esquivel Rogel
+ * @date Fall Term 2016
+ */
+public class BeliefState {
+/******************************** CONSTANTS ***********************************/
+	// PRIVATE
+	private static final int WORD_BITS = 64;
+
+/*************************** INSTANCE VARIABLES *******************************/
+	// PUBLIC
+		//
+
+	// PRIVATE
+	private MazeGrid maze;
+	private int width, height, cellCount, version;
+
+	// candidate cells, the maze's free cells as of version, and room to
+	// shift them in
+	private long[] cells, free, shifted;
+
+/****************************** CONSTRUCTOR ***********************************/
+	/*
+	 * Starts out believing the robot may be in any free cell.
+	 * @param m - maze the robot is on
+	 */
+	public BeliefState(MazeGrid m) {
+		maze = m;
+		width = m.getWidth();
+		height = m.getHeight();
+		cellCount = m.getCellCount();
+		free = new long[MazeGrid.getWordCount(cellCount)];
+		shifted = new long[free.length];
+
+		loadFreeCells();
+		cells = free.clone();
+	}
+
+/******************************* PUBLIC METHODS *******************************/
+//---------------------------------- size() ----------------------------------//
+	/*
+	 * @return number of cells the robot may have started from
+	 */
+	public int size() {
+		int count = 0;
+
+		for (long word : this.cells) { count += Long.bitCount(word); }
+
+		return count;
+	}
+
+//--------------------------------- contains() -------------------------------//
+	public boolean contains(int cell) {
+		return (this.cells[cell >>> 6] & (1L << cell)) != 0;
+	}
+
+//---------------------------------- first() ---------------------------------//
+	/*
+	 * @return lowest candidate cell, or MazeGrid.NO_CELL if there is none
+	 */
+	public int first() {
+		return next(0);
+	}
+
+//---------------------------------- next() ----------------------------------//
+	/*
+	 * @param cell - packed cell id to start looking from, inclusive
+	 * @return lowest candidate cell from there on, or MazeGrid.NO_CELL if
+	 * 		   there is none
+	 */
+	public int next(int cell) {
+		int index = cell >>> 6;
+		long word = 0;
+
+		if (cell >= this.cellCount) { return MazeGrid.NO_CELL; }
+
+		word = this.cells[index] & (-1L << cell);
+
+		while (word == 0) {
+			if (++index == this.cells.length) { return MazeGrid.NO_CELL; }
+
+			word = this.cells[index];
+		}
+
+		return index * WORD_BITS + Long.numberOfTrailingZeros(word);
+	}
+
+//--------------------------------- keepFree() -------------------------------//
+	/*
+	 * Keeps the candidates that are a free cell once moved by an offset.
+	 * @param dx - columns to move every candidate by
+	 * @param dy - rows to move every candidate by
+	 */
+	public void keepFree(int dx, int dy) {
+		shiftFreeCells(dx, dy);
+
+		for (int i = 0; i < this.cells.length; i++) {
+			this.cells[i] &= this.shifted[i];
+		}
+	}
+
+//------------------------------- keepBlocked() ------------------------------//
+	/*
+	 * Keeps the candidates that are not a free cell once moved by an offset,
+	 * but still at most one cell away from the maze, i.e. the ones a robot
+	 * that moved that way would have bumped into a wall or the maze's edge.
+	 * @param dx - columns to move every candidate by
+	 * @param dy - rows to move every candidate by
+	 */
+	public void keepBlocked(int dx, int dy) {
+		shiftFreeCells(dx, dy);
+
+		for (int i = 0; i < this.cells.length; i++) {
+			this.cells[i] &= ~this.shifted[i];
+		}
+
+		keepRange(this.cells, -1 - dx, this.width + 1 - dx, -1 - dy,
+				this.height + 1 - dy);
+	}
+
+//-------------------------------- keepWalled() ------------------------------//
+	/*
+	 * Keeps the candidates that are a walled cell of the maze once moved by
+	 * an offset, e.g. to find the free cells a move is impossible from.
+	 * @param dx - columns to move every candidate by
+	 * @param dy - rows to move every candidate by
+	 */
+	public void keepWalled(int dx, int dy) {
+		shiftFreeCells(dx, dy);
+
+		for (int i = 0; i < this.cells.length; i++) {
+			this.cells[i] &= ~this.shifted[i];
+		}
+
+		keepRange(this.cells, -dx, this.width - dx, -dy, this.height - dy);
+	}
+
+/**************************** PRIVATE METHODS *********************************/
+//------------------------------ loadFreeCells() -----------------------------//
+	/*
+	 * Copies the maze's free-cell bitmap, dropping the bits past its last
+	 * cell.
+	 */
+	private void loadFreeCells() {
+		for (int i = 0; i < this.free.length; i++) {
+			this.free[i] = this.maze.getWord(i);
+		}
+
+		clearRange(this.free, this.cellCount, this.free.length * WORD_BITS);
+		this.version = this.maze.getVersion();
+	}
+
+//------------------------------ shiftFreeCells() ----------------------------//
+	/*
+	 * Sets bit c of shifted if c moved by an offset is a free cell of the
+	 * maze, reloading the free cells first if the maze changed since.
+	 */
+	private void shiftFreeCells(int dx, int dy) {
+		long bits = (long) dx * this.height + dy;
+		long words = Math.floorDiv(bits, WORD_BITS);
+		int shift = Math.floorMod(bits, WORD_BITS);
+		long low = 0, high = 0;
+
+		if (this.maze.getVersion() != this.version) { loadFreeCells(); }
+
+		for (int i = 0; i < this.shifted.length; i++) {
+			low = wordAt(i + words);
+			high = wordAt(i + words + 1);
+			this.shifted[i] = shift == 0 ? low :
+				(low >>> shift) | (high << (WORD_BITS - shift));
+		}
+
+		// cells moved past the top or bottom of a column land in the next
+		// one, and past either side in the bits beyond the maze
+		keepRange(this.shifted, -dx, this.width - dx, -dy, this.height - dy);
+	}
+
+//--------------------------------- wordAt() ---------------------------------//
+	/*
+	 * @return word of the free cells, or 0 past either end of the maze
+	 */
+	private long wordAt(long index) {
+		return 0 <= index && index < this.free.length ?
+				this.free[(int) index] : 0;
+	}
+
+//-------------------------------- keepRange() -------------------------------//
+	/*
+	 * Clears every cell of a bitset outside the columns [fromX, toX) and rows
+	 * [fromY, toY), clamped to the maze.
+	 */
+	private void keepRange(long[] bits, int fromX, int toX, int fromY,
+			int toY) {
+		int x0 = Math.max(0, fromX), x1 = Math.min(this.width, toX),
+				y0 = Math.max(0, fromY), y1 = Math.min(this.height, toY);
+
+		if (x0 >= x1 || y0 >= y1) {
+			Arrays.fill(bits, 0L);
+			return;
+		}
+
+		clearRange(bits, 0, x0 * this.height);
+		clearRange(bits, x1 * this.height, this.cellCount);
+
+		if (y0 > 0 || y1 < this.height) {
+			for (int x = x0; x < x1; x++) {
+				clearRange(bits, x * this.height, x * this.height + y0);
+				clearRange(bits, x * this.height + y1, (x + 1) * this.height);
+			}
+		}
+	}
+
+//-------------------------------- clearRange() ------------------------------//
+	/*
+	 * Clears bits [from, to) of a bitset, a word at a time.
+	 */
+	private static void clearRange(long[] bits, int from, int to) {
+		int first = from >>> 6, last = (to - 1) >>> 6;
+		long firstMask = -1L << from, lastMask = -1L >>> -to;
+
+		if (from >= to) { return; }
+
+		if (first == last) {
+			bits[first] &= ~(firstMask & lastMask);
+		} else {
+			bits[first] &= ~firstMask;
+			Arrays.fill(bits, first + 1, last, 0L);
+			bits[last] &= ~lastMask;
+		}
+	}
+}
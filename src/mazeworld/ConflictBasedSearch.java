@@ -0,0 +1,366 @@
+package mazeworld;
+
+import java.util.Comparator;
+
+import datastructures.FibonacciHeapNode;
+import datastructures.KeyableObject;
+import datastructures.LongIntHashMap;
+import datastructures.PriorityFibonacciHeap;
+
+/**
+ * Conflict-Based Search (Sharon et al., 2015) for robots sharing a MazeGrid,
+ * moving as described by FleetPlan. The high level searches a binary tree of
+ * constraints, best first by total cost on a PriorityFibonacciHeap: every
+ * tree node holds one path per robot, each of least cost under that robot's
+ * constraints, and is a solution if the paths never collide. Otherwise its
+ * earliest collision is split into two children, each forbidding one of the
+ * two robots the cell, or the move, it collided on at that time, and only
+ * that robot is planned again, by SpaceTimeAStar.
+ *
+ * The tree never holds joint states, so unlike MultiRobotSearch it isn't
+ * limited by how many robots fit in a long, and it works best when robots
+ * rarely get in each other's way, as on a warehouse floor. A tree node only
+ * stores its own constraint and the path it changed; everything else is
+ * read from its ancestors. The tree can grow forever when there is no plan
+ * but every robot can reach its goal on its own, e.g. two robots swapping
+ * the ends of a dead-end corridor, which setExpansionLimit() guards against.
+ *
+ * @author Mauricio Esquivel Rogel
+ * @date Fall Term 2016
+ */
+public class ConflictBasedSearch {
+/******************************** CONSTANTS ***********************************/
+	// PRIVATE
+	private static final int VERTEX = 0;
+
+/*************************** INSTANCE VARIABLES *******************************/
+	// PUBLIC
+		//
+
+	// PRIVATE
+	private MazeGrid maze;
+	private int robots, nodesExplored, maxMemory, expansionLimit;
+	private int[] starts, goals;
+	private SpaceTimeAStar planner;
+	private RobotConstraints constraints;
+
+/***************************** INNER CLASSES **********************************/
+	/**
+	 * Node of the constraint tree: one constraint on one robot on top of its
+	 * parent's, and the path that robot follows under all of them.
+	 *
+	 * @author Mauricio Esquivel Rogel
+	 * @date Fall Term 2016
+	 */
+	private static class ConstraintNode implements KeyableObject {
+	//----------------------INSTANCE VARIABLES--------------------------------//
+		// PUBLIC
+			//
+
+		// PRIVATE
+		private ConstraintNode parent;
+		private int robot, cell, direction, time, cost, depth;
+		private int[] path;
+
+	//--------------------------- CONSTRUCTOR --------------------------------//
+		/*
+		 * @param p - parent node, null for the root
+		 * @param r - robot constrained
+		 * @param c - cell it may not be in, or move into, at time t
+		 * @param d - VERTEX, or 1 + index in MazeworldProblem's move order of
+		 * 			  the move into c that is forbidden
+		 * @param t - time step
+		 */
+		public ConstraintNode(ConstraintNode p, int r, int c, int d, int t) {
+			parent = p;
+			robot = r;
+			cell = c;
+			direction = d;
+			time = t;
+			depth = p == null ? 0 : p.depth + 1;
+		}
+
+	//~~~~~~~~~~~~~~~~~~~~~~~~~~~~ calculateKey() ~~~~~~~~~~~~~~~~~~~~~~~~~~~~//
+		@Override
+		public int calculateKey() {
+			return this.cost;
+		}
+	}
+
+	/**
+	 * Orders constraint nodes by total cost, deepest first on ties since
+	 * those are closer to a solution.
+	 *
+	 * @author Mauricio Esquivel Rogel
+	 * @date Fall Term 2016
+	 */
+	private static class CostComparator implements Comparator<ConstraintNode> {
+		@Override
+		public int compare(ConstraintNode x, ConstraintNode y) {
+			if (x.cost != y.cost) { return x.cost < y.cost ? -1 : 1; }
+			if (x.depth != y.depth) { return x.depth > y.depth ? -1 : 1; }
+
+			return 0;
+		}
+	}
+
+	/**
+	 * Constraints of one robot along a branch of the tree, in a hash set of
+	 * (time, cell, direction) keys.
+	 *
+	 * @author Mauricio Esquivel Rogel
+	 * @date Fall Term 2016
+	 */
+	private class RobotConstraints implements SpaceTimeConstraints {
+	//----------------------INSTANCE VARIABLES--------------------------------//
+		// PUBLIC
+			//
+
+		// PRIVATE
+		private LongIntHashMap blocked;
+		private int goal, lastGoalTime, horizon;
+
+	//--------------------------- CONSTRUCTOR --------------------------------//
+		public RobotConstraints() {
+			blocked = new LongIntHashMap();
+		}
+
+	//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ collect() ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~//
+		/*
+		 * Gathers every constraint on a robot from a node up to the root.
+		 */
+		public void collect(ConstraintNode node, int robot) {
+			this.blocked.clear();
+			this.goal = ConflictBasedSearch.this.goals[robot];
+			this.lastGoalTime = NEVER;
+			this.horizon = NEVER;
+
+			for (ConstraintNode n = node; n.parent != null; n = n.parent) {
+				if (n.robot != robot) { continue; }
+
+				this.blocked.put(keyOf(n.cell, n.direction, n.time), 1);
+				this.horizon = Math.max(this.horizon, n.time);
+
+				if (n.cell == this.goal && n.direction == VERTEX) {
+					this.lastGoalTime = Math.max(this.lastGoalTime, n.time);
+				}
+			}
+		}
+
+	//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ isBlocked() ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~//
+		@Override
+		public boolean isBlocked(int cell, int time) {
+			return time <= this.horizon &&
+					this.blocked.containsKey(keyOf(cell, VERTEX, time));
+		}
+
+	//~~~~~~~~~~~~~~~~~~~~~~~~~~~~ isBlockedMove() ~~~~~~~~~~~~~~~~~~~~~~~~~~~//
+		@Override
+		public boolean isBlockedMove(int from, int to, int time) {
+			return time <= this.horizon && this.blocked.containsKey(keyOf(to,
+					directionOf(from, to), time));
+		}
+
+	//~~~~~~~~~~~~~~~~~~~~~~~~~~ getLastBlockedTime() ~~~~~~~~~~~~~~~~~~~~~~~~//
+		@Override
+		public int getLastBlockedTime(int cell) {
+			int last = NEVER;
+
+			if (cell == this.goal) { return this.lastGoalTime; }
+
+			for (int t = this.horizon; t >= 0 && last == NEVER; t--) {
+				if (isBlocked(cell, t)) { last = t; }
+			}
+
+			return last;
+		}
+
+	//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ getHorizon() ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~//
+		@Override
+		public int getHorizon() {
+			return this.horizon;
+		}
+	}
+
+/****************************** CONSTRUCTOR ***********************************/
+	/*
+	 * @param m - maze the robots share
+	 * @param s - start cell of every robot
+	 * @param g - goal cell of every robot
+	 */
+	public ConflictBasedSearch(MazeGrid m, int[] s, int[] g) {
+		maze = m;
+		robots = s.length;
+		starts = s.clone();
+		goals = g.clone();
+		expansionLimit = Integer.MAX_VALUE;
+		planner = new SpaceTimeAStar(m);
+		constraints = new RobotConstraints();
+	}
+
+/******************************* PUBLIC METHODS *******************************/
+//--------------------------------- search() ---------------------------------//
+	/*
+	 * @return collision-free plan of least total cost, or null if there is
+	 * 		   none or the expansion limit ran out first
+	 */
+	public FleetPlan search() {
+		PriorityFibonacciHeap<ConstraintNode> tree =
+				new PriorityFibonacciHeap<ConstraintNode>(new CostComparator());
+		ConstraintNode root = new ConstraintNode(null, 0, 0, VERTEX, 0), node =
+				null;
+		FleetPlan plan = null;
+		int[] conflict = null;
+		int[][] paths = null;
+		int a = 0, b = 0, time = 0, cellA = 0, cellB = 0;
+
+		this.nodesExplored = 0;
+		this.maxMemory = 0;
+
+		if (!MultiRobotSearch.isValidInstance(this.maze, this.starts,
+				this.goals)) {
+			return null;
+		}
+
+		// the root plans every robot on its own
+		paths = new int[this.robots][];
+
+		for (int i = 0; i < this.robots; i++) {
+			this.constraints.collect(root, i);
+			paths[i] = this.planner.search(this.starts[i], this.goals[i],
+					this.constraints);
+
+			if (paths[i] == null) { return null; }
+		}
+
+		root.cost = new FleetPlan(paths).getCost();
+		tree.insert(new FibonacciHeapNode<ConstraintNode>(root));
+
+		while (!tree.isEmpty() && this.nodesExplored < this.expansionLimit) {
+			node = tree.poll().getValue();
+			plan = new FleetPlan(pathsOf(node, paths));
+			conflict = plan.findConflict();
+
+			if (conflict == null) { return plan; }
+
+			this.nodesExplored++;
+			a = conflict[0];
+			b = conflict[1];
+			time = conflict[2];
+			cellA = plan.getCell(a, time);
+			cellB = plan.getCell(b, time);
+
+			if (cellA == cellB) {
+				branch(tree, node, a, cellA, VERTEX, time, paths);
+				branch(tree, node, b, cellB, VERTEX, time, paths);
+			} else {
+				branch(tree, node, a, cellA, directionOf(cellB, cellA), time,
+						paths);
+				branch(tree, node, b, cellB, directionOf(cellA, cellB), time,
+						paths);
+			}
+
+			this.maxMemory = Math.max(this.maxMemory, tree.size());
+		}
+
+		return null;
+	}
+
+//--------------------------- setExpansionLimit() ----------------------------//
+	/*
+	 * @param limit - constraint nodes the next searches may expand before
+	 * 				  giving up; unlimited by default
+	 */
+	public void setExpansionLimit(int limit) {
+		this.expansionLimit = limit;
+	}
+
+//---------------------------- getNodesExplored() ----------------------------//
+	/*
+	 * @return constraint nodes expanded during the last search
+	 */
+	public int getNodesExplored() {
+		return this.nodesExplored;
+	}
+
+//------------------------------ getMaxMemory() ------------------------------//
+	/*
+	 * @return largest number of constraint nodes waiting during the last
+	 * 		   search
+	 */
+	public int getMaxMemory() {
+		return this.maxMemory;
+	}
+
+/**************************** PRIVATE METHODS *********************************/
+//--------------------------------- branch() ---------------------------------//
+	/*
+	 * Adds the child of a node that forbids a robot a cell, or a move into
+	 * it, at a time, and plans that robot again; a child whose robot can't
+	 * reach its goal anymore is dropped.
+	 * @param paths - root's paths
+	 */
+	private void branch(PriorityFibonacciHeap<ConstraintNode> tree,
+			ConstraintNode node, int robot, int cell, int direction, int time,
+			int[][] paths) {
+		ConstraintNode child = new ConstraintNode(node, robot, cell, direction,
+				time);
+		int[] old = pathOf(node, robot, paths);
+
+		this.constraints.collect(child, robot);
+		child.path = this.planner.search(this.starts[robot],
+				this.goals[robot], this.constraints);
+
+		if (child.path == null) { return; }
+
+		child.cost = node.cost - FleetPlan.getPathCost(old) +
+				FleetPlan.getPathCost(child.path);
+		tree.insert(new FibonacciHeapNode<ConstraintNode>(child));
+	}
+
+//--------------------------------- pathOf() ---------------------------------//
+	/*
+	 * @return path of a robot at a node, i.e. the one planned by its closest
+	 * 		   ancestor that constrained it, or the root's
+	 */
+	private int[] pathOf(ConstraintNode node, int robot, int[][] paths) {
+		for (ConstraintNode n = node; n.parent != null; n = n.parent) {
+			if (n.robot == robot) { return n.path; }
+		}
+
+		return paths[robot];
+	}
+
+//-------------------------------- pathsOf() ---------------------------------//
+	private int[][] pathsOf(ConstraintNode node, int[][] paths) {
+		int[][] current = new int[this.robots][];
+
+		for (int i = 0; i < this.robots; i++) {
+			current[i] = pathOf(node, i, paths);
+		}
+
+		return current;
+	}
+
+//-------------------------------- keyOf() -----------------------------------//
+	/*
+	 * @return hash key of a constraint
+	 */
+	private long keyOf(int cell, int direction, int time) {
+		return ((long) time * this.maze.getCellCount() + cell) * 5 + direction;
+	}
+
+//------------------------------ directionOf() -------------------------------//
+	/*
+	 * @return 1 + index of the move from a cell to a neighbouring one in
+	 * 		   MazeworldProblem's order (east, west, north, south)
+	 */
+	private int directionOf(int from, int to) {
+		int step = to - from, height = this.maze.getHeight();
+
+		if (step == height) { return 1; }
+		if (step == -height) { return 2; }
+
+		return step == 1 ? 3 : 4;
+	}
+}
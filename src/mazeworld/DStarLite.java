@@ -0,0 +1,320 @@
+package mazeworld;
+
+import java.util.Arrays;
+
+import datastructures.IndexedDaryHeap;
+
+/**
+ * D* Lite (Koenig and Likhachev, optimized version) on a 4-connected,
+ * uniform-cost MazeGrid whose cells open and close over time. The search
+ * runs backward from the goal, keeping for every cell g, its distance to the
+ * goal as last computed, and rhs, the one-step lookahead
+ * min(1 + g(neighbour)); cells where the two disagree are inconsistent and
+ * wait on a priority queue keyed by
+ *
+ *   [min(g, rhs) + h(start, cell) + km, min(g, rhs)]
+ *
+ * compared lexicographically. A change to a cell only touches the rhs of the
+ * cell and its neighbours, and the next plan() re-expands just the cells
+ * whose distances the change actually moved, instead of searching again
+ * from scratch. When the robot moves, km grows by the heuristic distance it
+ * covered so that the keys already queued stay valid lower bounds.
+ *
+ * Moves into or out of a walled cell cost infinity, so the paths found are
+ * as short as breadth-first search's on the maze as it is when plan() runs.
+ *
+ * @author Mauricio Esquivel Rogel
+ * @date Fall Term 2016
+ */
+public class DStarLite {
+/******************************** CONSTANTS ***********************************/
+	// PRIVATE
+	private static final int INFINITY = Integer.MAX_VALUE;
+	private static final int HEAP_ARITY = 4;
+
+/*************************** INSTANCE VARIABLES *******************************/
+	// PUBLIC
+		//
+
+	// PRIVATE
+	private MazeGrid maze;
+	private int width, height, startCell, lastCell, goalCell, km,
+			nodesExplored, maxMemory;
+	private int[] g, rhs, offsets;
+	private IndexedDaryHeap queue;
+
+/****************************** CONSTRUCTOR ***********************************/
+	/*
+	 * Sets up a planner; nothing is searched until the first plan().
+	 * @param m - maze to plan on, changed from now on through setFree()
+	 * @param start - packed cell id (x * height + y) of the robot
+	 * @param goal - packed cell id of the goal
+	 */
+	public DStarLite(MazeGrid m, int start, int goal) {
+		maze = m;
+		width = m.getWidth();
+		height = m.getHeight();
+		startCell = start;
+		lastCell = start;
+		goalCell = goal;
+		km = 0;
+		g = new int[m.getCellCount()];
+		rhs = new int[m.getCellCount()];
+		offsets = new int[]{ height, -height, 1, -1 };
+		queue = new IndexedDaryHeap(HEAP_ARITY, 0);
+
+		Arrays.fill(this.g, INFINITY);
+		Arrays.fill(this.rhs, INFINITY);
+		this.rhs[goal] = 0;
+		this.queue.insert(goal, calculateKey(goal));
+	}
+
+/******************************* PUBLIC METHODS *******************************/
+//---------------------------------- plan() ----------------------------------//
+	/*
+	 * Brings the distances up to date with every change so far and follows
+	 * them from the robot to the goal.
+	 * @return every cell of a shortest path from the robot to the goal, both
+	 * 		   included, or null if there is none
+	 */
+	public int[] plan() {
+		this.nodesExplored = 0;
+		this.maxMemory = this.queue.size();
+
+		computeShortestPath();
+
+		return extractPath();
+	}
+
+//-------------------------------- setFree() ---------------------------------//
+	/*
+	 * Opens or walls a cell of the maze and marks the cells whose lookahead
+	 * the change can move, i.e. the cell and its neighbours.
+	 * @param x - x-coordinate
+	 * @param y - y-coordinate
+	 * @param free - true to empty the cell, false to wall it
+	 * @throws IllegalStateException if the maze is read-only, e.g. mapped
+	 * 		   by MazeFile.open()
+	 */
+	public void setFree(int x, int y, boolean free) {
+		int cell = x * this.height + y;
+
+		if (this.maze.isReadOnly()) {
+			throw new IllegalStateException("maze is read-only");
+		}
+
+		if (this.maze.isFree(cell) == free) { return; }
+
+		this.maze.setFree(x, y, free);
+		updateVertex(cell);
+
+		if (x + 1 < this.width) { updateVertex(cell + this.height); }
+		if (x > 0) { updateVertex(cell - this.height); }
+		if (y + 1 < this.height) { updateVertex(cell + 1); }
+		if (y > 0) { updateVertex(cell - 1); }
+	}
+
+//------------------------------- moveStart() --------------------------------//
+	/*
+	 * Moves the robot, e.g. one step along the last plan.
+	 * @param cell - packed cell id of the robot's new position
+	 */
+	public void moveStart(int cell) {
+		this.km += distance(this.lastCell, cell);
+		this.lastCell = cell;
+		this.startCell = cell;
+	}
+
+//------------------------------ getDistance() -------------------------------//
+	/*
+	 * @return moves from a cell to the goal as of the last plan(), exact for
+	 * 		   the robot's cell, or Integer.MAX_VALUE if none is known
+	 */
+	public int getDistance(int cell) {
+		return this.g[cell];
+	}
+
+//---------------------------- getNodesExplored() ----------------------------//
+	/*
+	 * @return cells expanded during the last plan()
+	 */
+	public int getNodesExplored() {
+		return this.nodesExplored;
+	}
+
+//------------------------------ getMaxMemory() ------------------------------//
+	/*
+	 * @return largest queue size during the last plan()
+	 */
+	public int getMaxMemory() {
+		return this.maxMemory;
+	}
+
+/**************************** PRIVATE METHODS *********************************/
+//-------------------------- computeShortestPath() ---------------------------//
+	/*
+	 * Expands inconsistent cells in key order until the robot's cell is
+	 * consistent and no queued key is smaller than its own.
+	 */
+	private void computeShortestPath() {
+		int cell = 0, oldG = 0;
+		long oldKey = 0, newKey = 0;
+
+		while (this.queue.peekKey() < calculateKey(this.startCell) ||
+				this.rhs[this.startCell] != this.g[this.startCell]) {
+			cell = this.queue.peek();
+			oldKey = this.queue.peekKey();
+			newKey = calculateKey(cell);
+			this.nodesExplored++;
+
+			if (oldKey < newKey) {
+				// queued before the robot last moved
+				this.queue.update(cell, newKey);
+			} else if (this.g[cell] > this.rhs[cell]) {
+				// overconsistent: the cell got closer to the goal
+				this.g[cell] = this.rhs[cell];
+				this.queue.remove(cell);
+
+				for (int moves = openMoves(cell); moves != 0;
+						moves &= moves - 1) {
+					lowerRhs(neighbour(cell, moves), this.g[cell] + 1);
+				}
+			} else {
+				// underconsistent: the cell got farther, so everything that
+				// went through it has to look again
+				oldG = this.g[cell];
+				this.g[cell] = INFINITY;
+				updateVertex(cell);
+
+				for (int moves = openMoves(cell); moves != 0;
+						moves &= moves - 1) {
+					if (this.rhs[neighbour(cell, moves)] == oldG + 1) {
+						updateVertex(neighbour(cell, moves));
+					}
+				}
+			}
+
+			this.maxMemory = Math.max(this.maxMemory, this.queue.size());
+		}
+	}
+
+//------------------------------ extractPath() -------------------------------//
+	/*
+	 * Walks from the robot to the goal, always to the neighbour with the
+	 * smallest g; every cell on the way is consistent once
+	 * computeShortestPath() is done, so each step lowers g by one.
+	 */
+	private int[] extractPath() {
+		int cell = this.startCell, next = 0, length = this.g[cell];
+
+		if (length == INFINITY || !this.maze.isFree(cell)) { return null; }
+
+		int[] path = new int[length + 1];
+
+		path[0] = cell;
+
+		for (int i = 1; i <= length; i++) {
+			next = cell;
+
+			for (int moves = openMoves(cell); moves != 0;
+					moves &= moves - 1) {
+				if (this.g[neighbour(cell, moves)] < this.g[next]) {
+					next = neighbour(cell, moves);
+				}
+			}
+
+			// a stale g left by an unfinished repair would stall the walk
+			if (next == cell) { return null; }
+
+			path[i] = cell = next;
+		}
+
+		return path;
+	}
+
+//------------------------------ updateVertex() ------------------------------//
+	/*
+	 * Recomputes the lookahead of a cell from its neighbours and queues it
+	 * if it no longer matches g, or takes it off the queue if it does.
+	 */
+	private void updateVertex(int cell) {
+		int best = INFINITY;
+
+		if (cell != this.goalCell) {
+			for (int moves = openMoves(cell); moves != 0; moves &= moves - 1) {
+				best = Math.min(best, plusOne(this.g[neighbour(cell, moves)]));
+			}
+
+			this.rhs[cell] = best;
+		}
+
+		requeue(cell);
+	}
+
+//-------------------------------- lowerRhs() --------------------------------//
+	/*
+	 * Lowers the lookahead of a cell to a cost through a neighbour, if that
+	 * is cheaper, without looking at its other neighbours.
+	 */
+	private void lowerRhs(int cell, int cost) {
+		if (cell == this.goalCell || cost >= this.rhs[cell]) { return; }
+
+		this.rhs[cell] = cost;
+		requeue(cell);
+	}
+
+//-------------------------------- requeue() ---------------------------------//
+	private void requeue(int cell) {
+		if (this.g[cell] != this.rhs[cell]) {
+			if (this.queue.contains(cell)) {
+				this.queue.update(cell, calculateKey(cell));
+			} else {
+				this.queue.insert(cell, calculateKey(cell));
+			}
+		} else {
+			this.queue.remove(cell);
+		}
+	}
+
+//------------------------------ calculateKey() ------------------------------//
+	/*
+	 * @return both parts of a cell's key, the first in the high 32 bits, so
+	 * 		   that comparing longs compares keys lexicographically
+	 */
+	private long calculateKey(int cell) {
+		int k2 = Math.min(this.g[cell], this.rhs[cell]), k1 = k2 == INFINITY ?
+				INFINITY : (int) Math.min(INFINITY, (long) k2 +
+						distance(this.startCell, cell) + this.km);
+
+		return ((long) k1 << 32) | k2;
+	}
+
+//------------------------------- openMoves() --------------------------------//
+	/*
+	 * @return moves of finite cost from a cell, none if it is walled
+	 */
+	private int openMoves(int cell) {
+		return this.maze.isFree(cell) ? this.maze.getOpenMoves(cell) : 0;
+	}
+
+//------------------------------- neighbour() --------------------------------//
+	/*
+	 * @param moves - open-move mask whose lowest bit is the move to take
+	 */
+	private int neighbour(int cell, int moves) {
+		return cell + this.offsets[Integer.numberOfTrailingZeros(moves)];
+	}
+
+//-------------------------------- distance() --------------------------------//
+	private int distance(int from, int to) {
+		int fx = from / this.height, tx = to / this.height;
+
+		return Math.abs(fx - tx) + Math.abs((from - fx * this.height) -
+				(to - tx * this.height));
+	}
+
+//--------------------------------- plusOne() --------------------------------//
+	private static int plusOne(int cost) {
+		return cost == INFINITY ? INFINITY : cost + 1;
+	}
+}
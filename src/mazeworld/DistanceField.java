@@ -0,0 +1,240 @@
+package mazeworld;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import datastructures.IntRingBufferQueue;
+import datastructures.LruCache;
+
+/**
+ * Number of moves from every cell of a maze to one goal cell, computed once
+ * with a breadth-first search backward from the goal over the whole maze.
+ * Moves in a MazeGrid can always be undone, so the backward distances are
+ * also the forward ones, and a shortest path from any start is found by
+ * greedy descent: step to any neighbour one move closer until the goal is
+ * reached, which reads O(path length) cells instead of searching.
+ *
+ * Fields are cached per maze and goal by of(), so robots that keep heading
+ * to the same few targets pay for the backward search once per target. A
+ * field only keeps the distances, not the maze, so the cache holds mazes
+ * weakly and drops their fields once nothing else uses them. Every maze
+ * keeps its least recently used fields only, up to MAX_CACHED_CELLS
+ * distances in all, so a fleet whose goals keep changing doesn't pile up
+ * a field per goal for as long as the maze lives. A field remembers the
+ * maze version (see MazeGrid.getVersion()) it was computed for, and of()
+ * recomputes it once the maze has changed since.
+ *
+ * @author Mauricio Esquivel Rogel
+ * @date Fall Term 2016
+ */
+public class DistanceField {
+/******************************** CONSTANTS ***********************************/
+	// PUBLIC
+	public static final int UNREACHABLE = -1;
+
+	// PRIVATE
+	private static final int MAX_CACHED_CELLS = 1 << 24;
+	private static final Map<MazeGrid, LruCache<Integer, DistanceField>>
+			CACHE = new WeakHashMap<MazeGrid,
+					LruCache<Integer, DistanceField>>();
+
+/*************************** INSTANCE VARIABLES *******************************/
+	// PUBLIC
+		//
+
+	// PRIVATE
+	private int width, height, goalCell, reachedCells, version;
+	private int[] distances;
+
+/****************************** CONSTRUCTOR ***********************************/
+	/*
+	 * Computes a field without caching it.
+	 * @param maze - maze to measure
+	 * @param goal - packed cell id (x * height + y) of the goal
+	 */
+	public DistanceField(MazeGrid maze, int goal) {
+		width = maze.getWidth();
+		height = maze.getHeight();
+		goalCell = goal;
+		version = maze.getVersion();
+		distances = new int[maze.getCellCount()];
+		reachedCells = 0;
+
+		fill(maze);
+	}
+
+/******************************* PUBLIC METHODS *******************************/
+//----------------------------------- of() -----------------------------------//
+	/*
+	 * Cached field of a maze and goal, computed on the first request and
+	 * again on the first one after the maze changed. Several threads may ask
+	 * at once; if they race on the same field, each computes it and all of
+	 * them get the first one stored.
+	 * @param maze - maze to measure
+	 * @param goal - packed cell id of the goal
+	 * @return field shared with every other caller asking for the same maze
+	 * 		   and goal
+	 */
+	public static DistanceField of(MazeGrid maze, int goal) {
+		DistanceField field = null;
+
+		synchronized (CACHE) {
+			field = fieldsOf(maze).get(goal);
+		}
+
+		if (field != null && field.version == maze.getVersion()) {
+			return field;
+		}
+
+		field = new DistanceField(maze, goal);
+
+		synchronized (CACHE) {
+			DistanceField stored = fieldsOf(maze).get(goal);
+
+			if (stored != null && stored.version == field.version) {
+				return stored;
+			}
+
+			fieldsOf(maze).put(goal, field);
+
+			return field;
+		}
+	}
+
+//------------------------------ invalidate() --------------------------------//
+	/*
+	 * Drops every cached field of a maze, e.g. one that will only be asked
+	 * for other goals from now on. Fields already handed out are kept by
+	 * their holders.
+	 */
+	public static void invalidate(MazeGrid maze) {
+		synchronized (CACHE) {
+			CACHE.remove(maze);
+		}
+	}
+
+//-------------------------------- descend() ---------------------------------//
+	/*
+	 * Follows the field downhill from a start cell, taking the first
+	 * neighbour one move closer in east, west, north, south order.
+	 * @param startCell - packed cell id of the start
+	 * @return every cell of a shortest path from the start to the goal, both
+	 * 		   included, or null if the goal can't be reached from the start
+	 */
+	public int[] descend(int startCell) {
+		int distance = this.distances[startCell], cell = startCell, x = 0,
+				y = 0;
+
+		if (distance == UNREACHABLE) { return null; }
+
+		int[] path = new int[distance + 1];
+
+		path[0] = startCell;
+
+		for (int i = 1; i <= distance; i++) {
+			x = cell / this.height;
+			y = cell - x * this.height;
+
+			// walls and unreachable cells never hold distance - i
+			if (x + 1 < this.width &&
+					this.distances[cell + this.height] == distance - i) {
+				cell += this.height;
+			} else if (x > 0 &&
+					this.distances[cell - this.height] == distance - i) {
+				cell -= this.height;
+			} else if (y + 1 < this.height &&
+					this.distances[cell + 1] == distance - i) {
+				cell++;
+			} else {
+				cell--;
+			}
+
+			path[i] = cell;
+		}
+
+		return path;
+	}
+
+//------------------------------ getDistance() -------------------------------//
+	/*
+	 * @return moves from a cell to the goal, or UNREACHABLE
+	 */
+	public int getDistance(int cell) {
+		return this.distances[cell];
+	}
+
+//------------------------------ getGoalCell() -------------------------------//
+	public int getGoalCell() {
+		return this.goalCell;
+	}
+
+//------------------------------- getVersion() -------------------------------//
+	/*
+	 * @return version of the maze the field was computed for
+	 */
+	public int getVersion() {
+		return this.version;
+	}
+
+//---------------------------- getReachedCells() -----------------------------//
+	/*
+	 * @return cells the goal can be reached from, the goal included
+	 */
+	public int getReachedCells() {
+		return this.reachedCells;
+	}
+
+/**************************** PRIVATE METHODS *********************************/
+//--------------------------------- fill() -----------------------------------//
+	/*
+	 * Breadth-first search from the goal over every cell it can reach.
+	 */
+	private void fill(MazeGrid maze) {
+		IntRingBufferQueue queue = new IntRingBufferQueue();
+		int[] offsets = new int[]{ this.height, -this.height, 1, -1 };
+		int cell = 0, successor = 0;
+
+		Arrays.fill(this.distances, UNREACHABLE);
+
+		if (!maze.isFree(this.goalCell)) { return; }
+
+		this.distances[this.goalCell] = 0;
+		this.reachedCells = 1;
+		queue.add(this.goalCell);
+
+		while (!queue.isEmpty()) {
+			cell = queue.poll();
+
+			for (int moves = maze.getOpenMoves(cell); moves != 0;
+					moves &= moves - 1) {
+				successor = cell +
+						offsets[Integer.numberOfTrailingZeros(moves)];
+
+				if (this.distances[successor] == UNREACHABLE) {
+					this.distances[successor] = this.distances[cell] + 1;
+					this.reachedCells++;
+					queue.add(successor);
+				}
+			}
+		}
+	}
+
+//-------------------------------- fieldsOf() --------------------------------//
+	/*
+	 * @return cached fields of a maze, by goal, as many as fit in
+	 * 		   MAX_CACHED_CELLS distances but at least one; callers hold the
+	 * 		   CACHE lock
+	 */
+	private static LruCache<Integer, DistanceField> fieldsOf(MazeGrid maze) {
+		LruCache<Integer, DistanceField> fields = CACHE.get(maze);
+
+		if (fields == null) {
+			fields = new LruCache<Integer, DistanceField>(Math.max(1,
+					MAX_CACHED_CELLS / Math.max(1, maze.getCellCount())));
+			CACHE.put(maze, fields);
+		}
+
+		return fields;
+	}
+}
@@ -0,0 +1,177 @@
+package mazeworld;
+
+import datastructures.LongIntHashMap;
+
+/**
+ * Solution of a multi-robot problem: the cell of every robot at every time
+ * step, as packed cell ids (x * height + y). All robots move at once, one
+ * step per time unit, either to a neighbouring cell or staying put. A robot's
+ * path ends once it reaches its goal for good, and the robot stays there from
+ * then on, so getCell() answers for any time.
+ *
+ * A plan is collision-free when no two robots are ever in the same cell at
+ * the same time and no two robots swap cells during the same step. A robot
+ * may follow another one, i.e. move into a cell the other one leaves during
+ * the same step.
+ *
+ * @author Mauricio Esquivel Rogel
+ * @date Fall Term 2016
+ */
+public class FleetPlan {
+/*************************** INSTANCE VARIABLES *******************************/
+	// PUBLIC
+		//
+
+	// PRIVATE
+	private int[][] paths;
+
+/****************************** CONSTRUCTOR ***********************************/
+	/*
+	 * @param p - path of every robot, starting at its start cell at time 0
+	 * 			  and ending at its goal cell; kept, not copied
+	 */
+	public FleetPlan(int[][] p) {
+		paths = p;
+	}
+
+/******************************* PUBLIC METHODS *******************************/
+//--------------------------------- getCell() --------------------------------//
+	/*
+	 * @param robot - robot index
+	 * @param time - time step, 0 being the start
+	 * @return cell the robot is in at that time
+	 */
+	public int getCell(int robot, int time) {
+		int[] path = this.paths[robot];
+
+		return path[Math.min(time, path.length - 1)];
+	}
+
+//--------------------------------- getPath() --------------------------------//
+	/*
+	 * @return cells of a robot's path, one per time step; not a copy
+	 */
+	public int[] getPath(int robot) {
+		return this.paths[robot];
+	}
+
+//----------------------------- getRobotCount() ------------------------------//
+	public int getRobotCount() {
+		return this.paths.length;
+	}
+
+//-------------------------------- getCost() ---------------------------------//
+	/*
+	 * @return number of steps, over all robots, that a robot spends moving or
+	 * 		   waiting anywhere but on its goal; waiting on the goal is free
+	 * 		   even if the robot has to leave it again later
+	 */
+	public int getCost() {
+		int cost = 0;
+
+		for (int[] path : this.paths) { cost += getPathCost(path); }
+
+		return cost;
+	}
+
+//------------------------------ getPathCost() -------------------------------//
+	/*
+	 * @param path - path of one robot, ending on its goal
+	 * @return its share of getCost()
+	 */
+	public static int getPathCost(int[] path) {
+		int cost = 0, goal = path[path.length - 1];
+
+		for (int t = 1; t < path.length; t++) {
+			if (path[t - 1] != goal || path[t] != goal) { cost++; }
+		}
+
+		return cost;
+	}
+
+//------------------------------- getMakespan() ------------------------------//
+	/*
+	 * @return time step at which the last robot reaches its goal for good
+	 */
+	public int getMakespan() {
+		int makespan = 0;
+
+		for (int[] path : this.paths) {
+			makespan = Math.max(makespan, path.length - 1);
+		}
+
+		return makespan;
+	}
+
+//---------------------------- isCollisionFree() -----------------------------//
+	public boolean isCollisionFree() {
+		return findConflict() == null;
+	}
+
+//------------------------------ findConflict() ------------------------------//
+	/*
+	 * Walks the plan a time step at a time with the cell of every robot
+	 * mapped to the first robot in it, at that time and the one before, so
+	 * that a step costs O(robots) instead of a check of every pair. Swaps
+	 * are only looked for among the robots that moved.
+	 * @return earliest collision as { robot, other robot, time step }, the
+	 * 		   robots in the same cell at that time or swapping cells during
+	 * 		   the step that ends then, or null if there is none; of several
+	 * 		   at once, the one with the lowest robot, then other robot
+	 */
+	public int[] findConflict() {
+		LongIntHashMap occupants = new LongIntHashMap(this.paths.length),
+				previous = new LongIntHashMap(this.paths.length), swap = null;
+		int[] conflict = null;
+		int makespan = getMakespan(), cell = 0, other = 0;
+
+		for (int time = 0; time <= makespan; time++) {
+			for (int robot = 0; robot < this.paths.length; robot++) {
+				cell = getCell(robot, time);
+				other = occupants.get(cell);
+
+				if (other == LongIntHashMap.NO_VALUE) {
+					occupants.put(cell, robot);
+				} else {
+					conflict = firstOf(conflict, other, robot, time);
+				}
+
+				if (time == 0 || cell == getCell(robot, time - 1)) { continue; }
+
+				// the robot that was in this one's new cell took its old one
+				other = previous.get(cell);
+
+				if (other != LongIntHashMap.NO_VALUE &&
+						getCell(other, time) == getCell(robot, time - 1)) {
+					conflict = firstOf(conflict, Math.min(other, robot),
+							Math.max(other, robot), time);
+				}
+			}
+
+			if (conflict != null) { return conflict; }
+
+			swap = previous;
+			previous = occupants;
+			occupants = swap;
+			occupants.clear();
+		}
+
+		return null;
+	}
+
+/**************************** PRIVATE METHODS *********************************/
+//--------------------------------- firstOf() --------------------------------//
+	/*
+	 * @return conflict found so far, or a new one between two robots if there
+	 * 		   was none or the new one comes first
+	 */
+	private static int[] firstOf(int[] conflict, int robot, int other,
+			int time) {
+		if (conflict == null || robot < conflict[0] ||
+				(robot == conflict[0] && other < conflict[1])) {
+			return new int[]{ robot, other, time };
+		}
+
+		return conflict;
+	}
+}
@@ -0,0 +1,181 @@
+package mazeworld;
+
+/**
+ * Simple independence detection (Standley, 2010) for robots sharing a
+ * MazeGrid, moving as described by FleetPlan. Every robot starts in a group
+ * of its own and follows a shortest path down its goal's cached
+ * DistanceField, ignoring the others. While the combined plan has a
+ * collision, the groups of the two robots colliding first are merged and
+ * the merged group is planned again jointly, by MultiRobotSearch with
+ * operator decomposition, still ignoring every other group. Robots that
+ * never get in each other's way are never searched together, so the cost
+ * of a search grows with the largest group of interacting robots instead
+ * of with the size of the fleet.
+ *
+ * Groups are planned optimally and only merged when they have to, so the
+ * final plan costs as little as a joint search over the whole fleet would
+ * find. A group whose joint state doesn't fit in a long (see
+ * MultiRobotSearch.fits()) can't be planned, in which case the search gives
+ * up; getLargestGroup() tells that apart from there being no plan at all.
+ *
+ * @author Mauricio Esquivel Rogel
+ * @date Fall Term 2016
+ */
+public class IndependenceDetection {
+/*************************** INSTANCE VARIABLES *******************************/
+	// PUBLIC
+		//
+
+	// PRIVATE
+	private MazeGrid maze;
+	private int robots, nodesExplored, maxMemory, largestGroup;
+	private int[] starts, goals, groupOf;
+
+/****************************** CONSTRUCTOR ***********************************/
+	/*
+	 * @param m - maze the robots share
+	 * @param s - start cell of every robot
+	 * @param g - goal cell of every robot
+	 */
+	public IndependenceDetection(MazeGrid m, int[] s, int[] g) {
+		maze = m;
+		robots = s.length;
+		starts = s.clone();
+		goals = g.clone();
+		groupOf = new int[robots];
+	}
+
+/******************************* PUBLIC METHODS *******************************/
+//--------------------------------- search() ---------------------------------//
+	/*
+	 * @return collision-free plan of least total cost, or null if there is
+	 * 		   none or a group of robots grew too large to plan jointly
+	 */
+	public FleetPlan search() {
+		int[][] paths = new int[this.robots][];
+		int[] conflict = null;
+		FleetPlan plan = null;
+
+		this.nodesExplored = 0;
+		this.maxMemory = 0;
+		this.largestGroup = 1;
+
+		if (!MultiRobotSearch.isValidInstance(this.maze, this.starts,
+				this.goals)) {
+			return null;
+		}
+
+		for (int i = 0; i < this.robots; i++) {
+			this.groupOf[i] = i;
+			paths[i] = DistanceField.of(this.maze, this.goals[i]).descend(
+					this.starts[i]);
+
+			if (paths[i] == null) { return null; }
+
+			this.nodesExplored += paths[i].length;
+		}
+
+		plan = new FleetPlan(paths);
+
+		while ((conflict = plan.findConflict()) != null) {
+			if (!planGroup(merge(conflict[0], conflict[1]), paths)) {
+				return null;
+			}
+
+			plan = new FleetPlan(paths);
+		}
+
+		return plan;
+	}
+
+//---------------------------- getNodesExplored() ----------------------------//
+	/*
+	 * @return cells of the single-robot paths plus joint states expanded by
+	 * 		   every group search during the last search
+	 */
+	public int getNodesExplored() {
+		return this.nodesExplored;
+	}
+
+//------------------------------ getMaxMemory() ------------------------------//
+	/*
+	 * @return joint states stored by the largest group search during the
+	 * 		   last search
+	 */
+	public int getMaxMemory() {
+		return this.maxMemory;
+	}
+
+//----------------------------- getLargestGroup() ----------------------------//
+	/*
+	 * @return robots in the largest group formed during the last search
+	 */
+	public int getLargestGroup() {
+		return this.largestGroup;
+	}
+
+/**************************** PRIVATE METHODS *********************************/
+//---------------------------------- merge() ---------------------------------//
+	/*
+	 * Moves every robot of b's group into a's group.
+	 * @return robots of the merged group, in index order
+	 */
+	private int[] merge(int a, int b) {
+		int group = this.groupOf[a], merged = this.groupOf[b], size = 0;
+		int[] members = null;
+
+		for (int i = 0; i < this.robots; i++) {
+			if (this.groupOf[i] == merged) { this.groupOf[i] = group; }
+			if (this.groupOf[i] == group) { size++; }
+		}
+
+		members = new int[size];
+		size = 0;
+
+		for (int i = 0; i < this.robots; i++) {
+			if (this.groupOf[i] == group) { members[size++] = i; }
+		}
+
+		this.largestGroup = Math.max(this.largestGroup, members.length);
+
+		return members;
+	}
+
+//-------------------------------- planGroup() -------------------------------//
+	/*
+	 * Plans a group of robots jointly, ignoring every other robot.
+	 * @param members - robots of the group
+	 * @param paths - path of every robot, those of the group replaced
+	 * @return false if the group has no plan or is too large to plan
+	 */
+	private boolean planGroup(int[] members, int[][] paths) {
+		MultiRobotSearch engine = null;
+		FleetPlan plan = null;
+		int[] groupStarts = new int[members.length],
+				groupGoals = new int[members.length];
+
+		if (!MultiRobotSearch.fits(members.length,
+				this.maze.getCellCount())) {
+			return false;
+		}
+
+		for (int i = 0; i < members.length; i++) {
+			groupStarts[i] = this.starts[members[i]];
+			groupGoals[i] = this.goals[members[i]];
+		}
+
+		engine = new MultiRobotSearch(this.maze, groupStarts, groupGoals);
+		engine.setOperatorDecomposition(true);
+		plan = engine.search();
+		this.nodesExplored += engine.getNodesExplored();
+		this.maxMemory = Math.max(this.maxMemory, engine.getMaxMemory());
+
+		if (plan == null) { return false; }
+
+		for (int i = 0; i < members.length; i++) {
+			paths[members[i]] = plan.getPath(i);
+		}
+
+		return true;
+	}
+}
@@ -0,0 +1,632 @@
+package mazeworld;
+
+import java.util.Arrays;
+
+import datastructures.IndexedPriorityQueue;
+
+/**
+ * Jump Point Search on a 4-connected, uniform-cost MazeGrid, following the
+ * no-diagonal-moves variant of PathFinding.js. Instead of pushing every
+ * neighbour of a cell onto the frontier, the search keeps walking in each
+ * direction it may take until it hits a jump point: the goal, a cell with a
+ * forced neighbour (an opening right behind a wall it was running along),
+ * or, when walking vertically, a cell from which a horizontal walk finds one.
+ * Only jump points ever reach the frontier, so long open stretches and the
+ * many equal-cost paths across open areas cost a scan instead of a heap
+ * operation per cell. Jumps are plain loops, so the search never recurses.
+ *
+ * Where a walk stops doesn't depend on the goal, but for the goal itself,
+ * so the search keeps a bitset per direction of the cells walks that way
+ * stop at: walls, cells with a forced neighbour and, for vertical walks,
+ * cells from which a walk along the row stops at a free cell. A jump is then
+ * a scan for the next set bit, 64 cells a word, plus a check of the goal's
+ * row. MazeGrid lays cells out column by column, so the bitsets of
+ * horizontal walks come from a copy of the free cells laid out row by row.
+ * All of them are built in a few passes over the maze by the first search
+ * after it changed (see MazeGrid.getVersion()), and the per-cell arrays are
+ * generation-stamped like SearchContext's, so that on an unchanged maze a
+ * search costs what it expands and scans rather than the maze's size.
+ *
+ * Moves from a jump point are pruned by the direction it was reached from:
+ * straight on plus both perpendicular directions. Paths found are as short as
+ * breadth-first search's.
+ *
+ * @author Mauricio Esquivel Rogel
+ * @date Fall Term 2016
+ */
+public class JumpPointSearch {
+/******************************** CONSTANTS ***********************************/
+	// PRIVATE
+	private static final int UNVISITED = -1;
+	private static final int GENERATIONS = Integer.MAX_VALUE;
+
+/*************************** INSTANCE VARIABLES *******************************/
+	// PUBLIC
+		//
+
+	// PRIVATE
+	private MazeGrid maze;
+	private int width, height, goalCell, nodesExplored, maxMemory,
+			indexVersion, generation;
+	private IndexedPriorityQueue frontier;
+	private int[] parents;  // jump point each jump point was reached from
+	private int[] costs;    // moves from the start to each jump point
+	private int[] reached;  // generation each jump point was last reached in
+	private int[] closed;   // generation each jump point was last expanded in
+	private long[] rows;    // bit y * width + x set if (x, y) is free
+
+	// cells a walk that way stops at, laid out like rows for east and west
+	// and like the maze for north and south
+	private long[] east, west, north, south;
+
+/****************************** CONSTRUCTOR ***********************************/
+	/*
+	 * @param m - maze to search
+	 * @param f - empty priority queue to use as the frontier
+	 */
+	public JumpPointSearch(MazeGrid m, IndexedPriorityQueue f) {
+		maze = m;
+		width = m.getWidth();
+		height = m.getHeight();
+		frontier = f;
+		generation = 0;
+		parents = new int[m.getCellCount()];
+		costs = new int[m.getCellCount()];
+		reached = new int[m.getCellCount()];
+		closed = new int[m.getCellCount()];
+	}
+
+/******************************* PUBLIC METHODS *******************************/
+//--------------------------------- search() ---------------------------------//
+	/*
+	 * @param startCell - packed cell id (x * height + y) of the start
+	 * @param goal - packed cell id of the goal
+	 * @return every cell of an optimal path from start to goal, both
+	 * 		   included, or null if there is none
+	 */
+	public int[] search(int startCell, int goal) {
+		int currentCell = 0;
+
+		this.goalCell = goal;
+		this.nodesExplored = 0;
+		this.maxMemory = 0;
+		this.frontier.clear();
+
+		if (!this.maze.isFree(startCell) || !this.maze.isFree(goal)) {
+			return null;
+		}
+
+		if (this.rows == null || this.indexVersion != this.maze.getVersion()) {
+			indexMaze();
+		}
+
+		// stamps are wiped once every GENERATIONS searches
+		if (this.generation == GENERATIONS) {
+			Arrays.fill(this.reached, 0);
+			Arrays.fill(this.closed, 0);
+			this.generation = 0;
+		}
+
+		this.generation++;
+		this.reached[startCell] = this.generation;
+		this.parents[startCell] = startCell;
+		this.costs[startCell] = 0;
+		this.frontier.insert(startCell, distance(startCell, goal));
+		this.nodesExplored++;
+
+		while ((currentCell = this.frontier.poll()) !=
+				IndexedPriorityQueue.NO_HANDLE) {
+			if (currentCell == goal) { return expandPath(goal); }
+
+			this.closed[currentCell] = this.generation;
+			identifySuccessors(currentCell);
+		}
+
+		return null;
+	}
+
+//------------------------------ setFrontier() -------------------------------//
+	/*
+	 * @param f - priority queue to use as the frontier from the next search on
+	 */
+	public void setFrontier(IndexedPriorityQueue f) {
+		this.frontier = f;
+	}
+
+//---------------------------- getNodesExplored() ----------------------------//
+	/*
+	 * @return jump points put on the frontier during the last search
+	 */
+	public int getNodesExplored() {
+		return this.nodesExplored;
+	}
+
+//------------------------------ getMaxMemory() ------------------------------//
+	/*
+	 * @return largest frontier plus jump point count during the last search
+	 */
+	public int getMaxMemory() {
+		return this.maxMemory;
+	}
+
+/**************************** PRIVATE METHODS *********************************/
+//--------------------------- identifySuccessors() ---------------------------//
+	/*
+	 * Jumps from a cell in every direction left after pruning and adds the
+	 * jump points found to the frontier.
+	 * @param cell - cell just taken off the frontier
+	 */
+	private void identifySuccessors(int cell) {
+		int x = cell / this.height, y = cell - x * this.height,
+				parent = this.parents[cell], dx = 0, dy = 0;
+
+		if (parent == cell) {
+			// the start has no direction to prune by
+			tryJump(cell, x, y, 1, 0);
+			tryJump(cell, x, y, -1, 0);
+			tryJump(cell, x, y, 0, 1);
+			tryJump(cell, x, y, 0, -1);
+			return;
+		}
+
+		dx = Integer.signum(x - parent / this.height);
+		dy = Integer.signum(y - parent % this.height);
+
+		if (dx != 0) {
+			tryJump(cell, x, y, 0, 1);
+			tryJump(cell, x, y, 0, -1);
+			tryJump(cell, x, y, dx, 0);
+		} else {
+			tryJump(cell, x, y, 1, 0);
+			tryJump(cell, x, y, -1, 0);
+			tryJump(cell, x, y, 0, dy);
+		}
+	}
+
+//-------------------------------- tryJump() ---------------------------------//
+	/*
+	 * Jumps from a cell in one direction, adding the jump point found, if
+	 * any, to the frontier or lowering its cost if it is already there.
+	 */
+	private void tryJump(int cell, int x, int y, int dx, int dy) {
+		int jumpPoint = dx != 0 ? jumpHorizontally(x + dx, y, dx) :
+			jumpVertically(x, y + dy, dy), cost = 0;
+
+		if (jumpPoint == UNVISITED || this.closed[jumpPoint] ==
+				this.generation) {
+			return;
+		}
+
+		cost = this.costs[cell] + distance(cell, jumpPoint);
+
+		if (this.reached[jumpPoint] != this.generation) {
+			this.reached[jumpPoint] = this.generation;
+			this.parents[jumpPoint] = cell;
+			this.costs[jumpPoint] = cost;
+			this.frontier.insert(jumpPoint, cost + distance(jumpPoint,
+					this.goalCell));
+			this.nodesExplored++;
+			this.maxMemory = Math.max(this.maxMemory, this.frontier.size() +
+					this.nodesExplored);
+		} else if (cost < this.costs[jumpPoint]) {
+			this.parents[jumpPoint] = cell;
+			this.costs[jumpPoint] = cost;
+			this.frontier.decreaseKey(jumpPoint, cost + distance(jumpPoint,
+					this.goalCell));
+		}
+	}
+
+//--------------------------- jumpHorizontally() -----------------------------//
+	/*
+	 * Walks along a row until a jump point or a wall: the first set bit of
+	 * east, or west, from a cell on, unless the goal comes first.
+	 * @param x - x-coordinate of the first cell to check
+	 * @param y - row to walk along
+	 * @param dx - 1 to walk east, -1 to walk west
+	 * @return jump point found, or UNVISITED
+	 */
+	private int jumpHorizontally(int x, int y, int dx) {
+		int row = y * this.width, goalX = this.goalCell / this.height,
+				stop = 0;
+
+		if (x < 0 || x >= this.width) { return UNVISITED; }
+
+		// past the row's end every cell counts as a wall
+		stop = dx > 0 ? nextSetBit(this.east, row + x, row + this.width) - row :
+			previousSetBit(this.west, row + x, row - 1) - row;
+
+		if (this.goalCell - goalX * this.height == y &&
+				(goalX - x) * dx >= 0 && (goalX - stop) * dx < 0) {
+			return this.goalCell;
+		}
+
+		return stop < 0 || stop >= this.width || !isSet(this.rows, row + stop) ?
+				UNVISITED : stop * this.height + y;
+	}
+
+//---------------------------- jumpVertically() ------------------------------//
+	/*
+	 * Walks along a column until a jump point or a wall: the first set bit of
+	 * north, or south, from a cell on, unless the walk crosses the goal's row
+	 * first at a cell from which a horizontal walk reaches the goal.
+	 * @param x - column to walk along
+	 * @param y - y-coordinate of the first cell to check
+	 * @param dy - 1 to walk north, -1 to walk south
+	 * @return jump point found, or UNVISITED
+	 */
+	private int jumpVertically(int x, int y, int dy) {
+		int column = x * this.height, goalX = this.goalCell / this.height,
+				goalY = this.goalCell - goalX * this.height,
+				side = Integer.signum(goalX - x), stop = 0;
+
+		if (y < 0 || y >= this.height) { return UNVISITED; }
+
+		stop = dy > 0 ? nextSetBit(this.north, column + y, column +
+				this.height) - column : previousSetBit(this.south, column + y,
+						column - 1) - column;
+
+		// any other cell a horizontal walk stops at is already in the bitset
+		if ((goalY - y) * dy >= 0 && (goalY - stop) * dy < 0 && (side == 0 ||
+				jumpHorizontally(x + side, goalY, side) == this.goalCell)) {
+			return column + goalY;
+		}
+
+		return stop < 0 || stop >= this.height ||
+				!this.maze.isFree(column + stop) ? UNVISITED : column + stop;
+	}
+
+//------------------------------- nextSetBit() -------------------------------//
+	/*
+	 * @return first set bit of a bitset in [from, to), or to if there is none
+	 */
+	private static int nextSetBit(long[] bits, int from, int to) {
+		int index = from >>> 6;
+		long word = 0;
+
+		if (from >= to) { return to; }
+
+		word = bits[index] & (-1L << from);
+
+		while (word == 0) {
+			if (++index << 6 >= to) { return to; }
+
+			word = bits[index];
+		}
+
+		return Math.min(to, (index << 6) + Long.numberOfTrailingZeros(word));
+	}
+
+//----------------------------- previousSetBit() -----------------------------//
+	/*
+	 * @return last set bit of a bitset in (to, from], or to if there is none
+	 */
+	private static int previousSetBit(long[] bits, int from, int to) {
+		int index = from >>> 6;
+		long word = 0;
+
+		if (from <= to) { return to; }
+
+		word = bits[index] & (-1L >>> (63 - (from & 63)));
+
+		while (word == 0) {
+			if (--index < 0 || (index << 6) + 63 <= to) { return to; }
+
+			word = bits[index];
+		}
+
+		return Math.max(to, (index << 6) + 63 -
+				Long.numberOfLeadingZeros(word));
+	}
+
+//-------------------------------- indexMaze() -------------------------------//
+	/*
+	 * Rebuilds rows and the stops of walks in every direction from the maze.
+	 */
+	private void indexMaze() {
+		int words = MazeGrid.getWordCount(this.maze.getCellCount());
+
+		if (this.rows == null) {
+			this.rows = new long[words];
+			this.east = new long[words];
+			this.west = new long[words];
+			this.north = new long[words];
+			this.south = new long[words];
+		} else {
+			Arrays.fill(this.rows, 0L);
+			Arrays.fill(this.east, 0L);
+			Arrays.fill(this.west, 0L);
+			Arrays.fill(this.north, 0L);
+			Arrays.fill(this.south, 0L);
+		}
+
+		transposeRows();
+		markRowStops();
+		markColumnStops();
+		markCrossings();
+
+		this.indexVersion = this.maze.getVersion();
+	}
+
+//------------------------------ markRowStops() ------------------------------//
+	/*
+	 * Sets the walls of every row in east and west, and the cells with a
+	 * forced neighbour when walking that way, a word at a time.
+	 */
+	private void markRowStops() {
+		int row = 0;
+		long mask = 0, free = 0;
+
+		for (int y = 0; y < this.height; y++) {
+			row = y * this.width;
+
+			for (int from = 0; from < this.width; from += 64) {
+				mask = from + 64 <= this.width ? -1L :
+					(1L << (this.width - from)) - 1;
+				free = wordAt(this.rows, row + from) & mask;
+
+				orWord(this.east, row + from,
+						(~free | openings(row, y, from, 1)) & mask);
+				orWord(this.west, row + from,
+						(~free | openings(row, y, from, -1)) & mask);
+			}
+		}
+	}
+
+//-------------------------------- openings() --------------------------------//
+	/*
+	 * Forced neighbours of 64 cells of a row walked in one direction: cells
+	 * whose neighbour above or below is free while the one before it, in the
+	 * walking direction, is a wall or off the maze.
+	 * @param row - bit of the row's first cell
+	 * @param y - row
+	 * @param from - x-coordinate of the cell of bit 0, a multiple of 64
+	 * @param dx - 1 if walking east, -1 if walking west
+	 * @return bit i set if cell from + i has a forced neighbour
+	 */
+	private long openings(int row, int y, int from, int dx) {
+		long forced = 0, side = 0, behind = 0;
+
+		for (int neighbour = y - 1; neighbour <= y + 1; neighbour += 2) {
+			if (neighbour < 0 || neighbour >= this.height) { continue; }
+
+			side = wordAt(this.rows, row + (neighbour - y) * this.width + from);
+			behind = wordAt(this.rows, row + (neighbour - y) * this.width +
+					from - dx);
+
+			// the cell behind the first or last one of the row is off the maze
+			if (dx > 0 && from == 0) {
+				behind &= ~1L;
+			} else if (dx < 0 && this.width - from <= 64) {
+				behind &= ~(1L << (this.width - 1 - from));
+			}
+
+			forced |= side & ~behind;
+		}
+
+		return forced;
+	}
+
+//---------------------------- markColumnStops() -----------------------------//
+	/*
+	 * Sets the walls of every column in north and south, and the cells with a
+	 * forced neighbour when walking that way, a word at a time.
+	 */
+	private void markColumnStops() {
+		long column = 0, neighbours = 0, mask = 0, free = 0, below = 0,
+				above = 0, northward = 0, southward = 0;
+
+		for (int x = 0; x < this.width; x++) {
+			column = (long) x * this.height;
+
+			for (int from = 0; from < this.height; from += 64) {
+				mask = from + 64 <= this.height ? -1L :
+					(1L << (this.height - from)) - 1;
+				free = columnWord(column + from) & mask;
+				northward = 0;
+				southward = 0;
+
+				for (int side = x - 1; side <= x + 1; side += 2) {
+					if (side < 0 || side >= this.width) { continue; }
+
+					neighbours = (long) side * this.height + from;
+					below = columnWord(neighbours - 1);
+					above = columnWord(neighbours + 1);
+
+					// the cells below the first and above the last one of the
+					// column are off the maze
+					if (from == 0) { below &= ~1L; }
+
+					if (this.height - from <= 64) {
+						above &= ~(1L << (this.height - 1 - from));
+					}
+
+					northward |= columnWord(neighbours) & ~below;
+					southward |= columnWord(neighbours) & ~above;
+				}
+
+				orWord(this.north, column + from, (~free | northward) & mask);
+				orWord(this.south, column + from, (~free | southward) & mask);
+			}
+		}
+	}
+
+//----------------------------- markCrossings() ------------------------------//
+	/*
+	 * Sets in north and south every cell from which a walk along its row, in
+	 * either direction, stops at a free cell rather than a wall.
+	 */
+	private void markCrossings() {
+		int row = 0;
+		boolean reaches = false;
+
+		for (int y = 0; y < this.height; y++) {
+			row = y * this.width;
+			reaches = false;
+
+			// reaches tells whether a walk east from x + 1 stops at a free cell
+			for (int x = this.width - 1; x >= 0; x--) {
+				if (reaches) { markCrossing(x, y); }
+
+				if (isSet(this.east, row + x)) {
+					reaches = isSet(this.rows, row + x);
+				}
+			}
+
+			reaches = false;
+
+			for (int x = 0; x < this.width; x++) {
+				if (reaches) { markCrossing(x, y); }
+
+				if (isSet(this.west, row + x)) {
+					reaches = isSet(this.rows, row + x);
+				}
+			}
+		}
+	}
+
+//------------------------------ markCrossing() ------------------------------//
+	private void markCrossing(int x, int y) {
+		int cell = x * this.height + y;
+
+		this.north[cell >>> 6] |= 1L << cell;
+		this.south[cell >>> 6] |= 1L << cell;
+	}
+
+//------------------------------ transposeRows() -----------------------------//
+	/*
+	 * Copies the maze's free cells into rows, row by row, a 64x64 block of
+	 * cells at a time: the block's 64 column words are read off the maze,
+	 * transposed in place and ORed into the rows.
+	 */
+	private void transposeRows() {
+		long[] block = new long[64];
+		long rowMask = 0, columnMask = 0;
+
+		for (int y = 0; y < this.height; y += 64) {
+			rowMask = y + 64 <= this.height ? -1L :
+				(1L << (this.height - y)) - 1;
+
+			for (int x = 0; x < this.width; x += 64) {
+				columnMask = x + 64 <= this.width ? -1L :
+					(1L << (this.width - x)) - 1;
+
+				for (int i = 0; i < 64; i++) {
+					block[i] = x + i < this.width ? rowMask &
+							columnWord((long) (x + i) * this.height + y) : 0;
+				}
+
+				transpose(block);
+
+				for (int j = 0; j < 64 && y + j < this.height; j++) {
+					orWord(this.rows, (long) (y + j) * this.width + x,
+							block[j] & columnMask);
+				}
+			}
+		}
+	}
+
+//------------------------------- columnWord() -------------------------------//
+	/*
+	 * @param bit - cell of the maze, possibly before or past either end
+	 * @return 64 bits of the maze's cells from that one on, 0 where there are
+	 * 		   none
+	 */
+	private long columnWord(long bit) {
+		long index = Math.floorDiv(bit, 64);
+		int shift = Math.floorMod(bit, 64);
+		long low = 0 <= index && index < this.maze.getWordCount() ?
+				this.maze.getWord((int) index) : 0,
+				high = 0 <= index + 1 && index + 1 < this.maze.getWordCount() ?
+				this.maze.getWord((int) index + 1) : 0;
+
+		return shift == 0 ? low : (low >>> shift) | (high << (64 - shift));
+	}
+
+//--------------------------------- wordAt() ---------------------------------//
+	/*
+	 * @param bit - bit of a bitset, possibly before or past either end
+	 * @return 64 bits of the bitset from that one on, 0 where there are none
+	 */
+	private static long wordAt(long[] bits, long bit) {
+		long index = Math.floorDiv(bit, 64);
+		int shift = Math.floorMod(bit, 64);
+		long low = 0 <= index && index < bits.length ? bits[(int) index] : 0,
+				high = 0 <= index + 1 && index + 1 < bits.length ?
+				bits[(int) index + 1] : 0;
+
+		return shift == 0 ? low : (low >>> shift) | (high << (64 - shift));
+	}
+
+//--------------------------------- orWord() ---------------------------------//
+	/*
+	 * Sets the bits of a bitset from one on that are set in a word.
+	 */
+	private static void orWord(long[] bits, long bit, long word) {
+		int index = (int) (bit >>> 6), shift = (int) (bit & 63);
+
+		bits[index] |= word << shift;
+
+		if (shift != 0 && index + 1 < bits.length) {
+			bits[index + 1] |= word >>> (64 - shift);
+		}
+	}
+
+//--------------------------------- isSet() ----------------------------------//
+	private static boolean isSet(long[] bits, int bit) {
+		return (bits[bit >>> 6] & (1L << bit)) != 0;
+	}
+
+//-------------------------------- transpose() -------------------------------//
+	/*
+	 * Transposes a 64x64 bit matrix in place, swapping ever smaller blocks
+	 * across the diagonal: bit j of word i ends up as bit i of word j.
+	 */
+	private static void transpose(long[] block) {
+		long mask = 0x00000000FFFFFFFFL, swap = 0;
+
+		for (int j = 32; j != 0; j >>= 1, mask ^= mask << j) {
+			for (int k = 0; k < 64; k = ((k | j) + 1) & ~j) {
+				swap = ((block[k] >>> j) ^ block[k | j]) & mask;
+				block[k] ^= swap << j;
+				block[k | j] ^= swap;
+			}
+		}
+	}
+
+//------------------------------- expandPath() -------------------------------//
+	/*
+	 * Rebuilds the full path from the chain of jump points, filling in the
+	 * straight runs of cells between consecutive ones.
+	 */
+	private int[] expandPath(int goal) {
+		int[] path = new int[this.costs[goal] + 1];
+		int cell = goal, parent = 0, step = 0;
+
+		path[path.length - 1] = goal;
+
+		for (int i = path.length - 1; cell != this.parents[cell]; ) {
+			parent = this.parents[cell];
+			step = parent / this.height == cell / this.height ?
+					(parent > cell ? 1 : -1) :
+					(parent > cell ? this.height : -this.height);
+
+			while (cell != parent) {
+				cell += step;
+				path[--i] = cell;
+			}
+		}
+
+		return path;
+	}
+
+//-------------------------------- distance() --------------------------------//
+	/*
+	 * @return Manhattan distance between two cells
+	 */
+	private int distance(int from, int to) {
+		int fx = from / this.height, tx = to / this.height;
+
+		return Math.abs(fx - tx) + Math.abs((from - fx * this.height) -
+				(to - tx * this.height));
+	}
+}
@@ -0,0 +1,175 @@
+package mazeworld;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Compact binary maze format. A 24-byte header (magic, version, width,
+ * height, goal x, goal y, all little-endian ints) is followed by the maze's
+ * bit set exactly as MazeGrid lays it out in memory: one little-endian long
+ * per 64 cells, bit set when the cell is empty. Because the words start at an
+ * 8-byte boundary, open() maps them straight into a read-only MazeGrid
+ * through FileChannel.map, so opening a maze costs a header read no matter
+ * how large the maze is, and the cells never get copied into the heap.
+ *
+ * @author Mauricio Esquivel Rogel
+ * @date Fall Term 2016
+ */
+public class MazeFile {
+/******************************** CONSTANTS ***********************************/
+	// PRIVATE
+	private static final int MAGIC = 0x455A414D; // "MAZE" in file order
+	private static final int VERSION = 1;
+	private static final int HEADER_BYTES = 24;
+	private static final int WRITE_BUFFER_BYTES = 1 << 16;
+
+/*************************** INSTANCE VARIABLES *******************************/
+	// PUBLIC
+		//
+
+	// PRIVATE
+	private MazeGrid maze;
+	private int goalx, goaly;
+
+/****************************** CONSTRUCTOR ***********************************/
+	private MazeFile(MazeGrid m, int gx, int gy) {
+		maze = m;
+		goalx = gx;
+		goaly = gy;
+	}
+
+/******************************* PUBLIC METHODS *******************************/
+//--------------------------------- open() -----------------------------------//
+	/*
+	 * Maps a maze file into memory. The grid is read-only, so its cells
+	 * can't be opened or walled.
+	 * @param file - maze file written by write()
+	 * @return maze file whose grid reads straight from the mapping
+	 * @throws IOException if the file can't be read, isn't a maze file or
+	 * 		   holds a goal outside the maze
+	 */
+	public static MazeFile open(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file,
+				StandardOpenOption.READ)) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+					.order(ByteOrder.LITTLE_ENDIAN);
+			int width = 0, height = 0, words = 0, goalx = 0, goaly = 0;
+
+			while (header.hasRemaining()) {
+				if (channel.read(header) < 0) {
+					throw new IOException(file + " is not a maze file");
+				}
+			}
+
+			header.flip();
+
+			if (header.getInt() != MAGIC) {
+				throw new IOException(file + " is not a maze file");
+			}
+
+			if (header.getInt() != VERSION) {
+				throw new IOException(file + " has an unsupported version");
+			}
+
+			width = header.getInt();
+			height = header.getInt();
+
+			if (width <= 0 || height <= 0 ||
+					(long) width * height > Integer.MAX_VALUE) {
+				throw new IOException(file + " has invalid dimensions " +
+						width + "x" + height);
+			}
+
+			goalx = header.getInt();
+			goaly = header.getInt();
+
+			checkGoal(file, width, height, goalx, goaly);
+
+			words = MazeGrid.getWordCount(width * height);
+
+			if (channel.size() < HEADER_BYTES + 8L * words) {
+				throw new IOException(file + " is truncated");
+			}
+
+			return new MazeFile(new MazeGrid(width, height,
+					channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES,
+							8L * words).order(ByteOrder.LITTLE_ENDIAN)
+							.asLongBuffer()), goalx, goaly);
+		}
+	}
+
+//--------------------------------- write() ----------------------------------//
+	/*
+	 * Exports a maze, e.g. one built by MazeworldProblem's generator.
+	 * @param file - destination, created or truncated
+	 * @param maze - maze to export
+	 * @param gx - goal x-coordinate
+	 * @param gy - goal y-coordinate
+	 * @throws IOException if the file can't be written or the goal is
+	 * 		   outside the maze, in which case the file is left untouched
+	 */
+	public static void write(Path file, MazeGrid maze, int gx, int gy)
+			throws IOException {
+		checkGoal(file, maze.getWidth(), maze.getHeight(), gx, gy);
+
+		try (FileChannel channel = FileChannel.open(file,
+				StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES)
+					.order(ByteOrder.LITTLE_ENDIAN);
+
+			buffer.putInt(MAGIC).putInt(VERSION).putInt(maze.getWidth())
+					.putInt(maze.getHeight()).putInt(gx).putInt(gy);
+
+			for (int i = 0; i < maze.getWordCount(); i++) {
+				if (buffer.remaining() < 8) { flush(channel, buffer); }
+
+				buffer.putLong(maze.getWord(i));
+			}
+
+			flush(channel, buffer);
+		}
+	}
+
+//-------------------------------- getMaze() ---------------------------------//
+	public MazeGrid getMaze() {
+		return this.maze;
+	}
+
+//-------------------------------- getGoalX() --------------------------------//
+	public int getGoalX() {
+		return this.goalx;
+	}
+
+//-------------------------------- getGoalY() --------------------------------//
+	public int getGoalY() {
+		return this.goaly;
+	}
+
+/**************************** PRIVATE METHODS *********************************/
+//-------------------------------- checkGoal() -------------------------------//
+	/*
+	 * @throws IOException if a maze file's goal is outside its maze
+	 */
+	private static void checkGoal(Path file, int width, int height, int gx,
+			int gy) throws IOException {
+		if (gx < 0 || gx >= width || gy < 0 || gy >= height) {
+			throw new IOException(file + " has its goal (" + gx + ", " + gy +
+					") outside the maze");
+		}
+	}
+
+//--------------------------------- flush() ----------------------------------//
+	private static void flush(FileChannel channel, ByteBuffer buffer)
+			throws IOException {
+		buffer.flip();
+
+		while (buffer.hasRemaining()) { channel.write(buffer); }
+
+		buffer.clear();
+	}
+}
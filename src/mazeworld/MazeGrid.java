@@ -0,0 +1,227 @@
+package mazeworld;
+
+import java.nio.LongBuffer;
+
+/**
+ * Bit-packed maze: one bit per cell, set when the cell is empty and clear
+ * when it holds a wall/obstacle. Cells are numbered column by column (cell id
+ * x * height + y, the same packing the searches use), so a column is a run
+ * of consecutive bits and a 20000x20000 maze takes ~50 MB instead of the
+ * ~1.6 GB of an int[width][height].
+ *
+ * Small enough mazes also keep a byte per cell with the mask of open moves
+ * (see UUSearchProblem.OPEN_EAST etc.), updated as cells change, so that
+ * successor generation is a single load. Larger mazes, and mazes mapped
+ * straight from a file (see MazeFile), compute masks from the bits on the fly.
+ *
+ * Every change to a cell bumps a version stamp, so results computed from a
+ * maze (e.g. cached paths) can tell whether it changed since.
+ *
+ * @author Mauricio Esquivel Rogel
+ * @date Fall Term 2016
+ */
+public class MazeGrid {
+/******************************** CONSTANTS ***********************************/
+	// PUBLIC
+	public static final int NO_CELL = -1;
+
+	// PRIVATE
+	private static final int MAX_OPEN_MOVE_TABLE = 1 << 26;
+
+/*************************** INSTANCE VARIABLES *******************************/
+	// PUBLIC
+		//
+
+	// PRIVATE
+	private int width, height, cellCount, version;
+	private LongBuffer words;
+	private byte[] openMoves;
+
+/****************************** CONSTRUCTOR ***********************************/
+	/*
+	 * Creates a maze with every cell walled.
+	 * @param w - maze width
+	 * @param h - maze height
+	 */
+	public MazeGrid(int w, int h) {
+		width = w;
+		height = h;
+		cellCount = Math.multiplyExact(w, h);
+		version = 0;
+		words = LongBuffer.wrap(new long[getWordCount(cellCount)]);
+		openMoves = cellCount <= MAX_OPEN_MOVE_TABLE ? new byte[cellCount] :
+			null;
+	}
+	
+	/*
+	 * Wraps an existing bit set, e.g. a file mapped into memory, without
+	 * copying it.
+	 * @param w - maze width
+	 * @param h - maze height
+	 * @param ws - getWordCount(w * h) words laid out as described above
+	 */
+	MazeGrid(int w, int h, LongBuffer ws) {
+		width = w;
+		height = h;
+		cellCount = Math.multiplyExact(w, h);
+		version = 0;
+		words = ws;
+		openMoves = null;
+	}
+
+/******************************* PUBLIC METHODS *******************************/
+//-------------------------------- isFree() ----------------------------------//
+	public boolean isFree(int x, int y) {
+		return 0 <= x && x < this.width && 0 <= y && y < this.height &&
+				isFree(x * this.height + y);
+	}
+
+	public boolean isFree(int cell) {
+		return (this.words.get(cell >>> 6) & (1L << cell)) != 0;
+	}
+
+//-------------------------------- setFree() ---------------------------------//
+	/*
+	 * Opens or walls a cell, keeping the open-move masks of its neighbours up
+	 * to date.
+	 * @param x - x-coordinate
+	 * @param y - y-coordinate
+	 * @param free - true to empty the cell, false to wall it
+	 */
+	public void setFree(int x, int y, boolean free) {
+		int cell = x * this.height + y, wordIndex = cell >>> 6;
+		long word = this.words.get(wordIndex);
+
+		this.words.put(wordIndex, free ? word | (1L << cell) :
+			word & ~(1L << cell));
+		this.version++;
+
+		if (this.openMoves == null) { return; }
+
+		// a neighbour to the west moves east into this cell, and so on
+		if (x > 0) {
+			updateOpenMove(cell - this.height, UUSearchProblem.OPEN_EAST, free);
+		}
+		if (x + 1 < this.width) {
+			updateOpenMove(cell + this.height, UUSearchProblem.OPEN_WEST, free);
+		}
+		if (y > 0) {
+			updateOpenMove(cell - 1, UUSearchProblem.OPEN_NORTH, free);
+		}
+		if (y + 1 < this.height) {
+			updateOpenMove(cell + 1, UUSearchProblem.OPEN_SOUTH, free);
+		}
+	}
+
+//------------------------------ getOpenMoves() ------------------------------//
+	/*
+	 * Mask of the moves from a cell that stay inside the maze and land on an
+	 * empty cell, whether or not the cell itself is empty.
+	 * @param cell - packed cell id
+	 * @return OPEN_EAST | OPEN_WEST | OPEN_NORTH | OPEN_SOUTH subset
+	 */
+	public int getOpenMoves(int cell) {
+		if (this.openMoves != null) { return this.openMoves[cell]; }
+
+		int x = cell / this.height, y = cell - x * this.height, moves = 0;
+
+		if (x + 1 < this.width && isFree(cell + this.height))
+			moves |= UUSearchProblem.OPEN_EAST;
+		if (x > 0 && isFree(cell - this.height))
+			moves |= UUSearchProblem.OPEN_WEST;
+		if (y + 1 < this.height && isFree(cell + 1))
+			moves |= UUSearchProblem.OPEN_NORTH;
+		if (y > 0 && isFree(cell - 1))
+			moves |= UUSearchProblem.OPEN_SOUTH;
+
+		return moves;
+	}
+
+//----------------------------- nextFreeCell() -------------------------------//
+	/*
+	 * Scans the maze a word (64 cells) at a time.
+	 * @param fromCell - first cell to consider
+	 * @return first empty cell at or after fromCell, or NO_CELL
+	 */
+	public int nextFreeCell(int fromCell) {
+		int wordIndex = fromCell >>> 6;
+		long word = 0;
+
+		if (fromCell >= this.cellCount) { return NO_CELL; }
+
+		word = this.words.get(wordIndex) & (-1L << fromCell);
+
+		while (word == 0) {
+			if (++wordIndex == this.words.limit()) { return NO_CELL; }
+			word = this.words.get(wordIndex);
+		}
+
+		return (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+	}
+
+//---------------------------- countFreeCells() ------------------------------//
+	public int countFreeCells() {
+		int total = 0;
+
+		for (int i = 0; i < this.words.limit(); i++) {
+			total += Long.bitCount(this.words.get(i));
+		}
+
+		return total;
+	}
+
+//-------------------------------- getWord() ---------------------------------//
+	/*
+	 * Raw access to the bit set: bit i of word w describes cell 64 * w + i.
+	 */
+	public long getWord(int index) {
+		return this.words.get(index);
+	}
+
+//----------------------------- getWordCount() -------------------------------//
+	public int getWordCount() {
+		return this.words.limit();
+	}
+
+	/*
+	 * Number of words needed to hold a bit for each of a number of cells.
+	 */
+	public static int getWordCount(int cells) {
+		return (int) ((cells + 63L) >>> 6);
+	}
+
+//------------------------------ getVersion() --------------------------------//
+	/*
+	 * @return number of setFree() calls so far, wrapping around after 2^32
+	 */
+	public int getVersion() {
+		return this.version;
+	}
+
+//------------------------------ isReadOnly() --------------------------------//
+	public boolean isReadOnly() {
+		return this.words.isReadOnly();
+	}
+
+//------------------------------- getWidth() ---------------------------------//
+	public int getWidth() {
+		return this.width;
+	}
+
+//------------------------------- getHeight() --------------------------------//
+	public int getHeight() {
+		return this.height;
+	}
+
+//----------------------------- getCellCount() -------------------------------//
+	public int getCellCount() {
+		return this.cellCount;
+	}
+
+/**************************** PRIVATE METHODS *********************************/
+//---------------------------- updateOpenMove() ------------------------------//
+	private void updateOpenMove(int cell, int move, boolean open) {
+		if (open) { this.openMoves[cell] |= move; }
+		else { this.openMoves[cell] &= ~move; }
+	}
+}
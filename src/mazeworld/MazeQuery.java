@@ -0,0 +1,91 @@
+package mazeworld;
+
+/**
+ * One routing query for BatchSolver: find a path between two cells of a
+ * maze with a given algorithm. Queries are immutable, and many of them can
+ * point at the same MazeGrid.
+ *
+ * @author Mauricio Esquivel Rogel
+ * @date Fall Term 2016
+ */
+public class MazeQuery {
+/******************************** CONSTANTS ***********************************/
+	// PUBLIC
+	public static final int BREADTH_FIRST_SEARCH = 0;
+	public static final int A_STAR_SEARCH = 1;
+	public static final int JUMP_POINT_SEARCH = 2;
+	public static final int DISTANCE_FIELD = 3;
+
+/*************************** INSTANCE VARIABLES *******************************/
+	// PUBLIC
+		//
+
+	// PRIVATE
+	private MazeGrid maze;
+	private int startx, starty, goalx, goaly, algorithm;
+
+/****************************** CONSTRUCTOR ***********************************/
+	/*
+	 * @param m - maze to search
+	 * @param sx - start x-coordinate
+	 * @param sy - start y-coordinate
+	 * @param gx - goal x-coordinate
+	 * @param gy - goal y-coordinate
+	 * @param a - BREADTH_FIRST_SEARCH, A_STAR_SEARCH, JUMP_POINT_SEARCH or
+	 * 			  DISTANCE_FIELD
+	 */
+	public MazeQuery(MazeGrid m, int sx, int sy, int gx, int gy, int a) {
+		if (a < BREADTH_FIRST_SEARCH || a > DISTANCE_FIELD) {
+			throw new IllegalArgumentException("unknown algorithm " + a);
+		}
+
+		maze = m;
+		startx = sx;
+		starty = sy;
+		goalx = gx;
+		goaly = gy;
+		algorithm = a;
+	}
+
+/******************************* PUBLIC METHODS *******************************/
+//-------------------------------- getMaze() ---------------------------------//
+	public MazeGrid getMaze() {
+		return this.maze;
+	}
+
+//------------------------------- getStartX() --------------------------------//
+	public int getStartX() {
+		return this.startx;
+	}
+
+//------------------------------- getStartY() --------------------------------//
+	public int getStartY() {
+		return this.starty;
+	}
+
+//-------------------------------- getGoalX() --------------------------------//
+	public int getGoalX() {
+		return this.goalx;
+	}
+
+//-------------------------------- getGoalY() --------------------------------//
+	public int getGoalY() {
+		return this.goaly;
+	}
+
+//------------------------------ getAlgorithm() ------------------------------//
+	public int getAlgorithm() {
+		return this.algorithm;
+	}
+
+/********************************** OVERRIDES *********************************/
+//-------------------------------- toString() --------------------------------//
+	@Override
+	public String toString() {
+		return (this.algorithm == A_STAR_SEARCH ? "A*" :
+			this.algorithm == JUMP_POINT_SEARCH ? "JPS" :
+				this.algorithm == DISTANCE_FIELD ? "DF" : "BFS") + " (" +
+				this.startx + "," + this.starty + ") -> (" + this.goalx + "," +
+				this.goaly + ")";
+	}
+}
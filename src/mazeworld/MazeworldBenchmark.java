@@ -0,0 +1,1389 @@
+package mazeworld;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+
+import datastructures.BucketPriorityQueue;
+import datastructures.FibonacciHeapNode;
+import datastructures.IndexedDaryHeap;
+import datastructures.IndexedPriorityQueue;
+import datastructures.IntRingBufferQueue;
+import datastructures.KeyableObject;
+import datastructures.LruCache;
+import datastructures.PriorityFibonacciHeap;
+
+/**
+ * Benchmarks for the hot paths of the search engines, launched with
+ * java mazeworld.MazeworldBenchmark [name filter]
+ *
+ * Besides the hashing and allocation reports, search engines, heaps and
+ * successor generation run through measure(), a small JMH-style harness:
+ * every benchmark runs for WARMUP_ITERATIONS timed iterations that are
+ * discarded and then MEASUREMENT_ITERATIONS that are reported as mean and
+ * standard deviation of operations per second, once per combination of maze
+ * side, obstacle density and seed. Results feed a sink that is printed at
+ * the end so that the JIT can't drop the work being measured. Mazes are
+ * generated from the seed, so runs are repeatable across machines.
+ *
+ * @author Mauricio Esquivel Rogel
+ * @date Fall Term 2016
+ */
+public class MazeworldBenchmark {
+/******************************** CONSTANTS ***********************************/
+	// PRIVATE
+	private static final int[] MAZE_SIDES = new int[]{ 100, 1000, 5000 };
+	private static final int MAX_KEYS = 1 << 20;
+	private static final int LOOKUPS = 1 << 22;
+	private static final float LOAD_FACTOR = 0.75f;
+	private static final int[] HEAP_SIZES = new int[]{ 1000, 100000, 1000000 };
+	private static final int HEAP_ROUNDS = 3;
+	private static final int QUEUE_DENSITY = 20; // % walls
+	
+	// harness parameters
+	private static final int WARMUP_ITERATIONS = 3;
+	private static final int MEASUREMENT_ITERATIONS = 5;
+	private static final long ITERATION_NANOS = 200000000L;
+	private static final int[] SEARCH_SIDES = new int[]{ 100, 1000 };
+	private static final int[] DENSITIES = new int[]{ 0, 20, 30 }; // % walls
+	private static final long[] SEEDS = new long[]{ 1, 2, 3 };
+	private static final int[] HEAP_MIX_SIZES = new int[]{ 1000, 100000 };
+	private static final int BATCH_SIDE = 300;
+	private static final int BATCH_QUERIES = 256;
+	private static final int QUERY_SIDE = 1000;
+	private static final int QUERY_REACH = 8;
+	private static final int DOCKING_TARGETS = 4;
+	private static final int REPEAT_PERCENT = 33;
+	private static final int PATH_CACHE_SIZE = 64;
+	private static final int REPLAN_CHANGES = 5;
+	private static final int FLEET_SIDE = 50;
+	private static final int[] FLEET_SIZES = new int[]{ 2, 3, 10, 20, 50 };
+	private static final int MAX_JOINT_FLEET = 3;
+	private static final int FLEET_EXPANSION_LIMIT = 1000;
+	private static final int FLEET_INSTANCES = 8;
+	private static final int BELIEF_MOVES = 16;
+
+/*************************** INSTANCE VARIABLES *******************************/
+	// PUBLIC
+		//
+
+	// PRIVATE
+	private String filter;
+	private long sink;
+
+/***************************** INNER INTERFACES *******************************/
+	/**
+	 * A single benchmarked operation
+	 *
+	 * @author Mauricio Esquivel Rogel
+	 * @date Fall Term 2016
+	 */
+	private interface Operation {
+		/*
+		 * @return any value derived from the work done, fed to the sink
+		 */
+		public long run();
+	}
+
+/***************************** INNER CLASSES **********************************/
+	/**
+	 * Stand-in for RobotNode inside a visited table: equal whenever the
+	 * coordinates are equal, hashed either with the old depth-dependent
+	 * formula or with MazeworldProblem.spatialHash()
+	 *
+	 * @author Mauricio Esquivel Rogel
+	 * @date Fall Term 2016
+	 */
+	private static class CellKey {
+		private int x, y, depth, height;
+		private boolean legacyHash;
+
+		private CellKey(int x, int y, int h, boolean l) {
+			this.x = x;
+			this.y = y;
+			depth = x + y;
+			height = h;
+			legacyHash = l;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			return other instanceof CellKey && ((CellKey) other).x == this.x
+					&& ((CellKey) other).y == this.y;
+		}
+
+		@Override
+		public int hashCode() {
+			if (this.legacyHash) {
+				return this.x * 100 + this.y * 10 + this.depth;
+			}
+
+			return MazeworldProblem.spatialHash(this.x, this.y, this.height);
+		}
+	}
+
+	/**
+	 * Fixed integer key for the Fibonacci heap benchmark
+	 *
+	 * @author Mauricio Esquivel Rogel
+	 * @date Fall Term 2016
+	 */
+	private static class HeapKey implements KeyableObject {
+		private int key;
+
+		private HeapKey(int k) {
+			key = k;
+		}
+
+		@Override
+		public int calculateKey() {
+			return this.key;
+		}
+	}
+
+	private static class HeapKeyComparator implements Comparator<HeapKey> {
+		@Override
+		public int compare(HeapKey x, HeapKey y) {
+			if (x.key > y.key) { return 1; }
+			if (x.key < y.key) { return -1; }
+
+			return 0;
+		}
+	}
+
+/****************************** CONSTRUCTOR ***********************************/
+	/*
+	 * @param f - only benchmarks whose name contains f are run
+	 */
+	public MazeworldBenchmark(String f) {
+		filter = f;
+		sink = 0;
+	}
+
+/******************************* PUBLIC METHODS *******************************/
+//--------------------------------- main() -----------------------------------//
+	public static void main(String args[]) {
+		new MazeworldBenchmark(args.length > 0 ? args[0] : "").runBenchmarks();
+	}
+
+//----------------------------- runBenchmarks() ------------------------------//
+	public void runBenchmarks() {
+		if (isSelected("hashing")) { runHashingBenchmark(); }
+		if (isSelected("allocation")) { runHeapAllocationBenchmark(); }
+		if (isSelected("queue")) { runQueueBenchmark(); }
+		
+		// sections none of whose benchmarks are selected skip their setup
+		if (anySelected("bfs", "parallel bfs", "astar fibonacci",
+				"astar d-ary", "astar bucket", "bidirectional bfs",
+				"bidirectional astar", "jps", "successors")) {
+			runSearchBenchmarks();
+		}
+
+		if (anySelected("fibonacci heap mix", "d-ary heap mix",
+				"bucket queue mix")) {
+			runHeapMixBenchmarks();
+		}
+
+		if (isSelected("batch")) { runBatchBenchmarks(); }
+
+		if (anySelected("queries fresh", "queries context")) {
+			runQueryBenchmarks();
+		}
+
+		if (anySelected("docking bfs", "docking field")) {
+			runDockingBenchmarks();
+		}
+
+		if (anySelected("repeats search", "repeats cache")) {
+			runRepeatBenchmarks();
+		}
+
+		if (anySelected("replan astar", "replan dstar")) {
+			runReplanBenchmarks();
+		}
+
+		if (anySelected("fleet joint", "fleet od", "fleet id", "fleet cbs",
+				"fleet prioritized")) {
+			runFleetBenchmarks();
+		}
+
+		if (anySelected("belief update", "belief blind astar")) {
+			runBeliefBenchmarks();
+		}
+		
+		System.out.println("sink: " + this.sink);
+	}
+
+/**************************** PRIVATE METHODS *********************************/
+//-------------------------- runSearchBenchmarks() ---------------------------//
+	/*
+	 * Times breadthFirstSearch(), aStarSearch() on every frontier, their
+	 * bidirectional versions, jumpPointSearch(), and a sweep of
+	 * getSuccessorCells() over every empty cell, on random mazes whose start
+	 * (0, 0) and goal (side - 1, side - 1) corners are empty.
+	 */
+	private void runSearchBenchmarks() {
+		int[] frontierTypes = new int[]{
+				UUSearchProblem.FIBONACCI_HEAP_FRONTIER,
+				UUSearchProblem.DARY_HEAP_FRONTIER,
+				UUSearchProblem.BUCKET_QUEUE_FRONTIER };
+		String[] frontiers = new String[]{ "astar fibonacci", "astar d-ary",
+				"astar bucket" };
+
+		System.out.println("Search engines (ops/sec)");
+
+		for (int side : SEARCH_SIDES) {
+			for (int density : DENSITIES) {
+				for (long seed : SEEDS) {
+					final MazeGrid maze = randomMaze(side, density, seed);
+					final MazeworldProblem problem = new MazeworldProblem(1, maze,
+							side - 1, side - 1, false, false);
+					final UUSearchProblem.UUSearchNode node =
+							problem.startNode.get(0);
+					String params = String.format("side=%d density=%d%% seed=%d",
+							side, density, seed);
+
+					measure("bfs", params, new Operation() {
+						@Override
+						public long run() {
+							return pathLength(problem.breadthFirstSearch());
+						}
+					});
+
+					measure("parallel bfs", params, new Operation() {
+						@Override
+						public long run() {
+							return pathLength(
+									problem.parallelBreadthFirstSearch());
+						}
+					});
+
+					for (int i = 0; i < frontierTypes.length; i++) {
+						problem.setFrontierType(frontierTypes[i]);
+						measure(frontiers[i], params, new Operation() {
+							@Override
+							public long run() {
+								return pathLength(problem.aStarSearch());
+							}
+						});
+					}
+
+					measure("bidirectional bfs", params, new Operation() {
+						@Override
+						public long run() {
+							return pathLength(
+									problem.bidirectionalBreadthFirstSearch());
+						}
+					});
+
+					// these run on the bucket queue, the last frontier set above
+					measure("bidirectional astar", params, new Operation() {
+						@Override
+						public long run() {
+							return pathLength(problem.bidirectionalAStarSearch());
+						}
+					});
+
+					measure("jps", params, new Operation() {
+						@Override
+						public long run() {
+							return pathLength(problem.jumpPointSearch());
+						}
+					});
+
+					measure("successors", params, new Operation() {
+						private int[] successors =
+								new int[UUSearchProblem.MAX_SUCCESSORS];
+
+						@Override
+						public long run() {
+							long total = 0;
+
+							for (int cell = maze.nextFreeCell(0);
+									cell != MazeGrid.NO_CELL;
+									cell = maze.nextFreeCell(cell + 1)) {
+								total += node.getSuccessorCells(cell,
+										this.successors);
+							}
+
+							return total;
+						}
+					});
+				}
+			}
+		}
+
+		System.out.println("--------");
+	}
+
+//--------------------------- runBatchBenchmarks() ---------------------------//
+	/*
+	 * Times BatchSolver on BATCH_QUERIES random BFS/A* queries over one shared
+	 * maze, with 1, 2, 4... worker threads up to the number of cores; batches
+	 * per second times BATCH_QUERIES gives the query throughput.
+	 */
+	private void runBatchBenchmarks() {
+		int cores = Runtime.getRuntime().availableProcessors();
+
+		System.out.println("Batch solver, " + BATCH_QUERIES + " queries per " +
+				"batch (batches/sec)");
+
+		for (long seed : SEEDS) {
+			final MazeQuery[] queries = randomQueries(
+					randomMaze(BATCH_SIDE, DENSITIES[1], seed), seed);
+
+			// 1, 2, 4... threads, always ending with one per core
+			for (int threads = 1; threads <= cores; threads = threads == cores ?
+					cores + 1 : Math.min(2 * threads, cores)) {
+				final BatchSolver solver = new BatchSolver(threads);
+
+				measure("batch", String.format("threads=%d seed=%d", threads,
+						seed), new Operation() {
+					@Override
+					public long run() {
+						return solver.solve(queries).length;
+					}
+				});
+
+				solver.shutdown();
+			}
+		}
+
+		System.out.println("--------");
+	}
+
+//--------------------------- runQueryBenchmarks() ---------------------------//
+	/*
+	 * Times a stream of short queries on a large maze, each on a problem of
+	 * its own as BatchSolver runs them, once with every problem creating its
+	 * own SearchContext and once with all of them sharing one, which leaves
+	 * only the search itself.
+	 */
+	private void runQueryBenchmarks() {
+		System.out.println("Short queries, " + BATCH_QUERIES + " per " +
+				"operation (ops/sec)");
+
+		for (long seed : SEEDS) {
+			final MazeQuery[] queries = nearbyQueries(
+					randomMaze(QUERY_SIDE, DENSITIES[1], seed), seed);
+			final SearchContext context = new SearchContext();
+			String params = String.format("side=%d seed=%d", QUERY_SIDE, seed);
+
+			measure("queries fresh", params, new Operation() {
+				@Override
+				public long run() {
+					long total = 0;
+
+					for (MazeQuery query : queries) {
+						total += pathLength(runQuery(query, null, null));
+					}
+
+					return total;
+				}
+			});
+
+			measure("queries context", params, new Operation() {
+				@Override
+				public long run() {
+					long total = 0;
+
+					for (MazeQuery query : queries) {
+						total += pathLength(runQuery(query, context, null));
+					}
+
+					return total;
+				}
+			});
+		}
+
+		System.out.println("--------");
+	}
+
+//-------------------------- runDockingBenchmarks() --------------------------//
+	/*
+	 * Times BATCH_QUERIES queries from random empty cells to one of
+	 * DOCKING_TARGETS fixed goals, solved with breadth-first search and by
+	 * descending cached distance fields; the fields are computed during the
+	 * first warmup iteration.
+	 */
+	private void runDockingBenchmarks() {
+		System.out.println("Docking queries, " + BATCH_QUERIES + " per " +
+				"operation (ops/sec)");
+
+		for (long seed : SEEDS) {
+			MazeGrid maze = randomMaze(BATCH_SIDE, DENSITIES[1], seed);
+			final MazeQuery[] bfsQueries = dockingQueries(maze, seed,
+					MazeQuery.BREADTH_FIRST_SEARCH);
+			final MazeQuery[] fieldQueries = dockingQueries(maze, seed,
+					MazeQuery.DISTANCE_FIELD);
+			final SearchContext context = new SearchContext();
+			String params = String.format("side=%d seed=%d", BATCH_SIDE, seed);
+
+			measure("docking bfs", params, new Operation() {
+				@Override
+				public long run() {
+					long total = 0;
+
+					for (MazeQuery query : bfsQueries) {
+						total += pathLength(runQuery(query, context, null));
+					}
+
+					return total;
+				}
+			});
+
+			measure("docking field", params, new Operation() {
+				@Override
+				public long run() {
+					long total = 0;
+
+					for (MazeQuery query : fieldQueries) {
+						total += pathLength(runQuery(query, context, null));
+					}
+
+					return total;
+				}
+			});
+		}
+
+		System.out.println("--------");
+	}
+
+//----------------------------- dockingQueries() -----------------------------//
+	/*
+	 * @return BATCH_QUERIES queries from random empty cells, cycling through
+	 * 		   DOCKING_TARGETS random empty goals, all with one algorithm
+	 */
+	private static MazeQuery[] dockingQueries(MazeGrid maze, long seed,
+			int algorithm) {
+		MazeQuery[] queries = new MazeQuery[BATCH_QUERIES];
+		Random random = new Random(seed);
+		int[] targets = new int[DOCKING_TARGETS];
+		int start = 0, height = maze.getHeight();
+
+		for (int i = 0; i < targets.length; i++) {
+			targets[i] = randomFreeCell(maze, random);
+		}
+
+		for (int i = 0; i < queries.length; i++) {
+			start = randomFreeCell(maze, random);
+			queries[i] = new MazeQuery(maze, start / height, start % height,
+					targets[i % targets.length] / height,
+					targets[i % targets.length] % height, algorithm);
+		}
+
+		return queries;
+	}
+
+//-------------------------- runRepeatBenchmarks() ---------------------------//
+	/*
+	 * Times BATCH_QUERIES A* queries between random empty cells, about
+	 * REPEAT_PERCENT% of which repeat an earlier query of the same operation,
+	 * without and with a path cache of PATH_CACHE_SIZE entries that starts
+	 * every operation empty.
+	 */
+	private void runRepeatBenchmarks() {
+		System.out.println("Repeated queries, " + BATCH_QUERIES + " per " +
+				"operation (ops/sec)");
+
+		for (long seed : SEEDS) {
+			final MazeQuery[] queries = repeatedQueries(
+					randomMaze(BATCH_SIDE, DENSITIES[1], seed), seed);
+			final SearchContext context = new SearchContext();
+			final LruCache<Object, int[]> cache =
+					new LruCache<Object, int[]>(PATH_CACHE_SIZE);
+			String params = String.format("side=%d seed=%d", BATCH_SIDE, seed);
+
+			measure("repeats search", params, new Operation() {
+				@Override
+				public long run() {
+					long total = 0;
+
+					for (MazeQuery query : queries) {
+						total += pathLength(runQuery(query, context, null));
+					}
+
+					return total;
+				}
+			});
+
+			measure("repeats cache", params, new Operation() {
+				@Override
+				public long run() {
+					long total = 0;
+
+					cache.clear();
+
+					for (MazeQuery query : queries) {
+						total += pathLength(runQuery(query, context, cache));
+					}
+
+					return total;
+				}
+			});
+
+			if (isSelected("repeats cache")) {
+				System.out.println("  cache: " + cache);
+			}
+		}
+
+		System.out.println("--------");
+	}
+
+//---------------------------- repeatedQueries() -----------------------------//
+	/*
+	 * @return randomQueries() of a maze, all A*, with about REPEAT_PERCENT%
+	 * 		   of them replaced by a copy of one of the PATH_CACHE_SIZE
+	 * 		   queries before them
+	 */
+	private static MazeQuery[] repeatedQueries(MazeGrid maze, long seed) {
+		MazeQuery[] queries = randomQueries(maze, seed);
+		Random random = new Random(seed);
+		MazeQuery query = null;
+
+		for (int i = 0; i < queries.length; i++) {
+			query = i > 0 && random.nextInt(100) < REPEAT_PERCENT ?
+					queries[i - 1 - random.nextInt(Math.min(i,
+							PATH_CACHE_SIZE))] : queries[i];
+			queries[i] = new MazeQuery(maze, query.getStartX(),
+					query.getStartY(), query.getGoalX(), query.getGoalY(),
+					MazeQuery.A_STAR_SEARCH);
+		}
+
+		return queries;
+	}
+
+//-------------------------- runReplanBenchmarks() ---------------------------//
+	/*
+	 * Times replanning between opposite corners of a maze whose walls keep
+	 * changing: every operation reopens the cells the previous one walled,
+	 * walls REPLAN_CHANGES random cells of the current path and plans again,
+	 * once with a new A* search and once by repairing a D* Lite plan.
+	 */
+	private void runReplanBenchmarks() {
+		System.out.println("Replanning after " + REPLAN_CHANGES + " wall " +
+				"changes (ops/sec)");
+
+		for (long seed : SEEDS) {
+			final MazeGrid searchMaze = randomMaze(BATCH_SIDE, DENSITIES[1],
+					seed), repairMaze = randomMaze(BATCH_SIDE, DENSITIES[1],
+							seed);
+			final MazeworldProblem search = new MazeworldProblem(searchMaze, 0,
+					0, BATCH_SIDE - 1, BATCH_SIDE - 1), repair =
+					new MazeworldProblem(repairMaze, 0, 0, BATCH_SIDE - 1,
+							BATCH_SIDE - 1);
+			final Random searchRandom = new Random(seed),
+					repairRandom = new Random(seed);
+			final int[] searchWalls = new int[REPLAN_CHANGES],
+					repairWalls = new int[REPLAN_CHANGES];
+			String params = String.format("side=%d seed=%d", BATCH_SIDE, seed);
+
+			measure("replan astar", params, new Operation() {
+				private List<UUSearchProblem.UUSearchNode> path =
+						search.aStarSearch();
+
+				@Override
+				public long run() {
+					moveWalls(search, this.path, searchWalls, searchRandom);
+					this.path = search.aStarSearch();
+
+					return pathLength(this.path);
+				}
+			});
+
+			measure("replan dstar", params, new Operation() {
+				private List<UUSearchProblem.UUSearchNode> path =
+						repair.dStarLiteSearch();
+
+				@Override
+				public long run() {
+					moveWalls(repair, this.path, repairWalls, repairRandom);
+					this.path = repair.dStarLiteSearch();
+
+					return pathLength(this.path);
+				}
+			});
+		}
+
+		System.out.println("--------");
+	}
+
+//--------------------------- runFleetBenchmarks() ---------------------------//
+	/*
+	 * Times multi-robot planning, every operation planning the next of
+	 * FLEET_INSTANCES sets of random, distinct starts and goals on the same
+	 * maze: joint A* with and without operator decomposition for fleets of
+	 * up to MAX_JOINT_FLEET robots, and independence detection,
+	 * conflict-based search, limited to FLEET_EXPANSION_LIMIT constraint
+	 * nodes, and prioritized planning for all.
+	 */
+	private void runFleetBenchmarks() {
+		System.out.println("Multi-robot planning (ops/sec)");
+
+		for (int robots : FLEET_SIZES) {
+			for (long seed : SEEDS) {
+				final MazeGrid maze = randomMaze(FLEET_SIDE, DENSITIES[1],
+						seed);
+				final int[][] instances = fleetInstances(maze, robots, seed);
+				final MazeworldProblem[] problems =
+						new MazeworldProblem[instances.length];
+				final MultiRobotSearch[] engines =
+						new MultiRobotSearch[instances.length];
+				String params = String.format("side=%d robots=%d seed=%d",
+						FLEET_SIDE, robots, seed);
+
+				for (int i = 0; i < instances.length; i++) {
+					problems[i] = new MazeworldProblem(maze, Arrays.copyOf(
+							instances[i], robots), Arrays.copyOfRange(
+									instances[i], robots, 2 * robots));
+				}
+
+				if (robots <= MAX_JOINT_FLEET) {
+					measure("fleet joint", params, new Operation() {
+						private int next = 0;
+
+						@Override
+						public long run() {
+							return fleetCost(problems[this.next++ %
+									problems.length].multiRobotSearch());
+						}
+					});
+
+					for (int i = 0; i < instances.length &&
+							isSelected("fleet od"); i++) {
+						engines[i] = new MultiRobotSearch(maze, Arrays.copyOf(
+								instances[i], robots), Arrays.copyOfRange(
+										instances[i], robots, 2 * robots));
+						engines[i].setOperatorDecomposition(true);
+					}
+
+					measure("fleet od", params, new Operation() {
+						private int next = 0;
+
+						@Override
+						public long run() {
+							return fleetCost(engines[this.next++ %
+									engines.length].search());
+						}
+					});
+				}
+
+				measure("fleet id", params, new Operation() {
+					private int next = 0;
+
+					@Override
+					public long run() {
+						return fleetCost(problems[this.next++ %
+								problems.length].independenceDetectionSearch());
+					}
+				});
+
+				measure("fleet cbs", params, new Operation() {
+					private int next = 0;
+
+					@Override
+					public long run() {
+						return fleetCost(problems[this.next++ %
+								problems.length].conflictBasedSearch(
+										FLEET_EXPANSION_LIMIT));
+					}
+				});
+
+				measure("fleet prioritized", params, new Operation() {
+					private int next = 0;
+
+					@Override
+					public long run() {
+						return fleetCost(problems[this.next++ %
+								problems.length].prioritizedSearch());
+					}
+				});
+			}
+		}
+
+		System.out.println("--------");
+	}
+
+//----------------------------- fleetInstances() -----------------------------//
+	/*
+	 * @return FLEET_INSTANCES sets of robots' starts followed by their goals,
+	 * 		   random and distinct empty cells of a maze
+	 */
+	private static int[][] fleetInstances(MazeGrid maze, int robots,
+			long seed) {
+		int[][] instances = new int[FLEET_INSTANCES][2 * robots];
+		Random random = new Random(seed);
+		int picked = 0, other = 0;
+
+		for (int[] cells : instances) {
+			picked = 0;
+
+			while (picked < cells.length) {
+				cells[picked] = randomFreeCell(maze, random);
+				other = 0;
+
+				while (other < picked && cells[other] != cells[picked]) {
+					other++;
+				}
+
+				if (other == picked) { picked++; }
+			}
+		}
+
+		return instances;
+	}
+
+//------------------------------- fleetCost() --------------------------------//
+	private static long fleetCost(FleetPlan plan) {
+		return plan == null ? -1 : plan.getCost();
+	}
+
+//-------------------------- runBeliefBenchmarks() ---------------------------//
+	/*
+	 * Times blind robots' belief states: BELIEF_MOVES sensorless moves of a
+	 * random walk, each keeping the candidates that would have bumped into a
+	 * wall and then the ones still on a free cell, starting from every free
+	 * cell of a random maze, and a whole blind aStarSearch(), localization
+	 * included, on an empty maze.
+	 */
+	private void runBeliefBenchmarks() {
+		System.out.println("Blind robot belief states (ops/sec)");
+
+		for (int side : SEARCH_SIDES) {
+			for (long seed : SEEDS) {
+				final MazeGrid maze = randomMaze(side, DENSITIES[1], seed);
+				final int[] offsets = new int[2 * BELIEF_MOVES];
+				Random random = new Random(seed);
+				String params = String.format("side=%d density=%d seed=%d",
+						side, DENSITIES[1], seed);
+
+				for (int i = 2; i < offsets.length; i += 2) {
+					offsets[i] = offsets[i - 2] + random.nextInt(3) - 1;
+					offsets[i + 1] = offsets[i - 1] + random.nextInt(3) - 1;
+				}
+
+				measure("belief update", params, new Operation() {
+					@Override
+					public long run() {
+						BeliefState belief = new BeliefState(maze);
+
+						for (int i = 0; i < offsets.length; i += 2) {
+							belief.keepBlocked(offsets[i], offsets[i + 1]);
+							belief.keepFree(offsets[i], offsets[i + 1]);
+						}
+
+						return belief.size();
+					}
+				});
+			}
+
+			final MazeworldProblem blind = new MazeworldProblem(1,
+					randomMaze(side, DENSITIES[0], SEEDS[0]), side - 1,
+					side - 1, true, false);
+
+			measure("belief blind astar", String.format("side=%d density=%d",
+					side, DENSITIES[0]), new Operation() {
+				@Override
+				public long run() {
+					return pathLength(blind.aStarSearch());
+				}
+			});
+		}
+
+		System.out.println("--------");
+	}
+
+//------------------------------- moveWalls() --------------------------------//
+	/*
+	 * Reopens the cells walled by the previous call and walls random cells
+	 * of a path, never its ends, remembering them for the next call.
+	 * @param problem - problem whose maze changes, through updateCell()
+	 * @param path - current path, or null if there is none
+	 * @param walls - cells walled by the previous call, 0 for none
+	 */
+	private static void moveWalls(MazeworldProblem problem,
+			List<UUSearchProblem.UUSearchNode> path, int[] walls,
+			Random random) {
+		int cell = 0;
+
+		for (int i = 0; i < walls.length; i++) {
+			if (walls[i] != 0) {
+				problem.updateCell(walls[i] / BATCH_SIDE, walls[i] % BATCH_SIDE,
+						true);
+			}
+
+			walls[i] = 0;
+
+			if (path != null && path.size() > 2) {
+				cell = path.get(1 + random.nextInt(path.size() - 2)).getCell();
+				problem.updateCell(cell / BATCH_SIDE, cell % BATCH_SIDE, false);
+				walls[i] = cell;
+			}
+		}
+	}
+
+//----------------------------- nearbyQueries() ------------------------------//
+	/*
+	 * @return BATCH_QUERIES solvable queries from random empty cells to empty
+	 * 		   cells at most QUERY_REACH cells away along each axis,
+	 * 		   alternating between breadth-first and A* search
+	 */
+	private static MazeQuery[] nearbyQueries(MazeGrid maze, long seed) {
+		MazeQuery[] queries = new MazeQuery[BATCH_QUERIES];
+		Random random = new Random(seed);
+		int start = 0, height = maze.getHeight(), startx = 0, starty = 0,
+				goalx = 0, goaly = 0;
+
+		for (int i = 0; i < queries.length; ) {
+			start = randomFreeCell(maze, random);
+			startx = start / height;
+			starty = start % height;
+			goalx = startx + random.nextInt(2 * QUERY_REACH + 1) - QUERY_REACH;
+			goaly = starty + random.nextInt(2 * QUERY_REACH + 1) - QUERY_REACH;
+
+			// an unreachable goal would flood the whole maze instead
+			if (maze.isFree(goalx, goaly) && new MazeworldProblem(maze, startx,
+					starty, goalx, goaly).breadthFirstSearch() != null) {
+				queries[i] = new MazeQuery(maze, startx, starty, goalx, goaly,
+						i % 2 == 0 ? MazeQuery.BREADTH_FIRST_SEARCH :
+							MazeQuery.A_STAR_SEARCH);
+				i++;
+			}
+		}
+
+		return queries;
+	}
+
+//-------------------------------- runQuery() --------------------------------//
+	/*
+	 * Solves a query on a new problem.
+	 * @param query - query to solve
+	 * @param context - context to search in, or null for the problem's own
+	 * @param cache - path cache to consult, or null
+	 */
+	private static List<UUSearchProblem.UUSearchNode> runQuery(
+			MazeQuery query, SearchContext context,
+			LruCache<Object, int[]> cache) {
+		MazeworldProblem problem = new MazeworldProblem(query.getMaze(),
+				query.getStartX(), query.getStartY(), query.getGoalX(),
+				query.getGoalY());
+
+		problem.setSearchContext(context);
+		problem.setPathCache(cache);
+
+		switch (query.getAlgorithm()) {
+			case MazeQuery.A_STAR_SEARCH:
+				return problem.aStarSearch();
+
+			case MazeQuery.DISTANCE_FIELD:
+				return problem.distanceFieldSearch();
+
+			default:
+				return problem.breadthFirstSearch();
+		}
+	}
+
+//----------------------------- randomQueries() ------------------------------//
+	/*
+	 * @return BATCH_QUERIES queries between random empty cells of a maze,
+	 * 		   alternating between breadth-first and A* search
+	 */
+	private static MazeQuery[] randomQueries(MazeGrid maze, long seed) {
+		MazeQuery[] queries = new MazeQuery[BATCH_QUERIES];
+		Random random = new Random(seed);
+		int start = 0, goal = 0, height = maze.getHeight();
+
+		for (int i = 0; i < queries.length; i++) {
+			start = randomFreeCell(maze, random);
+			goal = randomFreeCell(maze, random);
+			queries[i] = new MazeQuery(maze, start / height, start % height,
+					goal / height, goal % height, i % 2 == 0 ?
+							MazeQuery.BREADTH_FIRST_SEARCH :
+							MazeQuery.A_STAR_SEARCH);
+		}
+
+		return queries;
+	}
+
+//----------------------------- randomFreeCell() -----------------------------//
+	private static int randomFreeCell(MazeGrid maze, Random random) {
+		int cell = maze.nextFreeCell(random.nextInt(maze.getCellCount()));
+
+		return cell == MazeGrid.NO_CELL ? maze.nextFreeCell(0) : cell;
+	}
+
+//-------------------------- runHeapMixBenchmarks() --------------------------//
+	/*
+	 * Times a search-like mix on each priority queue: insert n random keys,
+	 * decrease the key of a random quarter of them, then poll everything.
+	 */
+	private void runHeapMixBenchmarks() {
+		System.out.println("Priority queue insert/decreaseKey/poll mix " +
+				"(ops/sec)");
+
+		for (int size : HEAP_MIX_SIZES) {
+			for (long seed : SEEDS) {
+				Random random = new Random(seed);
+				final int[] keys = new int[size], decreased = new int[size / 4];
+				String params = String.format("n=%d seed=%d", size, seed);
+
+				for (int i = 0; i < size; i++) {
+					keys[i] = random.nextInt(size);
+				}
+
+				for (int i = 0; i < decreased.length; i++) {
+					decreased[i] = random.nextInt(size);
+				}
+
+				measure("fibonacci heap mix", params, new Operation() {
+					@SuppressWarnings("unchecked")
+					@Override
+					public long run() {
+						PriorityFibonacciHeap<HeapKey> heap =
+								new PriorityFibonacciHeap<HeapKey>(
+										new HeapKeyComparator());
+						FibonacciHeapNode<HeapKey>[] nodes =
+								(FibonacciHeapNode<HeapKey>[])
+								new FibonacciHeapNode<?>[keys.length];
+						long total = 0;
+
+						for (int i = 0; i < keys.length; i++) {
+							nodes[i] = new FibonacciHeapNode<HeapKey>(
+									new HeapKey(keys[i]));
+							heap.insert(nodes[i]);
+						}
+
+						for (int i : decreased) {
+							if (nodes[i].getValue().key > 0) {
+								nodes[i].getValue().key /= 2;
+								heap.decreaseKey(nodes[i], nodes[i].getValue().key);
+							}
+						}
+
+						while (!heap.isEmpty()) {
+							total += heap.poll().getValue().key;
+						}
+
+						return total;
+					}
+				});
+
+				measure("d-ary heap mix", params, new Operation() {
+					@Override
+					public long run() {
+						return runIndexedMix(new IndexedDaryHeap(
+								UUSearchProblem.HEAP_ARITY, keys.length), keys,
+								decreased);
+					}
+				});
+
+				measure("bucket queue mix", params, new Operation() {
+					@Override
+					public long run() {
+						return runIndexedMix(new BucketPriorityQueue(keys.length,
+								keys.length), keys, decreased);
+					}
+				});
+			}
+		}
+
+		System.out.println("--------");
+	}
+
+//----------------------------- runIndexedMix() ------------------------------//
+	private long runIndexedMix(IndexedPriorityQueue queue, int[] keys,
+			int[] decreased) {
+		long total = 0;
+
+		for (int i = 0; i < keys.length; i++) {
+			queue.insert(i, keys[i]);
+		}
+
+		for (int i : decreased) {
+			queue.decreaseKey(i, queue.getKey(i) / 2);
+		}
+
+		while (!queue.isEmpty()) {
+			total += queue.getKey(queue.peek());
+			queue.poll();
+		}
+
+		return total;
+	}
+
+//--------------------------------- measure() --------------------------------//
+	/*
+	 * Runs an operation back to back for WARMUP_ITERATIONS discarded
+	 * iterations and MEASUREMENT_ITERATIONS measured ones of ITERATION_NANOS
+	 * each, then prints the throughput.
+	 * @param name - benchmark name, matched against the filter
+	 * @param params - parameter values, printed next to the name
+	 * @param operation - work being measured
+	 */
+	private void measure(String name, String params, Operation operation) {
+		double[] rates = new double[MEASUREMENT_ITERATIONS];
+		double mean = 0, variance = 0;
+
+		if (!isSelected(name)) { return; }
+
+		for (int i = -WARMUP_ITERATIONS; i < MEASUREMENT_ITERATIONS; i++) {
+			long operations = 0, start = System.nanoTime(), now = start;
+
+			do {
+				this.sink += operation.run();
+				operations++;
+			} while ((now = System.nanoTime()) - start < ITERATION_NANOS);
+
+			if (i >= 0) { rates[i] = operations / ((now - start) / 1e9); }
+		}
+
+		for (double rate : rates) { mean += rate / rates.length; }
+
+		for (double rate : rates) {
+			variance += (rate - mean) * (rate - mean) / rates.length;
+		}
+
+		System.out.println(String.format("%-20s %-32s %12.2f +- %9.2f", name,
+				params, mean, Math.sqrt(variance)));
+	}
+
+//-------------------------------- isSelected() ------------------------------//
+	private boolean isSelected(String name) {
+		return name.contains(this.filter);
+	}
+
+//------------------------------- anySelected() ------------------------------//
+	private boolean anySelected(String... names) {
+		for (String name : names) {
+			if (isSelected(name)) { return true; }
+		}
+
+		return false;
+	}
+
+//------------------------------- pathLength() -------------------------------//
+	private static long pathLength(List<UUSearchProblem.UUSearchNode> path) {
+		return path == null ? 0 : path.size();
+	}
+
+//------------------------------- randomMaze() -------------------------------//
+	/*
+	 * @param side - maze width and height
+	 * @param density - percentage of cells holding a wall
+	 * @param seed - random seed, the same seed always giving the same maze
+	 * @return maze with its (0, 0) and (side - 1, side - 1) corners empty
+	 */
+	private static MazeGrid randomMaze(int side, int density, long seed) {
+		MazeGrid maze = new MazeGrid(side, side);
+		Random random = new Random(seed);
+
+		for (int x = 0; x < side; x++) {
+			for (int y = 0; y < side; y++) {
+				maze.setFree(x, y, random.nextInt(100) >= density);
+			}
+		}
+
+		maze.setFree(0, 0, true);
+		maze.setFree(side - 1, side - 1, true);
+
+		return maze;
+	}
+
+//-------------------------- runHashingBenchmark() ---------------------------//
+	/*
+	 * Compares the old RobotNode hash against spatialHash() on square mazes of
+	 * increasing size. For each maze, up to MAX_KEYS cells spread evenly over
+	 * the whole maze are put in a visited table; probe lengths are the number
+	 * of entries HashMap has to compare against for a successful lookup.
+	 */
+	private void runHashingBenchmark() {
+		System.out.println("Visited-table hashing");
+		System.out.println(String.format("%-11s %-8s %10s %10s %14s",
+				"maze", "hash", "avg probes", "max probes", "lookups/sec"));
+
+		for (int side : MAZE_SIDES) {
+			for (int legacy = 1; legacy >= 0; legacy--) {
+				CellKey[] keys = sampleKeys(side, legacy == 1);
+				int[] chains = bucketChains(keys);
+				long probes = 0;
+				int maxProbes = 0;
+
+				for (int chain : chains) {
+					probes += (long) chain * (chain + 1) / 2;
+					maxProbes = Math.max(maxProbes, chain);
+				}
+
+				System.out.println(String.format("%-11s %-8s %10.2f %10d %14.0f",
+						side + "x" + side, legacy == 1 ? "legacy" : "spatial",
+						(double) probes / keys.length, maxProbes,
+						lookupsPerSecond(keys, side, legacy == 1)));
+			}
+		}
+
+		System.out.println("--------");
+	}
+
+//----------------------- runHeapAllocationBenchmark() -----------------------//
+	/*
+	 * Measures the bytes PriorityFibonacciHeap.poll() allocates once the heap
+	 * has reached its working size. Each round fills the heap with
+	 * preallocated nodes and then drains it; only the draining is measured,
+	 * and the first round is a warm-up during which the degree table grows.
+	 */
+	private void runHeapAllocationBenchmark() {
+		com.sun.management.ThreadMXBean allocations = allocationCounter();
+
+		System.out.println("Fibonacci heap poll() allocation");
+		System.out.println(String.format("%-9s %6s %14s %14s",
+				"nodes", "round", "bytes/poll", "polls/sec"));
+
+		for (int size : HEAP_SIZES) {
+			PriorityFibonacciHeap<HeapKey> heap =
+					new PriorityFibonacciHeap<HeapKey>(new HeapKeyComparator());
+			Random random = new Random(size);
+			HeapKey[] keys = new HeapKey[size];
+
+			for (int i = 0; i < size; i++) {
+				keys[i] = new HeapKey(random.nextInt(size));
+			}
+
+			for (int round = 0; round < HEAP_ROUNDS; round++) {
+				long threadId = Thread.currentThread().getId(), bytes = 0,
+						start = 0, elapsed = 0;
+
+				for (int i = 0; i < size; i++) {
+					heap.insert(new FibonacciHeapNode<HeapKey>(keys[i]));
+				}
+
+				bytes = allocations == null ? 0 :
+					allocations.getThreadAllocatedBytes(threadId);
+				start = System.nanoTime();
+
+				while (heap.poll() != null) {}
+
+				elapsed = System.nanoTime() - start;
+				bytes = allocations == null ? -1 :
+					allocations.getThreadAllocatedBytes(threadId) - bytes;
+
+				System.out.println(String.format("%-9d %6s %14s %14.0f", size,
+						round == 0 ? "warmup" : String.valueOf(round),
+						bytes < 0 ? "n/a" :
+							String.format("%.3f", (double) bytes / size),
+						size / (elapsed / 1e9)));
+			}
+		}
+
+		System.out.println("--------");
+	}
+
+//--------------------------- runQueueBenchmark() ----------------------------//
+	/*
+	 * Compares the bytes allocated and the cells visited per second by a
+	 * breadth-first flood of a whole maze when the frontier is a
+	 * LinkedList<Integer>, like the one breadthFirstSearch() uses on problems
+	 * that aren't cell-encodable, and when it is the IntRingBufferQueue of
+	 * the cell-based search. The first round of each is a warm-up.
+	 */
+	private void runQueueBenchmark() {
+		com.sun.management.ThreadMXBean allocations = allocationCounter();
+		long threadId = Thread.currentThread().getId();
+
+		System.out.println("BFS frontier queues");
+		System.out.println(String.format("%-11s %-12s %6s %14s %14s",
+				"maze", "queue", "round", "bytes/cell", "cells/sec"));
+
+		for (int side : SEARCH_SIDES) {
+			MazeGrid maze = randomMaze(side, QUEUE_DENSITY, SEEDS[0]);
+			boolean[] visited = new boolean[maze.getCellCount()];
+
+			for (int ring = 0; ring < 2; ring++) {
+				for (int round = 0; round < HEAP_ROUNDS; round++) {
+					long bytes = 0, start = 0, elapsed = 0;
+					int cells = 0;
+
+					Arrays.fill(visited, false);
+					bytes = allocations == null ? 0 :
+						allocations.getThreadAllocatedBytes(threadId);
+					start = System.nanoTime();
+
+					cells = ring == 1 ? floodWithRingBuffer(maze, visited) :
+						floodWithLinkedList(maze, visited);
+
+					elapsed = System.nanoTime() - start;
+					bytes = allocations == null ? -1 :
+						allocations.getThreadAllocatedBytes(threadId) - bytes;
+					this.sink += cells;
+
+					System.out.println(String.format("%-11s %-12s %6s %14s %14.0f",
+							side + "x" + side, ring == 1 ? "ring buffer" :
+								"linked list",
+							round == 0 ? "warmup" : String.valueOf(round),
+							bytes < 0 ? "n/a" :
+								String.format("%.3f", (double) bytes / cells),
+							cells / (elapsed / 1e9)));
+				}
+			}
+		}
+
+		System.out.println("--------");
+	}
+
+//-------------------------- floodWithLinkedList() ---------------------------//
+	/*
+	 * @return number of cells reachable from cell 0
+	 */
+	private static int floodWithLinkedList(MazeGrid maze, boolean[] visited) {
+		Queue<Integer> frontier = new LinkedList<Integer>();
+		int[] offsets = moveOffsets(maze);
+		int cells = 1, cell = 0, next = 0;
+
+		visited[0] = true;
+		frontier.add(0);
+
+		while (!frontier.isEmpty()) {
+			cell = frontier.poll();
+
+			for (int moves = maze.getOpenMoves(cell); moves != 0;
+					moves &= moves - 1) {
+				next = cell + offsets[Integer.numberOfTrailingZeros(moves)];
+
+				if (!visited[next]) {
+					visited[next] = true;
+					frontier.add(next);
+					cells++;
+				}
+			}
+		}
+
+		return cells;
+	}
+
+//-------------------------- floodWithRingBuffer() ---------------------------//
+	/*
+	 * @return number of cells reachable from cell 0
+	 */
+	private static int floodWithRingBuffer(MazeGrid maze, boolean[] visited) {
+		IntRingBufferQueue frontier = new IntRingBufferQueue();
+		int[] offsets = moveOffsets(maze);
+		int cells = 1, cell = 0, next = 0;
+
+		visited[0] = true;
+		frontier.add(0);
+
+		while (!frontier.isEmpty()) {
+			cell = frontier.poll();
+
+			for (int moves = maze.getOpenMoves(cell); moves != 0;
+					moves &= moves - 1) {
+				next = cell + offsets[Integer.numberOfTrailingZeros(moves)];
+
+				if (!visited[next]) {
+					visited[next] = true;
+					frontier.add(next);
+					cells++;
+				}
+			}
+		}
+
+		return cells;
+	}
+
+//------------------------------ moveOffsets() -------------------------------//
+	/*
+	 * @return cell id offset of each move, indexed by the bit position of
+	 * 		   UUSearchProblem.OPEN_EAST, OPEN_WEST, OPEN_NORTH and OPEN_SOUTH
+	 */
+	private static int[] moveOffsets(MazeGrid maze) {
+		return new int[]{ maze.getHeight(), -maze.getHeight(), 1, -1 };
+	}
+
+//--------------------------- allocationCounter() ----------------------------//
+	/*
+	 * @return per-thread allocation counter, or null if the JVM has none
+	 */
+	private static com.sun.management.ThreadMXBean allocationCounter() {
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		com.sun.management.ThreadMXBean allocations = null;
+
+		if (threads instanceof com.sun.management.ThreadMXBean &&
+				((com.sun.management.ThreadMXBean) threads)
+				.isThreadAllocatedMemorySupported()) {
+			allocations = (com.sun.management.ThreadMXBean) threads;
+			allocations.setThreadAllocatedMemoryEnabled(true);
+		}
+
+		return allocations;
+	}
+
+//------------------------------ sampleKeys() --------------------------------//
+	/*
+	 * Picks up to MAX_KEYS distinct cells evenly spread over a side x side
+	 * maze.
+	 */
+	private CellKey[] sampleKeys(int side, boolean legacyHash) {
+		long cells = (long) side * side;
+		int stride = (int) Math.max(1, (cells + MAX_KEYS - 1) / MAX_KEYS);
+		CellKey[] keys = new CellKey[(int) ((cells + stride - 1) / stride)];
+
+		for (int i = 0; i < keys.length; i++) {
+			long cell = (long) i * stride;
+			keys[i] = new CellKey((int) (cell / side), (int) (cell % side), side,
+					legacyHash);
+		}
+
+		return keys;
+	}
+
+//----------------------------- bucketChains() -------------------------------//
+	/*
+	 * Replays HashMap's bucket selection for a set of keys.
+	 * @return number of keys landing in each bucket
+	 */
+	private int[] bucketChains(CellKey[] keys) {
+		int buckets = Integer.highestOneBit((int) (keys.length / LOAD_FACTOR))
+				<< 1, h = 0;
+		int[] chains = new int[buckets];
+
+		for (CellKey key : keys) {
+			h = key.hashCode();
+			chains[(h ^ (h >>> 16)) & (buckets - 1)]++;
+		}
+
+		return chains;
+	}
+
+//--------------------------- lookupsPerSecond() -----------------------------//
+	private double lookupsPerSecond(CellKey[] keys, int side,
+			boolean legacyHash) {
+		HashMap<CellKey, CellKey> visited = new HashMap<CellKey, CellKey>();
+		CellKey[] queries = new CellKey[keys.length];
+		int found = 0;
+		long start = 0;
+
+		for (int i = 0; i < keys.length; i++) {
+			visited.put(keys[i], keys[i]);
+			queries[i] = new CellKey(keys[i].x, keys[i].y, side, legacyHash);
+		}
+
+		start = System.nanoTime();
+
+		for (int i = 0; i < LOOKUPS; i++) {
+			if (visited.containsKey(queries[(int) ((i * 0x9E3779B1L) %
+					queries.length)])) {
+				found++;
+			}
+		}
+
+		if (found != LOOKUPS) {
+			throw new IllegalStateException("visited table lost keys");
+		}
+
+		return LOOKUPS / ((System.nanoTime() - start) / 1e9);
+	}
+}
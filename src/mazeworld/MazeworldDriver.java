@@ -2,8 +2,8 @@ package mazeworld;
 
 import mazeworld.UUSearchProblem.UUSearchNode;
 
+import java.awt.GraphicsEnvironment;
 import java.util.List;
-import java.util.concurrent.Callable;
 
 /**
  * Attempts to solve the Missionaries and Cannibals problem using breadth-first search, memoizing depth-first search,
@@ -14,6 +14,7 @@ import java.util.concurrent.Callable;
  */
 public class MazeworldDriver {
 	public static final int MAXDEPTH = 5000;
+	public static final long SOLUTION_DELAY_MILLIS = 5000;
 	public static List<UUSearchNode> path = null;
 	public static MazeworldProblem mcProblem = null;
 	
@@ -30,43 +31,32 @@ public class MazeworldDriver {
 		
 		mcProblem = new MazeworldProblem(1, 100, 100, 99, 0, false, false);
 		
+		// searches run the same with or without a display; only draw them
+		// when there is one to draw on
+		if (!GraphicsEnvironment.isHeadless()) {
+			new MazeworldRenderer(mcProblem);
+		}
+		
 		path = mcProblem.breadthFirstSearch();
 		mcProblem.printLastUsedSearchName();
 		System.out.println("Path length:  " + path.size() + " " + path);
 		mcProblem.printStats();
 		System.out.println("--------");
 		
-		mcProblem.drawSolution(path, new Callable<Boolean>(){
-			public Boolean call() {
-				path = mcProblem.aStarSearch();
-				mcProblem.printLastUsedSearchName();
-				System.out.println("Path length:  " + path.size() + 
-						" " + path);
-				mcProblem.printStats();
-				System.out.println("--------");
-				mcProblem.drawSolution(path, new Callable<Boolean>(){
-					public Boolean call() {
-						/*mcProblem = new MazeworldProblem(1, 100, 100, 99, 0, true,
-								false);
-						path = mcProblem.aStarSearch();
-						mcProblem.printLastUsedSearchName();
-						System.out.println("Path length:  " + path.size() + 
-								" " + path);
-						mcProblem.printStats();
-						System.out.println("--------");
-						mcProblem.drawSolution(path, new Callable<Boolean>(){
-							public Boolean call() {
-								return true;
-							}
-								
-						}, true);
-//						
-*/						return true;
-					}
-				}, false);
-				
-				return true;
+		// leave the first solution on screen for a while before the next one
+		// replaces it; the window keeps repainting meanwhile
+		if (!GraphicsEnvironment.isHeadless()) {
+			try {
+				Thread.sleep(SOLUTION_DELAY_MILLIS);
+			} catch (InterruptedException e) {
+				e.printStackTrace();
 			}
-		}, false);
+		}
+		
+		path = mcProblem.aStarSearch();
+		mcProblem.printLastUsedSearchName();
+		System.out.println("Path length:  " + path.size() + " " + path);
+		mcProblem.printStats();
+		System.out.println("--------");
 	}
-}
\ No newline at end of file
+}
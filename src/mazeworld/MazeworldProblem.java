@@ -1,24 +1,13 @@
 package mazeworld;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Random;
-import java.util.concurrent.Callable;
-import java.awt.Graphics;
-import java.awt.LayoutManager;
-import java.awt.BorderLayout;
-import java.awt.Color;
-import java.awt.Dimension;
-
-import javax.swing.JFrame;
-import javax.swing.JComponent;
-import javax.swing.JPanel;
-import javax.swing.OverlayLayout;
-import javax.swing.SwingUtilities;
 
 import mazeworld.UUSearchProblem.UUSearchNode;
 
@@ -31,7 +20,9 @@ import mazeworld.UUSearchProblem.UUSearchNode;
  */
 public class MazeworldProblem extends UUSearchProblem {
 /******************************** CONSTANTS ***********************************/
-	//
+	// PRIVATE
+	private static final int HASH_MIX_1 = 0x85EBCA6B;
+	private static final int HASH_MIX_2 = 0xC2B2AE35;
 	
 /*************************** INSTANCE VARIABLES *******************************/
 	// PUBLIC
@@ -39,12 +30,13 @@ public class MazeworldProblem extends UUSearchProblem {
 	
 	// PRIVATE	
 	private int totalRobots, mazeWidth, mazeHeight, goalx, goaly;
-	private int[][] mazeWalls;
-	private int[][][] impossibleMovesTracker;
+	private MazeGrid mazeWalls;
+	private int[] moveOffsets, robotGoals;
 	private boolean blindRobots, pacmanPhysics;
 	private RobotNode[] robots;
-	private static JPanel mazePanel;
-	private static JFrame mazeFrame;
+	private DStarLite replanner;
+	private JumpPointSearch jumpPoints;
+	private int jumpPointFrontier;
 	
 /***************************** INNER CLASSES **********************************/
 	/**
@@ -79,52 +71,44 @@ public class MazeworldProblem extends UUSearchProblem {
 		@Override
 		public ArrayList<UUSearchNode> getSuccessors() {
 			ArrayList<UUSearchNode> successors = new ArrayList<UUSearchNode>();
-			int[] successor = null;
+			int x = this.state[0], y = this.state[1],
+					moves = mazeWalls.getOpenMoves(encodeCell(x, y));
 			
-			if (this.state[0] + 1 < mazeWidth) {
-				successor = this.state.clone();
-				successor[0] += 1;				
-				
-				if (isSafeMove(successor)){
-					successors.add(new RobotNode(successor[0], successor[1],
-							this.depth + 1, this.id));
-				}
+			if ((moves & OPEN_EAST) != 0) {
+				successors.add(new RobotNode(x + 1, y, this.depth + 1, this.id));
 			}
 			
-			if (this.state[0] - 1 >= 0) {
-				successor = this.state.clone();
-				successor[0] -= 1;				
-				
-				if (isSafeMove(successor)){
-					successors.add(new RobotNode(successor[0], successor[1],
-							this.depth + 1, this.id));
-				}
+			if ((moves & OPEN_WEST) != 0) {
+				successors.add(new RobotNode(x - 1, y, this.depth + 1, this.id));
 			}
 			
-			if (this.state[1] + 1 < mazeHeight) {
-				successor = this.state.clone();
-				successor[1] += 1;				
-				
-				if (isSafeMove(successor)){
-					successors.add(new RobotNode(successor[0], successor[1],
-							this.depth + 1, this.id));
-				}
+			if ((moves & OPEN_NORTH) != 0) {
+				successors.add(new RobotNode(x, y + 1, this.depth + 1, this.id));
 			}
 			
-			if (this.state[1] - 1 >= 0) {
-				successor = this.state.clone();
-				successor[1] -= 1;				
-				
-				if (isSafeMove(successor)){
-					successors.add(new RobotNode(successor[0], successor[1],
-							this.depth + 1, this.id));
-				}
+			if ((moves & OPEN_SOUTH) != 0) {
+				successors.add(new RobotNode(x, y - 1, this.depth + 1, this.id));
 			}
-			
 
 			return successors;
 		}
 		
+	//~~~~~~~~~~~~~~~~~~~~~~~~~ getSuccessorCells() ~~~~~~~~~~~~~~~~~~~~~~~~~~//
+		@Override
+		public int getSuccessorCells(int cell, int[] successors) {
+			int total = 0;
+			
+			// one load gives every legal move; scanning the bits from the
+			// lowest one keeps the same order as getSuccessors()
+			for (int moves = mazeWalls.getOpenMoves(cell); moves != 0;
+					moves &= moves - 1) {
+				successors[total++] = cell +
+						moveOffsets[Integer.numberOfTrailingZeros(moves)];
+			}
+			
+			return total;
+		}
+		
 	//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ goalTest() ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~//
 		@Override
 		public boolean goalTest() {
@@ -134,13 +118,14 @@ public class MazeworldProblem extends UUSearchProblem {
 	//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ equals() ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~//
 		@Override
 		public boolean equals(Object other) {
-			return Arrays.equals(state, ((RobotNode) other).state);
+			return other instanceof RobotNode &&
+					Arrays.equals(state, ((RobotNode) other).state);
 		}
 
 	//~~~~~~~~~~~~~~~~~~~~~~~~~~~~ hashCode() ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~//
 		@Override
 		public int hashCode() {
-			return state[0] * 100 + state[1] * 10 + depth;
+			return spatialHash(this.state[0], this.state[1], mazeHeight);
 		}
 
 	//~~~~~~~~~~~~~~~~~~~~~~~~~~~~ toString() ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~//
@@ -156,6 +141,12 @@ public class MazeworldProblem extends UUSearchProblem {
 			return depth;
 		}
 
+	//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ getCell() ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~//
+		@Override
+		public int getCell() {
+			return encodeCell(this.state[0], this.state[1]);
+		}
+
 	//~~~~~~~~~~~~~~~~~~~~~~~~~~~~ calculateKey() ~~~~~~~~~~~~~~~~~~~~~~~~~~~~//
 		@Override
 		public int calculateKey() {
@@ -166,10 +157,8 @@ public class MazeworldProblem extends UUSearchProblem {
 	//~~~~~~~~~~~~~~~~~~~~~~~~~~ updateStateNode() ~~~~~~~~~~~~~~~~~~~~~~~~~~~//
 		@Override
 		public int[] updateStateNode(final int moveId, int []totalOffsets) {
-			Iterator<UUSearchNode> beliefStatesIterator = 
-					beliefStates.get(this.id).iterator();
-			UUSearchNode currBeliefState = null;
-			int x, y, offsetX = 0, offsetY = 0;
+			BeliefState belief = beliefStates[this.id];
+			int offsetX = 0, offsetY = 0;
 			
 			switch(moveId) {
 				case 1:
@@ -189,20 +178,7 @@ public class MazeworldProblem extends UUSearchProblem {
 			totalOffsets[0] += offsetX;
 			totalOffsets[1] += offsetY;
 			
-			while (beliefStatesIterator.hasNext()) {
-				currBeliefState = beliefStatesIterator.next();
-				x = ((RobotNode) currBeliefState).state[0] + totalOffsets[0];
-				y = ((RobotNode) currBeliefState).state[1] + totalOffsets[1];
-				
-				if (-1 <= x && x < mazeWidth + 1 &&
-						-1 <= y && y < mazeHeight + 1) {
-					if (isSafeMove(new int[]{ x, y })) {
-						beliefStatesIterator.remove();
-					}
-				} else {
-					beliefStatesIterator.remove();
-				}
-			}
+			belief.keepBlocked(totalOffsets[0], totalOffsets[1]);
 			
 			if (moveId < 3) {
 				if (totalOffsets[1] < 0) {
@@ -218,18 +194,7 @@ public class MazeworldProblem extends UUSearchProblem {
 				}
 			}
 			
-			beliefStatesIterator = beliefStates.get(this.id).iterator();
-			
-			
-			while (beliefStatesIterator.hasNext()) {
-				currBeliefState = beliefStatesIterator.next();
-				x = ((RobotNode) currBeliefState).state[0] + totalOffsets[0];
-				y = ((RobotNode) currBeliefState).state[1] + totalOffsets[1];
-				
-				if (!isSafeMove(new int[]{ x, y })) {
-					beliefStatesIterator.remove();
-				}
-			}
+			belief.keepFree(totalOffsets[0], totalOffsets[1]);
 
 			return totalOffsets;
 		}
@@ -237,7 +202,7 @@ public class MazeworldProblem extends UUSearchProblem {
 	//~~~~~~~~~~~~~~~~~~~~~~~~~ beliefStateReached() ~~~~~~~~~~~~~~~~~~~~~~~~~//		
 		@Override
 		public boolean beliefStateReached() {
-			return beliefStates.get(this.id).size() == 1;
+			return beliefStates[this.id].size() == 1;
 		}
 		
 	//~~~~~~~~~~~~~~~~~~~~~~~~~~~ updateStartNode() ~~~~~~~~~~~~~~~~~~~~~~~~~~//		
@@ -257,28 +222,38 @@ public class MazeworldProblem extends UUSearchProblem {
 	@Override
 	public boolean[] getObstacles(int[] offset) {
 		boolean [] walls = new boolean[4];
-		int dx = 0, dy = 0;
+		int x = this.state[0] + offset[0], y = this.state[1] + offset[1],
+				dx = 0, dy = 0, moves = 0, move = 0;
+		boolean insideMaze = 0 <= x && x < mazeWidth && 0 <= y &&
+				y < mazeHeight;
+		
+		// positions inside the maze already have their open moves computed
+		if (insideMaze) { moves = mazeWalls.getOpenMoves(encodeCell(x, y)); }
 		
 		for (int i = 0; i < 4; i++) {
 			switch (POSSIBLE_DIRECTIONS[i]) {
 				case MOVE_NORTH:
 					dy = 1;
+					move = OPEN_NORTH;
 					break;
 					
 				case MOVE_SOUTH:
 					dy = -1;
+					move = OPEN_SOUTH;
 					break;
 					
 				case MOVE_EAST:
 					dx = 1;
+					move = OPEN_EAST;
 					break;
 					
 				case MOVE_WEST:
 					dx = -1;
+					move = OPEN_WEST;
 					break;
 			}
-			walls[i] = !isSafeMove(new int[]{ this.state[0] + offset[0] + dx,
-					this.state[1] + offset[1] + dy});
+			walls[i] = insideMaze ? (moves & move) == 0 :
+				!isSafeMove(x + dx, y + dy);
 			
 			dx = 0;
 			dy = 0;
@@ -292,340 +267,583 @@ public class MazeworldProblem extends UUSearchProblem {
 		/*
 		 * Checks if a potential state successor is valid i.e. makes sense 
 		 * according to the rules set for this Cartesian plan
-		 * @param successor - potential state successor
+		 * @param x - x-coordinate of potential state successor
+		 * @param y - y-coordinate of potential state successor
 		 * @return     true - potential state successor possible
 		 * 		      false - potential state successor impossible
 		 */
-		private boolean isSafeMove(int[] successor) {
-			return 0 <= successor[0] && successor[0] < mazeWidth &&
-					0 <= successor[1] && successor[1] < mazeHeight &&
-					mazeWalls[successor[0]][successor[1]] == 1;
+		private boolean isSafeMove(int x, int y) {
+			return mazeWalls.isFree(x, y);
 		}
 	}
 	
 	/**
-	 * Draws the Cartesian plane for the maze of this particular problem with
-	 * the walls/obstacles black and empty paths white 
+	 * Path cache key of a single-robot problem: the maze, its version and
+	 * the start and goal cells. The maze is compared by identity, as
+	 * MazeGrid doesn't override equals(), and the version tells apart its
+	 * states before and after setFree() calls.
 	 *
 	 * @author Mauricio Esquivel Rogel
 	 * @date Fall Term 2016
 	 */
-	private class Maze extends JComponent {
-	//----------------------------- CONSTANTS --------------------------------//
-		// PUBLIC
-			//
-		
+	private static class PathKey {
+	//----------------------INSTANCE VARIABLES--------------------------------//
 		// PRIVATE
-		private static final long serialVersionUID = 1L;
+		private MazeGrid maze;
+		private int version, startCell, goalCell;
+
+	//--------------------------- CONSTRUCTOR --------------------------------//
+		private PathKey(MazeGrid m, int s, int g) {
+			maze = m;
+			version = m.getVersion();
+			startCell = s;
+			goalCell = g;
+		}
+
+	//----------------------------- OVERRIDES --------------------------------//
+	//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ equals() ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~//
+		@Override
+		public boolean equals(Object other) {
+			if (!(other instanceof PathKey)) { return false; }
+
+			PathKey key = (PathKey) other;
+
+			return this.maze == key.maze && this.version == key.version &&
+					this.startCell == key.startCell &&
+					this.goalCell == key.goalCell;
+		}
+
+	//~~~~~~~~~~~~~~~~~~~~~~~~~~~~ hashCode() ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~//
+		@Override
+		public int hashCode() {
+			int h = System.identityHashCode(this.maze);
+
+			h = 31 * h + this.version;
+			h = 31 * h + this.startCell;
+
+			return 31 * h + this.goalCell;
+		}
+	}
+	
+/****************************** CONSTRUCTOR ***********************************///-----------------------------------------------//
+	public MazeworldProblem(int nrobots, int w, int h, int gx, 
+			int gy, boolean b, boolean pP) {
+		this(nrobots, loadMaze(w, h), gx, gy, b, pP);
+	}
+	
+	/*
+	 * Builds a problem on an existing maze, e.g. one opened with
+	 * MazeFile.open(), instead of generating a new one.
+	 */
+	public MazeworldProblem(int nrobots, MazeGrid maze, int gx, int gy,
+			boolean b, boolean pP) {
+		int w = maze.getWidth(), h = maze.getHeight();
 		
-	//----------------------- INSTANCE VARIABLES -----------------------------//
-		// PUBLIC
-			//
+		totalRobots = nrobots;
+		mazeWidth = w;
+		mazeHeight = h;
+		goalx = gx;
+		goaly = gy;
+		blindRobots = b;
+		pacmanPhysics = pP;
+		robots = new RobotNode[totalRobots];
+		startNode = new ArrayList<UUSearchNode>();
 		
-		// PRIVATE
-		private int ratio;    // ratio of real width/height to coordinate-wise
-							  		// width/height
-		private int borders;  // width of borders
+		if (this.blindRobots)
+			beliefStates = new BeliefState[totalRobots];
 		
-	//--------------------------- CONSTRUCTOR --------------------------------//	
-		private Maze(Dimension rs) {		      
-			ratio = rs.width > rs.height ? rs.width / mazeWidth :
-					rs.height / mazeHeight;
-			borders = 40;
-		}
+		mazeWalls = maze;
+		moveOffsets = new int[]{ mazeHeight, -mazeHeight, 1, -1 };
+		robotGoals = new int[totalRobots];
 		
-	//----------------------------- OVERRIDES --------------------------------//
-	//~~~~~~~~~~~~~~~~~~~~~~~~~~ paintComponent() ~~~~~~~~~~~~~~~~~~~~~~~~~~~~//
-		@Override
-		public void paintComponent(Graphics g) {
-			// draw robots in red
-			g.setColor(Color.RED);
-			for (int i = 0; i < robots.length; i++) {
-				drawBot(robots[i], g);
-			}
+		Arrays.fill(this.robotGoals, gx * h + gy);
+		
+		for (int i = 0; i < totalRobots; i++) {
+			this.robots[i] = new RobotNode(0, i, 0, i);
 			
-			// draw the maze's Cartesian plane vertical lines in black
-			g.setColor(Color.BLACK);
-			for (int w = 0; w < mazeWidth + 1; w++) {
-				drawTransformedLine(w, 0, w, mazeHeight, g);
-				
-				if (w < mazeWidth) {
-					for (int h = 0; h < mazeHeight; h++) {
-						// draw obstacles in black as well
-						if (mazeWalls[w][h] == -1) {
-							drawObstacle(w, h + 1, g);
-						}
-					}
-				}
-			}
+			if (blindRobots) { beliefStates[i] = predict(INIT_MOVE); }
 			
-			// draw the maze's Cartesian plane horizontal lines in black as well
-			for (int h = 0; h < mazeHeight + 1; h++) {
-				drawTransformedLine(0, h, mazeWidth, h, g);
-			}
+			this.startNode.add(this.robots[i]);
+		} 
+	}
+	
+	/*
+	 * Builds a single, non-blind robot problem starting anywhere in a maze,
+	 * e.g. one query out of a batch (see BatchSolver). The maze is only ever
+	 * read, so any number of problems can share it across threads.
+	 * @param maze - maze to search
+	 * @param sx - start x-coordinate
+	 * @param sy - start y-coordinate
+	 * @param gx - goal x-coordinate
+	 * @param gy - goal y-coordinate
+	 */
+	public MazeworldProblem(MazeGrid maze, int sx, int sy, int gx, int gy) {
+		this(1, maze, gx, gy, false, false);
+		
+		this.robots[0] = new RobotNode(sx, sy, 0, 0);
+		this.startNode.set(0, this.robots[0]);
+	}
+	
+	/*
+	 * Builds a non-blind problem where every robot has a goal of its own,
+	 * for multiRobotSearch(). The other searches only look at the first
+	 * robot's goal.
+	 * @param maze - maze the robots share
+	 * @param starts - packed cell id (see getCell()) of every robot's start
+	 * @param goals - packed cell id of every robot's goal
+	 */
+	public MazeworldProblem(MazeGrid maze, int[] starts, int[] goals) {
+		this(starts.length, maze, goals[0] / maze.getHeight(),
+				goals[0] % maze.getHeight(), false, false);
+		
+		for (int i = 0; i < starts.length; i++) {
+			this.robots[i] = new RobotNode(starts[i] / this.mazeHeight,
+					starts[i] % this.mazeHeight, 0, i);
+			this.startNode.set(i, this.robots[i]);
 		}
 		
-	//------------------------- PRIVATE METHODS ------------------------------//
-	//~~~~~~~~~~~~~~~~~~~~~~ drawTransformedLine() ~~~~~~~~~~~~~~~~~~~~~~~~~~~//
-		/*
-		 * Draws an individual line from one coordinate to another, mapping
-		 * coordinates to actual screen coordinates. X-coordinates are
-		 * calculated by simply multiplying the original coordinate by the ratio
-		 * and then adding the border width. Y-coordinates are calculated 
-		 * in the same, only that the product is subtracted from the
-		 * maze height times the ratio in order to invert the screen's
-		 * y-axis to match that of a real Cartesian plane
-		 * @param x1 - x-coordinate of first point
-		 * @param y1 - y-coordinate of first point
-		 * @param x2 - x-coordinate of second point
-		 * @param y2 - y-coordinate of second point
-		 */
-		private void drawTransformedLine(float x1, float y1, float x2, float y2,
-				Graphics g) {
-			g.drawLine(Math.round(x1 * this.ratio) + this.borders,
-					Math.round(mazeHeight * this.ratio - y1 *
-							this.ratio + this.borders),
-					Math.round(x2 * this.ratio) + this.borders,
-					Math.round(mazeHeight * this.ratio - y2 *
-							this.ratio + this.borders));
+		this.robotGoals = goals.clone();
+	}
+	
+/******************************* PUBLIC METHODS *******************************/
+//---------------------------- jumpPointSearch() -----------------------------//
+	/*
+	 * Jump Point Search (see JumpPointSearch) from the first robot's start to
+	 * the goal, on the frontier chosen with setFrontierType(). Nodes explored
+	 * counts jump points only, each of which may stand for a long run of
+	 * cells.
+	 * @return optimal solution path, every cell included, or null if there is
+	 * 		   none
+	 */
+	public List<UUSearchNode> jumpPointSearch() {
+		JumpPointSearch engine = null;
+		UUSearchNode[] path = null;
+		int[] cells = null;
+		int goalCell = getGoalCell();
+		
+		resetStats("Jump Point Search");
+		
+		if (goalCell == UNVISITED) { return finishSearch(null); }
+		
+		// the engine keeps its copy of the maze's rows and its per-cell
+		// arrays from one search to the next
+		if (this.jumpPoints == null) {
+			this.jumpPoints = new JumpPointSearch(this.mazeWalls,
+					createFrontier());
+			this.jumpPointFrontier = getFrontierType();
+		} else if (this.jumpPointFrontier != getFrontierType()) {
+			this.jumpPoints.setFrontier(createFrontier());
+			this.jumpPointFrontier = getFrontierType();
 		}
 		
-	//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ drawObstacle() ~~~~~~~~~~~~~~~~~~~~~~~~~~~//
-		private void drawObstacle(int x1, int y1, Graphics g) {
-			g.fillRect(x1 * this.ratio + this.borders,
-					mazeHeight * this.ratio - y1 * this.ratio + this.borders,
-					this.ratio, this.ratio);
+		engine = this.jumpPoints;
+		cells = engine.search(this.startNode.get(0).getCell(), goalCell);
+		nodesExplored = engine.getNodesExplored();
+		maxMemory = engine.getMaxMemory();
+		
+		if (cells == null) { return finishSearch(null); }
+		
+		path = new UUSearchNode[cells.length];
+		
+		for (int i = 0; i < cells.length; i++) {
+			path[i] = decodeCell(cells[i], i);
 		}
 		
-	//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ drawBot() ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~//	
-		private void drawBot(RobotNode bot, Graphics g) {
-			g.fillOval(this.ratio * bot.state[0] + 40 + this.ratio / 4,
-					this.ratio * (mazeHeight - 1) - this.ratio * bot.state[1] +
-							40 + this.ratio / 4,
-					this.ratio / 2, this.ratio / 2);
+		return finishSearch(Arrays.asList(path));
+	}
+
+//-------------------------- distanceFieldSearch() ---------------------------//
+	/*
+	 * Shortest path from the first robot's start to the goal by descending
+	 * the goal's DistanceField, computed by the first search towards that
+	 * goal on this maze and cached for every later one. Nodes explored and
+	 * memory count the cells of the descent only, not the field.
+	 * @return optimal solution path, as short as breadthFirstSearch()'s, or
+	 * 		   null if there is none
+	 */
+	public List<UUSearchNode> distanceFieldSearch() {
+		UUSearchNode[] path = null;
+		int[] cells = null;
+		int goalCell = getGoalCell();
+
+		resetStats("Distance Field Search");
+
+		if (goalCell == UNVISITED) { return finishSearch(null); }
+
+		cells = DistanceField.of(this.mazeWalls, goalCell).descend(
+				this.startNode.get(0).getCell());
+
+		if (cells == null) { return finishSearch(null); }
+
+		path = new UUSearchNode[cells.length];
+		nodesExplored = cells.length;
+		maxMemory = cells.length;
+
+		for (int i = 0; i < cells.length; i++) {
+			path[i] = decodeCell(cells[i], i);
 		}
+
+		return finishSearch(Arrays.asList(path));
 	}
-	
-	/**
-	 * A Fibonacci heap ordered by priority according to a Comparator<E> object.
-	 * All nodes in the same level share a doubly-linked list, and all of them 
-	 *
-	 * @author Implementation: Mauricio Esquivel Rogel
-	 * @date Fall Term 2016
+
+//---------------------------- dStarLiteSearch() -----------------------------//
+	/*
+	 * D* Lite (see DStarLite) from the first robot's start to the goal. The
+	 * first call searches the whole way like A* would; later calls only
+	 * repair the previous plan for the cells changed with updateCell() in
+	 * between. Nodes explored counts the cells expanded by this call.
+	 * @return optimal solution path on the maze as it is now, or null if
+	 * 		   there is none
 	 */
-	private class MazeSolution extends JComponent {
-	//----------------------------- CONSTANTS --------------------------------//
-		// PUBLIC
-			//
-			
-		// PRIVATE
-		private static final long serialVersionUID = 1L;
+	public List<UUSearchNode> dStarLiteSearch() {
+		UUSearchNode[] path = null;
+		int[] cells = null;
 		
-	//----------------------INSTANCE VARIABLES--------------------------------//
-		// PUBLIC
-			//
-			
-		// PRIVATE
-		private int ratio;
-		private List<UUSearchNode> solution;
-		private int borders;
+		resetStats("D* Lite Search");
 		
-	//--------------------------- CONSTRUCTOR --------------------------------//
-		private MazeSolution(Dimension rs, List<UUSearchNode> s) {		      
-			ratio = rs.width > rs.height ? rs.width / mazeWidth :
-					rs.height / mazeHeight;
-			borders = 40;
-			solution = s;
+		if (this.replanner == null) {
+			this.replanner = new DStarLite(this.mazeWalls,
+					this.startNode.get(0).getCell(),
+					encodeCell(this.goalx, this.goaly));
 		}
 		
-	//----------------------------- OVERRIDES --------------------------------//
-	//~~~~~~~~~~~~~~~~~~~~~~~~~~ paintComponent() ~~~~~~~~~~~~~~~~~~~~~~~~~~~~//
-		public void paintComponent(Graphics g) {
-			RobotNode curr = null, next = null;
-			
-			g.clearRect(0, 0, getWidth(), getHeight());
-			g.setFont(g.getFont().deriveFont(18.0f));
-			g.drawString(searchName, 800, 100);
-			g.setFont(g.getFont().deriveFont(16.0f));
-			g.drawString("Nodes Explored: " + nodesExplored, 760, 250);
-			g.drawString("Maximum Memory Usage: " + maxMemory, 760, 275);
-			g.drawString("Solution Path Length: " + this.solution.size(), 760,
-					300);
-			g.drawString("Running time: " + runningTime.toMillis() /
-					1000.0 + "s", 760, 325);
-			
-			for (int i = 0; i < this.solution.size(); i++) {
-				if (i < this.solution.size() - 1) {
-					curr = (RobotNode) this.solution.get(i);
-					next = (RobotNode) this.solution.get(i + 1);
-					
-					if (searchName == "Breadth-First Search") 
-						g.setColor(Color.YELLOW);
-					else if (searchName == "A* Search") 
-						g.setColor(Color.BLUE);
-					else
-						g.setColor(Color.BLUE);
-					
-					drawTransformedLine(curr.state[0], curr.state[1],
-							next.state[0], next.state[1], g);
-					
-					g.setColor(Color.YELLOW);
-				} else {
-					g.setColor(Color.GREEN);
-					drawBot(next, g);
-					g.setColor(Color.YELLOW);
-				}
-			}
+		cells = this.replanner.plan();
+		nodesExplored = this.replanner.getNodesExplored();
+		maxMemory = this.replanner.getMaxMemory();
+		
+		if (cells == null) { return finishSearch(null); }
+		
+		path = new UUSearchNode[cells.length];
+		
+		for (int i = 0; i < cells.length; i++) {
+			path[i] = decodeCell(cells[i], i);
 		}
 		
-	//------------------------- PRIVATE METHODS ------------------------------//
-	//~~~~~~~~~~~~~~~~~~~~~~ drawTransformedLine() ~~~~~~~~~~~~~~~~~~~~~~~~~~~//
-		private void drawTransformedLine(float x1, float y1, float x2, 
-				float y2, Graphics g) {
-			g.drawLine(Math.round(x1 * this.ratio) + 40 + this.ratio / 2,
-					Math.round(mazeHeight * this.ratio - (y1 + 1) *
-							this.ratio + this.ratio / 2 + this.borders),
-					Math.round(x2 * this.ratio + 40 + this.ratio / 2),
-					Math.round(mazeHeight * this.ratio - (y2 + 1) 
-							* this.ratio + this.ratio / 2 + this.borders));
+		return finishSearch(Arrays.asList(path));
+	}
+
+//---------------------------- multiRobotSearch() ----------------------------//
+	/*
+	 * Joint A* (see MultiRobotSearch) moving every robot from its start to
+	 * its own goal at once without collisions. The solution is a FleetPlan
+	 * rather than a path of nodes, so the observer, if any, isn't told about
+	 * it; the stats are kept as for any other search.
+	 * @return collision-free plan of least total cost, or null if there is
+	 * 		   none, e.g. when two robots share a goal
+	 */
+	public FleetPlan multiRobotSearch() {
+		MultiRobotSearch engine = null;
+		FleetPlan plan = null;
+		int[] starts = new int[this.totalRobots];
+		
+		resetStats("Multi-Robot A* Search");
+		
+		for (int i = 0; i < this.totalRobots; i++) {
+			starts[i] = this.robots[i].getCell();
 		}
 		
-	//~~~~~~~~~~~~~~~~~~~~~~~~~~~~ drawBot() ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~//
-		private void drawBot(RobotNode bot, Graphics g) {
-			g.fillOval(this.ratio * bot.state[0] + 40 + this.ratio / 4,
-					this.ratio * (mazeHeight - 1) - this.ratio * bot.state[1] + 
-							40 + this.ratio / 4, this.ratio / 2,
-					this.ratio / 2);
+		engine = new MultiRobotSearch(this.mazeWalls, starts, this.robotGoals);
+		plan = engine.search();
+		nodesExplored = engine.getNodesExplored();
+		maxMemory = engine.getMaxMemory();
+		stopClock();
+		
+		return plan;
+	}
+
+//---------------------- independenceDetectionSearch() -----------------------//
+	/*
+	 * Plans every robot on its own and only searches jointly, with operator
+	 * decomposition, the groups of robots whose paths collide (see
+	 * IndependenceDetection). Stats and observer as for multiRobotSearch().
+	 * @return collision-free plan of least total cost, or null if there is
+	 * 		   none or too many robots get in each other's way to plan them
+	 * 		   jointly
+	 */
+	public FleetPlan independenceDetectionSearch() {
+		IndependenceDetection engine = null;
+		FleetPlan plan = null;
+		int[] starts = new int[this.totalRobots];
+		
+		resetStats("Independence Detection Search");
+		
+		for (int i = 0; i < this.totalRobots; i++) {
+			starts[i] = this.robots[i].getCell();
 		}
+		
+		engine = new IndependenceDetection(this.mazeWalls, starts,
+				this.robotGoals);
+		plan = engine.search();
+		nodesExplored = engine.getNodesExplored();
+		maxMemory = engine.getMaxMemory();
+		stopClock();
+		
+		return plan;
 	}
 
-/****************************** CONSTRUCTOR ***********************************///-----------------------------------------------//
-	public MazeworldProblem(int nrobots, int w, int h, int gx, 
-			int gy, boolean b, boolean pP) {
-		totalRobots = nrobots;
-		mazeWidth = w;
-		mazeHeight = h;
-		goalx = gx;
-		goaly = gy;
-		blindRobots = b;
-		pacmanPhysics = pP;
-		robots = new RobotNode[totalRobots];
-		startNode = new ArrayList<UUSearchNode>();
+//-------------------------- conflictBasedSearch() ---------------------------//
+	/*
+	 * Conflict-Based Search (see ConflictBasedSearch) for every robot's
+	 * goal. Nodes explored counts constraint tree nodes. Stats and observer
+	 * as for multiRobotSearch().
+	 * @param expansionLimit - constraint tree nodes to expand before giving
+	 * 						   up
+	 * @return collision-free plan of least total cost, or null if there is
+	 * 		   none or the limit ran out first
+	 */
+	public FleetPlan conflictBasedSearch(int expansionLimit) {
+		ConflictBasedSearch engine = null;
+		FleetPlan plan = null;
+		int[] starts = new int[this.totalRobots];
 		
-		if (this.blindRobots)
-			beliefStates = new ArrayList<ArrayList<UUSearchNode>>();
+		resetStats("Conflict-Based Search");
 		
-		mazeWalls = loadMaze();
-		mazePanel = new JPanel();
+		for (int i = 0; i < this.totalRobots; i++) {
+			starts[i] = this.robots[i].getCell();
+		}
+		
+		engine = new ConflictBasedSearch(this.mazeWalls, starts,
+				this.robotGoals);
+		engine.setExpansionLimit(expansionLimit);
+		plan = engine.search();
+		nodesExplored = engine.getNodesExplored();
+		maxMemory = engine.getMaxMemory();
+		stopClock();
 		
-		if (mazeFrame == null) {
-			mazeFrame = new JFrame();
-			mazeFrame.setBackground(Color.WHITE);
+		return plan;
+	}
+
+//--------------------------- prioritizedSearch() ----------------------------//
+	/*
+	 * Plans the robots one after another in index order, each around the
+	 * reservations of the ones before it (see PrioritizedSearch). Nodes
+	 * explored adds up every robot's (cell, time) states. Stats and observer
+	 * as for multiRobotSearch().
+	 * @return collision-free plan, not always of least cost, or null if a
+	 * 		   robot can't get past the ones before it
+	 */
+	public FleetPlan prioritizedSearch() {
+		PrioritizedSearch engine = null;
+		FleetPlan plan = null;
+		int[] starts = new int[this.totalRobots];
+		
+		resetStats("Prioritized Search");
+		
+		for (int i = 0; i < this.totalRobots; i++) {
+			starts[i] = this.robots[i].getCell();
 		}
 		
-		if (mazePanel == null) {
-			mazePanel = new JPanel();
-			mazePanel.setBackground(Color.WHITE);
+		engine = new PrioritizedSearch(this.mazeWalls, starts,
+				this.robotGoals);
+		plan = engine.search();
+		nodesExplored = engine.getNodesExplored();
+		maxMemory = engine.getMaxMemory();
+		stopClock();
+		
+		return plan;
+	}
+
+//------------------------------- updateCell() -------------------------------//
+	/*
+	 * Opens or walls a cell of the maze, telling the D* Lite planner, if
+	 * dStarLiteSearch() has started one, so that it can repair its plan.
+	 * Changing the maze directly instead leaves the planner with stale
+	 * distances.
+	 * @param x - x-coordinate
+	 * @param y - y-coordinate
+	 * @param free - true to empty the cell, false to wall it
+	 * @throws IllegalStateException if the maze is read-only, e.g. mapped
+	 * 		   by MazeFile.open()
+	 */
+	public void updateCell(int x, int y, boolean free) {
+		if (this.mazeWalls.isReadOnly()) {
+			throw new IllegalStateException("maze is read-only");
 		}
 		
-		mazeFrame.setTitle(w + "x" + h + (this.pacmanPhysics ? 
-				" Pacman-Physics" : "") + " Maze: " + nrobots + " " +
-				(this.blindRobots ? "blind" : "non-blind") + " robot" +
-						(nrobots == 1 ? "" : "s"));
+		if (this.replanner != null) {
+			this.replanner.setFree(x, y, free);
+		} else {
+			this.mazeWalls.setFree(x, y, free);
+		}
+	}
+
+//------------------------------- saveMaze() ---------------------------------//
+	/*
+	 * Exports this problem's maze and goal in the MazeFile format.
+	 * @param file - destination, created or truncated
+	 */
+	public void saveMaze(Path file) throws IOException {
+		MazeFile.write(file, this.mazeWalls, this.goalx, this.goaly);
+	}
+
+//----------------------------- getTotalRobots() -----------------------------//
+	public int getTotalRobots() {
+		return this.totalRobots;
+	}
+
+//------------------------------ getRobotCell() ------------------------------//
+	/*
+	 * @param id - robot index
+	 * @return packed cell id (see getCell()) of the robot's start position
+	 */
+	public int getRobotCell(int id) {
+		return this.robots[id].getCell();
+	}
+
+//-------------------------------- getGoalX() --------------------------------//
+	public int getGoalX() {
+		return this.goalx;
+	}
+
+//-------------------------------- getGoalY() --------------------------------//
+	public int getGoalY() {
+		return this.goaly;
+	}
+
+//-------------------------------- isBlind() ---------------------------------//
+	public boolean isBlind() {
+		return this.blindRobots;
+	}
+
+//---------------------------- hasPacmanPhysics() ----------------------------//
+	public boolean hasPacmanPhysics() {
+		return this.pacmanPhysics;
+	}
+
+/**************************** PROTECTED METHODS *******************************/
+//------------------------------ spatialHash() -------------------------------//
+	/*
+	 * Hash of a maze coordinate, consistent with RobotNode.equals() i.e. it
+	 * only depends on the position and never on the depth. The packed cell id
+	 * is distinct for every cell of the maze and is run through MurmurHash3's
+	 * finalizer, which is a bijection on ints, so two different cells never
+	 * share a hash, while strided sets of cells (e.g. one row out of every
+	 * few) still spread over all of HashMap's power-of-two buckets.
+	 * @param x - x-coordinate
+	 * @param y - y-coordinate
+	 * @param height - maze height
+	 * @return mixed hash of the cell id x * height + y
+	 */
+	protected static int spatialHash(int x, int y, int height) {
+		int h = x * height + y;
 		
-		for (int i = 0; i < totalRobots; i++) {
-			this.robots[i] = new RobotNode(0, i, 0, i);
-			
-			if (blindRobots) { beliefStates.add(predict(INIT_MOVE, i)); }
-			
-			this.startNode.add(this.robots[i]);
-		} 
+		h = (h ^ (h >>> 16)) * HASH_MIX_1;
+		h = (h ^ (h >>> 13)) * HASH_MIX_2;
 		
-		startMaze();
+		return h ^ (h >>> 16);
 	}
-	
-/******************************* PUBLIC METHODS *******************************/
-//------------------------------ drawSolution() ------------------------------//
-	public void drawSolution(List<UUSearchNode> solution, 
-			Callable<Boolean> callback, boolean last) {
-		Dimension realMazeSize = this.mazeHeight > this.mazeWidth ?
-				new Dimension(620 / this.mazeHeight * this.mazeWidth, 620) :
-				new Dimension(620, 620 / this.mazeWidth * this.mazeHeight);
-				
-		MazeSolution mSolution = new MazeSolution(realMazeSize, solution);
-				
-		mSolution.setOpaque(false);
-		
-	    mazePanel.add(mSolution);
-	    mazeFrame.pack();
-	    
-	    mazePanel.repaint();
-	    mazePanel.revalidate();
-		
-	    mazeFrame.repaint();
-	    mazeFrame.revalidate();
-		
-		
-		SwingUtilities.invokeLater(new Runnable(){
-	        @Override
-	        public void run(){
-	            try {
-	            	if (!last) {
-	            		Thread.sleep(5000);
-	            		
-	            		if (searchName == "A* Search") {
-		            		mazeFrame.remove(mazePanel);
-		            		mazePanel.removeAll();
-		            		
-		            		mazePanel.repaint();
-		            	    mazePanel.revalidate();
-		            		
-		            	    mazeFrame.repaint();
-		            	    mazeFrame.revalidate();
-		            		
-		            		SwingUtilities.invokeLater(new Runnable(){
-		            	        @Override
-		            	        public void run(){
-		            	        	try {
-										callback.call();
-									} catch (Exception e) {
-										e.printStackTrace();
-									}
-		            	        }
-		            		});
-		            	}
-	            		else { callback.call(); } 
-	            	}
-				} catch (Exception e) {
-					e.printStackTrace();
-				}
-	        }
-	    });
+
+//------------------------------ getCellCount() ------------------------------//
+	@Override
+	protected int getCellCount() {
+		return Math.multiplyExact(this.mazeWidth, this.mazeHeight);
+	}
+
+//------------------------------- getPathKey() -------------------------------//
+	/*
+	 * Only a single, non-blind robot's path is fully set by the start and the
+	 * goal; blind robots first have to find out where they are.
+	 */
+	@Override
+	protected Object getPathKey() {
+		if (this.blindRobots || this.totalRobots != 1) { return null; }
+
+		return new PathKey(this.mazeWalls, this.startNode.get(0).getCell(),
+				encodeCell(this.goalx, this.goaly));
+	}
+
+//-------------------------------- getMaze() ---------------------------------//
+	/*
+	 * Bit-packed maze, for search engines that scan the grid directly.
+	 */
+	protected MazeGrid getMaze() {
+		return this.mazeWalls;
+	}
+
+//------------------------------- isGoalCell() -------------------------------//
+	@Override
+	protected boolean isGoalCell(int cell) {
+		return cell == encodeCell(this.goalx, this.goaly);
+	}
+
+//------------------------------ getGoalCell() -------------------------------//
+	/*
+	 * Moves in the maze can always be undone, so the goal works as the start
+	 * of a backward search as long as it is an empty cell.
+	 */
+	@Override
+	protected int getGoalCell() {
+		return this.mazeWalls.isFree(this.goalx, this.goaly) ?
+				encodeCell(this.goalx, this.goaly) : UNVISITED;
+	}
+
+//------------------------------ estimateCost() ------------------------------//
+	@Override
+	protected int estimateCost(int cell) {
+		int x = cell / this.mazeHeight;
+		
+		return Math.abs(this.goalx - x) +
+				Math.abs(this.goaly - (cell - x * this.mazeHeight));
 	}
 	
+	@Override
+	protected int estimateCost(int cell, int target) {
+		int x = cell / this.mazeHeight, tx = target / this.mazeHeight;
+		
+		return Math.abs(tx - x) + Math.abs((target - tx * this.mazeHeight) -
+				(cell - x * this.mazeHeight));
+	}
+
+//------------------------------- decodeCell() -------------------------------//
+	@Override
+	protected UUSearchNode decodeCell(int cell, int depth) {
+		return new RobotNode(cell / this.mazeHeight, cell % this.mazeHeight,
+				depth, 0);
+	}
+
 /**************************** PRIVATE METHODS *********************************/
+//------------------------------ encodeCell() --------------------------------//
+	/*
+	 * Packs a coordinate into a single cell id, column by column so that it
+	 * follows the MazeGrid layout. Searches run one robot at a time,
+	 * so the robot index is kept in the node rather than in the cell id.
+	 * @param x - x-coordinate
+	 * @param y - y-coordinate
+	 * @return x * mazeHeight + y
+	 */
+	private int encodeCell(int x, int y) {
+		return x * this.mazeHeight + y;
+	}
+
 //----------------------------- loadMaze() -----------------------------------//
-	private int[][] loadMaze() {
+	/*
+	 * Generates the built-in mazes: a serpentine layout for 100x100 and a
+	 * two-corridor layout otherwise, with every remaining cell randomized.
+	 * @param mazeWidth - maze width
+	 * @param mazeHeight - maze height
+	 * @return generated maze
+	 */
+	private static MazeGrid loadMaze(int mazeWidth, int mazeHeight) {
 		boolean white = false;
-		int[][] maze = new int[this.mazeWidth][this.mazeHeight];
+		MazeGrid maze = new MazeGrid(mazeWidth, mazeHeight);
 		Random random = new Random();
 		
-		if (this.mazeHeight == 100 && this.mazeHeight == this.mazeWidth) {
+		if (mazeHeight == 100 && mazeHeight == mazeWidth) {
 			int offset = 18;
 			
-			for (int h = 0; h < this.mazeHeight; h++) {
-				for (int w = 0; w < this.mazeWidth; w++) {
+			for (int h = 0; h < mazeHeight; h++) {
+				for (int w = 0; w < mazeWidth; w++) {
 					white = false;
 					
-					if (w == this.mazeWidth - 1) {
+					if (w == mazeWidth - 1) {
 						white = true;
 					} else {
-						if (h < 10 || h > this.mazeHeight - 10) {
+						if (h < 10 || h > mazeHeight - 10) {
 							if (w == h || w == h + 1) {
 								white = true;
 							}
 						} else {
-							if (w < this.mazeWidth - offset) {
+							if (w < mazeWidth - offset) {
 								switch (h) {
 									case 10: ;
 										if (w >= 10) {
@@ -634,11 +852,11 @@ public class MazeworldProblem extends UUSearchProblem {
 										break;
 										
 									default: ;
-										if (h % 2 == 0 && w < this.mazeWidth - offset) {
+										if (h % 2 == 0 && w < mazeWidth - offset) {
 											white = true;	
 										} else {
 											if ((h - 11) / 2 % 2 == 0) {
-												if (w == this.mazeWidth - offset - 1)
+												if (w == mazeWidth - offset - 1)
 													white = true;
 											} else {
 												if (w == 0) {
@@ -648,41 +866,41 @@ public class MazeworldProblem extends UUSearchProblem {
 										}
 								}
 							} else {
-								if (h == 90 && w <= this.mazeWidth - 9) {
+								if (h == 90 && w <= mazeWidth - 9) {
 									white = true;
 								}
 							}
 						}
 					}
 					
-					maze[w][h] = white ? 1 : -1;
+					maze.setFree(w, h, white);
 				}
 			}
 		} else {
-			int midpointWidth = Math.floorDiv(this.mazeWidth, 2);
+			int midpointWidth = Math.floorDiv(mazeWidth, 2);
 			int lowerQuartileWidth = Math.floorDiv(midpointWidth, 2);
 			int upperQuartileWidth = midpointWidth + lowerQuartileWidth;
 			
-			for (int h = 0; h < this.mazeHeight; h++) {
-				for (int w = 0; w < this.mazeWidth; w++) {
+			for (int h = 0; h < mazeHeight; h++) {
+				for (int w = 0; w < mazeWidth; w++) {
 					if (h == 0) {
 						if (w <= lowerQuartileWidth || w >= upperQuartileWidth)
-							maze[w][h] = 1;
-					} else if (h < this.mazeHeight - 1) {
+							maze.setFree(w, h, true);
+					} else if (h < mazeHeight - 1) {
 						if (w == lowerQuartileWidth || w == upperQuartileWidth)
-							maze[w][h] = 1;
+							maze.setFree(w, h, true);
 					} else {
 						if (w <= upperQuartileWidth)
-							maze[w][h] = 1;
+							maze.setFree(w, h, true);
 					}
 				}
 			}
 		}
 		
-		for (int w = 0; w < this.mazeWidth; w++) {
-			for (int h = 0; h < this.mazeHeight; h++) {
-				if (maze[w][h] != 1) {
-					maze[w][h] = (random.nextBoolean()) ? 1 : -1;
+		for (int w = 0; w < mazeWidth; w++) {
+			for (int h = 0; h < mazeHeight; h++) {
+				if (!maze.isFree(w, h)) {
+					maze.setFree(w, h, random.nextBoolean());
 				}
 			}
 		}
@@ -690,38 +908,6 @@ public class MazeworldProblem extends UUSearchProblem {
 		return maze;
 	}
 	
-//----------------------------- startMaze() ----------------------------------//
-	private void startMaze() {
-		Dimension realMazeSize = this.mazeHeight > this.mazeWidth ?
-				new Dimension(620 / this.mazeHeight * this.mazeWidth, 620) :
-				new Dimension(620, 620 / this.mazeWidth * this.mazeHeight);
-				
-		Dimension realSize = new Dimension(realMazeSize.width + 80 + 400,
-				realMazeSize.height + 80);
-		
-		mazeFrame.add(mazePanel, BorderLayout.CENTER);
-		
-		mazeFrame.setPreferredSize(realSize);
-		mazeFrame.setBounds(0, 0, realSize.width, realSize.height);
-		
-		mazeFrame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-		mazeFrame.setLocationRelativeTo(null);
-	    
-		mazePanel.setPreferredSize(realMazeSize);
-		
-		Maze mazePanelCompontent = new Maze(realMazeSize);
-		
-		LayoutManager overlay = new OverlayLayout(mazePanel);
-		mazePanel.setLayout(overlay);
-		
-		mazePanel.add(mazePanelCompontent);
-		
-		mazeFrame.pack();
-		
-		mazeFrame.setVisible(true);
-		mazePanel.setVisible(true);
-	}
-	
 //~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ predict() ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~//
 	/*
 	 * Checks if a potential state successor is valid i.e. makes sense 
@@ -730,35 +916,14 @@ public class MazeworldProblem extends UUSearchProblem {
 	 * @return     true - potential state successor possible
 	 * 		      false - potential state successor impossible
 	 */
-	private ArrayList<UUSearchNode> predict(final int action, int id) {
-		ArrayList<UUSearchNode> beliefStates = new ArrayList<UUSearchNode>();
-		this.impossibleMovesTracker = 
-				new int[4][this.mazeWidth][this.mazeHeight];
+	private BeliefState predict(final int action) {
+		BeliefState beliefState = null;
 		
 		if (action == INIT_MOVE) {
-			for (int w = 0; w < mazeWidth; w++) {
-				for (int h = 0; h < mazeHeight; h++) {
-					if (mazeWalls[w][h] == 1)
-						beliefStates.add(new RobotNode(w, h, 0, id));
-					else {
-						if (w + 1 < mazeWidth && mazeWalls[w+1][h] == 1)
-							this.impossibleMovesTracker[MOVE_WEST - 1][w+1][h]
-									= 1;
-						if (w - 1 >= 0 && mazeWalls[w-1][h] == 1)
-							this.impossibleMovesTracker[MOVE_EAST - 1][w-1][h]
-									= 1;
-						if (h + 1 < mazeHeight && mazeWalls[w][h+1] == 1)
-							this.impossibleMovesTracker[MOVE_SOUTH - 1][w][h+1]
-									= 1;
-						if (h - 1 >= 0 && mazeWalls[w][h-1] == 1)
-							this.impossibleMovesTracker[MOVE_NORTH - 1][w][h-1]
-									= 1;
-					}
-				}
-			}
+			beliefState = new BeliefState(this.mazeWalls);
 		}
 		
-		return beliefStates;
+		return beliefState;
 	}
 	
 //~~~~~~~~~~~~~~~~~~~~~~~~~~ printImpossibleMoves() ~~~~~~~~~~~~~~~~~~~~~~~~~~//
@@ -771,6 +936,18 @@ public class MazeworldProblem extends UUSearchProblem {
 		 */
 	public void printImpossibleMoves() {
 		String impossibleMoves;
+		BeliefState[] impossible = new BeliefState[4];
+		
+		// free cells whose neighbour to the north, south, east or west is a
+		// wall
+		for (int move = 0; move < 4; move++) {
+			impossible[move] = new BeliefState(this.mazeWalls);
+		}
+		
+		impossible[MOVE_NORTH - 1].keepWalled(0, 1);
+		impossible[MOVE_SOUTH - 1].keepWalled(0, -1);
+		impossible[MOVE_EAST - 1].keepWalled(1, 0);
+		impossible[MOVE_WEST - 1].keepWalled(-1, 0);
 		
 		for (int move = 0; move < 4; move++) {
 			impossibleMoves = "";
@@ -792,13 +969,10 @@ public class MazeworldProblem extends UUSearchProblem {
 					System.out.println("\nWEST");
 			}
 			
-			for (int wi = 0; wi < mazeWidth; wi++) {
-				for (int he = 0; he < mazeHeight; he++) {
-					if (impossibleMovesTracker[move][wi][he] == 1) {
-						impossibleMoves += "("+wi+","+he+")";
-					}
-						
-				}
+			for (int cell = impossible[move].first(); cell != MazeGrid.NO_CELL;
+					cell = impossible[move].next(cell + 1)) {
+				impossibleMoves += "(" + cell / mazeHeight + "," +
+						cell % mazeHeight + ")";
 			}
 			
 			System.out.println(impossibleMoves);
@@ -0,0 +1,350 @@
+package mazeworld;
+
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.LayoutManager;
+import java.time.Duration;
+import java.util.List;
+
+import javax.swing.JComponent;
+import javax.swing.JFrame;
+import javax.swing.JPanel;
+import javax.swing.OverlayLayout;
+import javax.swing.SwingUtilities;
+
+import mazeworld.UUSearchProblem.UUSearchNode;
+
+/**
+ * Swing window showing a MazeworldProblem's maze and, attached as the
+ * problem's SearchObserver, the solution and stats of its latest search.
+ * MazeworldProblem itself never touches AWT, so problems can be built and
+ * solved headless, and only the ones worth looking at get a renderer.
+ * Searches report from whatever thread they ran on; everything Swing-related
+ * is handed over to the event dispatch thread.
+ *
+ * @author Mauricio Esquivel Rogel
+ * @date Fall Term 2016
+ */
+public class MazeworldRenderer implements SearchObserver {
+/******************************** CONSTANTS ***********************************/
+	// PRIVATE
+	private static final int MAZE_PIXELS = 620;
+	private static final int BORDERS = 40;
+	private static final int STATS_WIDTH = 400;
+
+/*************************** INSTANCE VARIABLES *******************************/
+	// PUBLIC
+		//
+
+	// PRIVATE
+	private MazeworldProblem problem;
+	private int mazeWidth, mazeHeight;
+	private Dimension realMazeSize;
+	private JFrame mazeFrame;
+	private JPanel mazePanel;
+	private MazeSolution solutionLayer;
+
+/***************************** INNER CLASSES **********************************/
+	/**
+	 * Draws the Cartesian plane for the maze of this particular problem with
+	 * the walls/obstacles black and empty paths white
+	 *
+	 * @author Mauricio Esquivel Rogel
+	 * @date Fall Term 2016
+	 */
+	private class Maze extends JComponent {
+	//----------------------------- CONSTANTS --------------------------------//
+		// PUBLIC
+			//
+
+		// PRIVATE
+		private static final long serialVersionUID = 1L;
+
+	//----------------------- INSTANCE VARIABLES -----------------------------//
+		// PUBLIC
+			//
+
+		// PRIVATE
+		private int ratio;    // ratio of real width/height to coordinate-wise
+							  		// width/height
+		private int borders;  // width of borders
+
+	//--------------------------- CONSTRUCTOR --------------------------------//
+		private Maze(Dimension rs) {
+			ratio = rs.width > rs.height ? rs.width / mazeWidth :
+					rs.height / mazeHeight;
+			borders = BORDERS;
+		}
+
+	//----------------------------- OVERRIDES --------------------------------//
+	//~~~~~~~~~~~~~~~~~~~~~~~~~~ paintComponent() ~~~~~~~~~~~~~~~~~~~~~~~~~~~~//
+		@Override
+		public void paintComponent(Graphics g) {
+			MazeGrid mazeWalls = problem.getMaze();
+
+			// draw robots in red
+			g.setColor(Color.RED);
+			for (int i = 0; i < problem.getTotalRobots(); i++) {
+				drawBot(problem.getRobotCell(i), g);
+			}
+
+			// draw the maze's Cartesian plane vertical lines in black
+			g.setColor(Color.BLACK);
+			for (int w = 0; w < mazeWidth + 1; w++) {
+				drawTransformedLine(w, 0, w, mazeHeight, g);
+
+				if (w < mazeWidth) {
+					for (int h = 0; h < mazeHeight; h++) {
+						// draw obstacles in black as well
+						if (!mazeWalls.isFree(w, h)) {
+							drawObstacle(w, h + 1, g);
+						}
+					}
+				}
+			}
+
+			// draw the maze's Cartesian plane horizontal lines in black as well
+			for (int h = 0; h < mazeHeight + 1; h++) {
+				drawTransformedLine(0, h, mazeWidth, h, g);
+			}
+		}
+
+	//------------------------- PRIVATE METHODS ------------------------------//
+	//~~~~~~~~~~~~~~~~~~~~~~ drawTransformedLine() ~~~~~~~~~~~~~~~~~~~~~~~~~~~//
+		/*
+		 * Draws an individual line from one coordinate to another, mapping
+		 * coordinates to actual screen coordinates. X-coordinates are
+		 * calculated by simply multiplying the original coordinate by the ratio
+		 * and then adding the border width. Y-coordinates are calculated
+		 * in the same, only that the product is subtracted from the
+		 * maze height times the ratio in order to invert the screen's
+		 * y-axis to match that of a real Cartesian plane
+		 * @param x1 - x-coordinate of first point
+		 * @param y1 - y-coordinate of first point
+		 * @param x2 - x-coordinate of second point
+		 * @param y2 - y-coordinate of second point
+		 */
+		private void drawTransformedLine(float x1, float y1, float x2, float y2,
+				Graphics g) {
+			g.drawLine(Math.round(x1 * this.ratio) + this.borders,
+					Math.round(mazeHeight * this.ratio - y1 *
+							this.ratio + this.borders),
+					Math.round(x2 * this.ratio) + this.borders,
+					Math.round(mazeHeight * this.ratio - y2 *
+							this.ratio + this.borders));
+		}
+
+	//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ drawObstacle() ~~~~~~~~~~~~~~~~~~~~~~~~~~~//
+		private void drawObstacle(int x1, int y1, Graphics g) {
+			g.fillRect(x1 * this.ratio + this.borders,
+					mazeHeight * this.ratio - y1 * this.ratio + this.borders,
+					this.ratio, this.ratio);
+		}
+
+	//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ drawBot() ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~//
+		private void drawBot(int cell, Graphics g) {
+			g.fillOval(this.ratio * (cell / mazeHeight) + 40 + this.ratio / 4,
+					this.ratio * (mazeHeight - 1) - this.ratio *
+							(cell % mazeHeight) + 40 + this.ratio / 4,
+					this.ratio / 2, this.ratio / 2);
+		}
+	}
+
+	/**
+	 * Draws a solution path over the maze along with the stats of the search
+	 * that found it, captured when the search finished
+	 *
+	 * @author Implementation: Mauricio Esquivel Rogel
+	 * @date Fall Term 2016
+	 */
+	private class MazeSolution extends JComponent {
+	//----------------------------- CONSTANTS --------------------------------//
+		// PUBLIC
+			//
+
+		// PRIVATE
+		private static final long serialVersionUID = 1L;
+
+	//----------------------INSTANCE VARIABLES--------------------------------//
+		// PUBLIC
+			//
+
+		// PRIVATE
+		private int ratio;
+		private List<UUSearchNode> solution;
+		private int borders;
+		private String searchName;
+		private int nodesExplored, maxMemory;
+		private Duration runningTime;
+
+	//--------------------------- CONSTRUCTOR --------------------------------//
+		private MazeSolution(Dimension rs, List<UUSearchNode> s) {
+			ratio = rs.width > rs.height ? rs.width / mazeWidth :
+					rs.height / mazeHeight;
+			borders = BORDERS;
+			solution = s;
+			searchName = problem.getSearchName();
+			nodesExplored = problem.getNodesExplored();
+			maxMemory = problem.getMaxMemory();
+			runningTime = problem.getRunningTime();
+		}
+
+	//----------------------------- OVERRIDES --------------------------------//
+	//~~~~~~~~~~~~~~~~~~~~~~~~~~ paintComponent() ~~~~~~~~~~~~~~~~~~~~~~~~~~~~//
+		public void paintComponent(Graphics g) {
+			int curr = 0, next = 0;
+
+			g.clearRect(0, 0, getWidth(), getHeight());
+			g.setFont(g.getFont().deriveFont(18.0f));
+			g.drawString(this.searchName, 800, 100);
+			g.setFont(g.getFont().deriveFont(16.0f));
+			g.drawString("Nodes Explored: " + this.nodesExplored, 760, 250);
+			g.drawString("Maximum Memory Usage: " + this.maxMemory, 760, 275);
+			g.drawString("Solution Path Length: " + this.solution.size(), 760,
+					300);
+			g.drawString("Running time: " + this.runningTime.toMillis() /
+					1000.0 + "s", 760, 325);
+
+			for (int i = 0; i < this.solution.size(); i++) {
+				if (i < this.solution.size() - 1) {
+					curr = this.solution.get(i).getCell();
+					next = this.solution.get(i + 1).getCell();
+
+					if (this.searchName == "Breadth-First Search")
+						g.setColor(Color.YELLOW);
+					else if (this.searchName == "A* Search")
+						g.setColor(Color.BLUE);
+					else
+						g.setColor(Color.BLUE);
+
+					drawTransformedLine(curr / mazeHeight, curr % mazeHeight,
+							next / mazeHeight, next % mazeHeight, g);
+
+					g.setColor(Color.YELLOW);
+				} else {
+					g.setColor(Color.GREEN);
+					drawBot(next, g);
+					g.setColor(Color.YELLOW);
+				}
+			}
+		}
+
+	//------------------------- PRIVATE METHODS ------------------------------//
+	//~~~~~~~~~~~~~~~~~~~~~~ drawTransformedLine() ~~~~~~~~~~~~~~~~~~~~~~~~~~~//
+		private void drawTransformedLine(float x1, float y1, float x2,
+				float y2, Graphics g) {
+			g.drawLine(Math.round(x1 * this.ratio) + 40 + this.ratio / 2,
+					Math.round(mazeHeight * this.ratio - (y1 + 1) *
+							this.ratio + this.ratio / 2 + this.borders),
+					Math.round(x2 * this.ratio + 40 + this.ratio / 2),
+					Math.round(mazeHeight * this.ratio - (y2 + 1)
+							* this.ratio + this.ratio / 2 + this.borders));
+		}
+
+	//~~~~~~~~~~~~~~~~~~~~~~~~~~~~ drawBot() ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~//
+		private void drawBot(int cell, Graphics g) {
+			g.fillOval(this.ratio * (cell / mazeHeight) + 40 + this.ratio / 4,
+					this.ratio * (mazeHeight - 1) - this.ratio *
+							(cell % mazeHeight) + 40 + this.ratio / 4,
+					this.ratio / 2, this.ratio / 2);
+		}
+	}
+
+/****************************** CONSTRUCTOR ***********************************/
+	/*
+	 * Opens a window showing a problem's maze and attaches to the problem so
+	 * that every search it runs gets drawn.
+	 * @param p - problem to draw
+	 */
+	public MazeworldRenderer(MazeworldProblem p) {
+		problem = p;
+		mazeWidth = p.getMaze().getWidth();
+		mazeHeight = p.getMaze().getHeight();
+		realMazeSize = mazeHeight > mazeWidth ?
+				new Dimension(MAZE_PIXELS / mazeHeight * mazeWidth, MAZE_PIXELS) :
+				new Dimension(MAZE_PIXELS, MAZE_PIXELS / mazeWidth * mazeHeight);
+		solutionLayer = null;
+
+		p.setObserver(this);
+
+		SwingUtilities.invokeLater(new Runnable(){
+			@Override
+			public void run() {
+				startMaze();
+			}
+		});
+	}
+
+/******************************* PUBLIC METHODS *******************************/
+//----------------------------- searchFinished() -----------------------------//
+	/*
+	 * Replaces the solution drawn for the previous search, if any, with this
+	 * one's.
+	 * @param p - problem that ran the search
+	 * @param solution - solution path found, or null if there is none
+	 */
+	@Override
+	public void searchFinished(UUSearchProblem p, List<UUSearchNode> solution) {
+		final MazeSolution mSolution;
+
+		if (solution == null) { return; }
+
+		// stats are read now, before the problem starts another search
+		mSolution = new MazeSolution(this.realMazeSize, solution);
+		mSolution.setOpaque(false);
+
+		SwingUtilities.invokeLater(new Runnable(){
+			@Override
+			public void run() {
+				if (solutionLayer != null) { mazePanel.remove(solutionLayer); }
+
+				solutionLayer = mSolution;
+				mazePanel.add(mSolution);
+				mazeFrame.pack();
+
+				mazePanel.revalidate();
+				mazePanel.repaint();
+			}
+		});
+	}
+
+/**************************** PRIVATE METHODS *********************************/
+//----------------------------- startMaze() ----------------------------------//
+	private void startMaze() {
+		Dimension realSize = new Dimension(this.realMazeSize.width + 2 *
+				BORDERS + STATS_WIDTH, this.realMazeSize.height + 2 * BORDERS);
+		LayoutManager overlay = null;
+
+		this.mazeFrame = new JFrame();
+		this.mazeFrame.setBackground(Color.WHITE);
+		this.mazeFrame.setTitle(this.mazeWidth + "x" + this.mazeHeight +
+				(this.problem.hasPacmanPhysics() ? " Pacman-Physics" : "") +
+				" Maze: " + this.problem.getTotalRobots() + " " +
+				(this.problem.isBlind() ? "blind" : "non-blind") + " robot" +
+				(this.problem.getTotalRobots() == 1 ? "" : "s"));
+
+		this.mazePanel = new JPanel();
+		this.mazePanel.setBackground(Color.WHITE);
+		this.mazeFrame.add(this.mazePanel, BorderLayout.CENTER);
+
+		this.mazeFrame.setPreferredSize(realSize);
+		this.mazeFrame.setBounds(0, 0, realSize.width, realSize.height);
+
+		this.mazeFrame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+		this.mazeFrame.setLocationRelativeTo(null);
+
+		this.mazePanel.setPreferredSize(this.realMazeSize);
+
+		overlay = new OverlayLayout(this.mazePanel);
+		this.mazePanel.setLayout(overlay);
+
+		this.mazePanel.add(new Maze(this.realMazeSize));
+
+		this.mazeFrame.pack();
+
+		this.mazeFrame.setVisible(true);
+		this.mazePanel.setVisible(true);
+	}
+}
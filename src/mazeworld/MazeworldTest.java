@@ -1,6 +1,14 @@
 package mazeworld;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
 import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 import datastructures.*;
 
@@ -59,6 +67,172 @@ public class MazeworldTest {
 		System.out.println(result + "\n");
 		result = "";
 		
+		System.out.println("Test 3: Check if after inserting handles 0 to 49\n"
+				+ "with reversed keys and decreasing the key of every odd\n"
+				+ "handle, the d-ary heap, Fibonacci heap and bucket\n"
+				+ "queue all extract handles in the same key order");
+		result = IndexedHeapTest() ? "PASSED" : "FAILED";
+		
+		System.out.println(result + "\n");
+		result = "";
+		
+		System.out.println("Test 4: Check if a batch of BFS and A* queries\n"
+				+ "solved on several threads finds paths of the same\n"
+				+ "length as solving each query on its own");
+		result = BatchSolverTest() ? "PASSED" : "FAILED";
+		
+		System.out.println(result + "\n");
+		result = "";
+		
+		System.out.println("Test 5: Check if breadth-first search expanding\n"
+				+ "levels on several threads finds the very same path\n"
+				+ "as the serial breadth-first search");
+		result = ParallelBreadthFirstSearchTest() ? "PASSED" : "FAILED";
+		
+		System.out.println(result + "\n");
+		result = "";
+		
+		System.out.println("Test 6: Check if a ring buffer queue growing while\n"
+				+ "wrapped around returns integers in the same order as\n"
+				+ "an ArrayDeque");
+		result = RingBufferQueueTest() ? "PASSED" : "FAILED";
+		
+		System.out.println(result + "\n");
+		result = "";
+		
+		System.out.println("Test 7: Check if searches on problems of growing\n"
+				+ "size that all share one search context find the same\n"
+				+ "paths as searches on problems of their own");
+		result = SearchContextTest() ? "PASSED" : "FAILED";
+		
+		System.out.println(result + "\n");
+		result = "";
+		
+		System.out.println("Test 8: Check if descending a cached distance\n"
+				+ "field finds paths as short as breadth-first search from\n"
+				+ "every start, and if the field is computed once per goal");
+		result = DistanceFieldTest() ? "PASSED" : "FAILED";
+		
+		System.out.println(result + "\n");
+		result = "";
+		
+		System.out.println("Test 9: Check if an LRU path cache evicts its least\n"
+				+ "recently used paths, answers repeated A* queries with\n"
+				+ "the same paths, and misses once the maze changes");
+		result = PathCacheTest() ? "PASSED" : "FAILED";
+		
+		System.out.println(result + "\n");
+		result = "";
+		
+		System.out.println("Test 10: Check if D* Lite repairing its plan while\n"
+				+ "walls open and close finds paths as short as a new\n"
+				+ "breadth-first search every time");
+		result = DStarLiteTest() ? "PASSED" : "FAILED";
+		
+		System.out.println(result + "\n");
+		result = "";
+		
+		System.out.println("Test 11: Check if multi-robot A* lets two robots\n"
+				+ "swap ends of a corridor through a side pocket at the\n"
+				+ "least total cost, and moves robots on random mazes to\n"
+				+ "their goals without collisions");
+		result = MultiRobotTest() ? "PASSED" : "FAILED";
+		
+		System.out.println(result + "\n");
+		result = "";
+		
+		System.out.println("Test 12: Check if operator decomposition and\n"
+				+ "independence detection find collision-free plans as\n"
+				+ "cheap as the naive joint search's");
+		result = IndependenceTest() ? "PASSED" : "FAILED";
+		
+		System.out.println(result + "\n");
+		result = "";
+		
+		System.out.println("Test 13: Check if conflict-based search finds plans\n"
+				+ "as cheap as the joint search's, swaps robots through\n"
+				+ "a side pocket, and gives up at its expansion limit");
+		result = ConflictBasedTest() ? "PASSED" : "FAILED";
+		
+		System.out.println(result + "\n");
+		result = "";
+		
+		System.out.println("Test 14: Check if a reservation table blocks reserved\n"
+				+ "cells, opposite moves and parked goals as its window\n"
+				+ "slides and grows, and if prioritized plans around it\n"
+				+ "are collision-free and never cheaper than optimal");
+		result = ReservationTest() ? "PASSED" : "FAILED";
+		
+		System.out.println(result + "\n");
+		result = "";
+		
+		System.out.println("Test 15: Check if a bitset belief state filters its\n"
+				+ "candidates like a cell-by-cell check after every move,\n"
+				+ "across word and column boundaries and maze updates,\n"
+				+ "and if a blind robot still localizes on an open maze");
+		result = BeliefTest() ? "PASSED" : "FAILED";
+		
+		System.out.println(result + "\n");
+		result = "";
+		
+		System.out.println("Test 16: Check if mazes written to a maze file open\n"
+				+ "with the same cells and goal, whatever their number of\n"
+				+ "cells, and if goals outside the maze and changes to the\n"
+				+ "read-only mapped grid are rejected");
+		result = MazeFileTest() ? "PASSED" : "FAILED";
+		
+		System.out.println(result + "\n");
+		result = "";
+		
+		System.out.println("Test 17: Check if the open moves a maze keeps up to\n"
+				+ "date as cells open and close match the ones read from\n"
+				+ "its cells, on every cell including the maze's edges");
+		result = OpenMovesTest() ? "PASSED" : "FAILED";
+		
+		System.out.println(result + "\n");
+		result = "";
+		
+		System.out.println("Test 18: Check if robot nodes on the same cell are\n"
+				+ "equal and hash equally whatever their depth, and if\n"
+				+ "nodes on different cells never share a hash");
+		result = NodeHashTest() ? "PASSED" : "FAILED";
+		
+		System.out.println(result + "\n");
+		result = "";
+		
+		System.out.println("Test 19: Check if bidirectional BFS and A*, the\n"
+				+ "latter on every frontier, find contiguous paths as\n"
+				+ "short as BFS, also for unreachable goals and the start\n"
+				+ "as goal");
+		result = BidirectionalTest() ? "PASSED" : "FAILED";
+		
+		System.out.println(result + "\n");
+		result = "";
+		
+		System.out.println("Test 20: Check if jump point search finds contiguous\n"
+				+ "paths as short as BFS on open and cluttered mazes wider\n"
+				+ "than a word, also for walled or unreachable goals and\n"
+				+ "the start as goal, and after the maze changes");
+		result = JumpPointTest() ? "PASSED" : "FAILED";
+		
+		System.out.println(result + "\n");
+		result = "";
+		
+		System.out.println("Test 21: Check if prioritized planning gets two\n"
+				+ "robots across a million-cell maze from opposite corners\n"
+				+ "without collisions");
+		result = LargeReservationTest() ? "PASSED" : "FAILED";
+		
+		System.out.println(result + "\n");
+		result = "";
+		
+		System.out.println("Test 22: Check if a LongIntHashMap that grew large\n"
+				+ "is emptied by replaying its keys, repeated or not");
+		result = HashMapClearTest() ? "PASSED" : "FAILED";
+		
+		System.out.println(result + "\n");
+		result = "";
+		
 		result = failedTests == 0 ?  "ALL TESTS PASSED" : failedTests 
 				+ " TESTS FAILED";
 		System.out.println(result);
@@ -117,4 +291,1108 @@ public class MazeworldTest {
 		
 		return true;
 	}
+	
+	private boolean IndexedHeapTest() {
+		IndexedPriorityQueue[] heaps = new IndexedPriorityQueue[]{
+				new IndexedDaryHeap(4, 8), new IndexedFibonacciHeap(8),
+				new BucketPriorityQueue(8, 8) };
+		
+		for (IndexedPriorityQueue heap : heaps) {
+			int handle = 0;
+			
+			for (int i = 0; i < 50; i++) {
+				heap.insert(i, 100 - i);
+			}
+			
+			// odd handles jump ahead of every even handle
+			for (int i = 1; i < 50; i += 2) {
+				heap.decreaseKey(i, i);
+			}
+			
+			for (int i = 0; i < 50; i++) {
+				handle = heap.poll();
+				
+				if (heap.contains(handle) || (i < 25 && handle != 2 * i + 1) ||
+						(i >= 25 && handle != 2 * (49 - i))) {
+					failedTests++;
+					return false;
+				}
+			}
+			
+			if (!heap.isEmpty() || heap.poll() != IndexedPriorityQueue.NO_HANDLE) {
+				failedTests++;
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	private boolean BatchSolverTest() {
+		MazeGrid maze = new MazeGrid(30, 30);
+		Random random = new Random(30);
+		MazeQuery[] queries = new MazeQuery[40];
+		BatchSolver solver = new BatchSolver(4);
+		QueryResult[] results = null;
+		List<UUSearchProblem.UUSearchNode> expected = null;
+		
+		for (int x = 0; x < 30; x++) {
+			for (int y = 0; y < 30; y++) {
+				maze.setFree(x, y, random.nextInt(4) != 0);
+			}
+		}
+		
+		for (int i = 0; i < queries.length; i++) {
+			int start = maze.nextFreeCell(random.nextInt(450)),
+					goal = maze.nextFreeCell(450 + random.nextInt(450));
+			
+			queries[i] = new MazeQuery(maze, start / 30, start % 30, goal / 30,
+					goal % 30, i % 2 == 0 ? MazeQuery.BREADTH_FIRST_SEARCH :
+						MazeQuery.A_STAR_SEARCH);
+		}
+		
+		results = solver.solve(queries);
+		solver.shutdown();
+		
+		for (int i = 0; i < queries.length; i++) {
+			expected = new MazeworldProblem(maze, queries[i].getStartX(),
+					queries[i].getStartY(), queries[i].getGoalX(),
+					queries[i].getGoalY()).breadthFirstSearch();
+			
+			if (results[i].getQuery() != queries[i] ||
+					results[i].isSolved() != (expected != null) ||
+					(expected != null && results[i].getSolution().size() !=
+							expected.size())) {
+				failedTests++;
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	private boolean ParallelBreadthFirstSearchTest() {
+		MazeGrid maze = new MazeGrid(400, 400);
+		Random random = new Random(400);
+		ForkJoinPool pool = new ForkJoinPool(4);
+		MazeworldProblem problem = null;
+		List<UUSearchProblem.UUSearchNode> expected = null, actual = null;
+		
+		for (int x = 0; x < 400; x++) {
+			for (int y = 0; y < 400; y++) {
+				maze.setFree(x, y, random.nextInt(5) != 0);
+			}
+		}
+		
+		maze.setFree(200, 200, true);
+		
+		// levels spreading out from the middle of the maze are wide enough
+		// to be split between threads
+		for (int i = 0; i < 10; i++) {
+			int goal = maze.nextFreeCell(random.nextInt(159000));
+			
+			problem = new MazeworldProblem(maze, 200, 200, goal / 400,
+					goal % 400);
+			expected = problem.breadthFirstSearch();
+			actual = problem.parallelBreadthFirstSearch(pool);
+			
+			if ((expected == null) != (actual == null) || (expected != null &&
+					!sameCells(expected, actual))) {
+				pool.shutdown();
+				failedTests++;
+				return false;
+			}
+		}
+		
+		pool.shutdown();
+		
+		return true;
+	}
+	
+	private boolean RingBufferQueueTest() {
+		IntRingBufferQueue queue = new IntRingBufferQueue(4);
+		ArrayDeque<Integer> expected = new ArrayDeque<Integer>();
+		Random random = new Random(6);
+		
+		// add a little more than is polled so the queue keeps growing with
+		// its head anywhere in the array
+		for (int i = 0; i < 10000; i++) {
+			if (random.nextInt(5) < 3) {
+				queue.add(i);
+				expected.add(i);
+			} else if (!expected.isEmpty() && (queue.isEmpty() ||
+					queue.poll() != expected.poll())) {
+				failedTests++;
+				return false;
+			}
+			
+			if (queue.size() != expected.size()) {
+				failedTests++;
+				return false;
+			}
+		}
+		
+		while (!expected.isEmpty()) {
+			if (queue.poll() != expected.poll()) {
+				failedTests++;
+				return false;
+			}
+		}
+		
+		if (!queue.isEmpty()) {
+			failedTests++;
+			return false;
+		}
+		
+		return true;
+	}
+	
+	private boolean SearchContextTest() {
+		SearchContext context = new SearchContext();
+		Random random = new Random(7);
+		MazeworldProblem shared = null, own = null;
+		
+		for (int side = 5; side <= 45; side += 10) {
+			MazeGrid maze = new MazeGrid(side, side);
+			
+			for (int x = 0; x < side; x++) {
+				for (int y = 0; y < side; y++) {
+					maze.setFree(x, y, random.nextInt(4) != 0);
+				}
+			}
+			
+			for (int i = 0; i < 10; i++) {
+				int start = maze.nextFreeCell(random.nextInt(side * side / 2)),
+						goal = maze.nextFreeCell(side * side / 2 +
+								random.nextInt(side * side / 2));
+				
+				if (start == MazeGrid.NO_CELL || goal == MazeGrid.NO_CELL) {
+					continue;
+				}
+				
+				shared = new MazeworldProblem(maze, start / side, start % side,
+						goal / side, goal % side);
+				own = new MazeworldProblem(maze, start / side, start % side,
+						goal / side, goal % side);
+				shared.setSearchContext(context);
+				shared.setFrontierType(i % 3);
+				own.setFrontierType(i % 3);
+				
+				if (!sameLength(shared.breadthFirstSearch(),
+						own.breadthFirstSearch()) ||
+						!sameLength(shared.aStarSearch(), own.aStarSearch()) ||
+						!sameLength(shared.bidirectionalBreadthFirstSearch(),
+								own.bidirectionalBreadthFirstSearch()) ||
+						!sameLength(shared.bidirectionalAStarSearch(),
+								own.bidirectionalAStarSearch())) {
+					failedTests++;
+					return false;
+				}
+			}
+		}
+		
+		return true;
+	}
+	
+	private boolean BidirectionalTest() {
+		Random random = new Random(19);
+		MazeGrid maze = null;
+		MazeworldProblem problem = null;
+		List<UUSearchProblem.UUSearchNode> expected = null, path = null;
+		int width = 0, height = 0, start = 0, goal = 0;
+		
+		for (int i = 0; i < 400; i++) {
+			width = 1 + random.nextInt(25);
+			height = 1 + random.nextInt(25);
+			maze = new MazeGrid(width, height);
+			
+			for (int x = 0; x < width; x++) {
+				for (int y = 0; y < height; y++) {
+					maze.setFree(x, y, random.nextInt(10) >= 3);
+				}
+			}
+			
+			start = random.nextInt(width * height);
+			goal = i % 10 == 0 ? start : random.nextInt(width * height);
+			maze.setFree(start / height, start % height, true);
+			
+			// the goal stays walled now and then, so it can't be reached
+			if (i % 7 != 0) {
+				maze.setFree(goal / height, goal % height, true);
+			}
+			
+			problem = new MazeworldProblem(maze, start / height,
+					start % height, goal / height, goal % height);
+			expected = problem.breadthFirstSearch();
+			path = problem.bidirectionalBreadthFirstSearch();
+			
+			if (!sameLength(expected, path) ||
+					!isPath(path, maze, start, goal)) {
+				failedTests++;
+				return false;
+			}
+			
+			for (int type = UUSearchProblem.FIBONACCI_HEAP_FRONTIER;
+					type <= UUSearchProblem.BUCKET_QUEUE_FRONTIER; type++) {
+				problem.setFrontierType(type);
+				path = problem.bidirectionalAStarSearch();
+				
+				if (!sameLength(expected, path) ||
+						!isPath(path, maze, start, goal)) {
+					failedTests++;
+					return false;
+				}
+			}
+		}
+		
+		return true;
+	}
+	
+	private boolean JumpPointTest() {
+		Random random = new Random(20);
+		int[] densities = new int[]{ 0, 5, 30 };
+		MazeGrid maze = null;
+		MazeworldProblem problem = null;
+		List<UUSearchProblem.UUSearchNode> expected = null, path = null;
+		int width = 0, height = 0, start = 0, goal = 0, cell = 0;
+		
+		for (int i = 0; i < 300; i++) {
+			width = 1 + random.nextInt(i % 2 == 0 ? 20 : 150);
+			height = 1 + random.nextInt(i % 2 == 0 ? 150 : 20);
+			maze = new MazeGrid(width, height);
+			
+			for (int x = 0; x < width; x++) {
+				for (int y = 0; y < height; y++) {
+					maze.setFree(x, y, random.nextInt(100) >=
+							densities[i % densities.length]);
+				}
+			}
+			
+			start = random.nextInt(width * height);
+			goal = i % 10 == 0 ? start : random.nextInt(width * height);
+			maze.setFree(start / height, start % height, true);
+			
+			// the goal stays walled now and then, so it can't be reached
+			if (i % 7 != 0) {
+				maze.setFree(goal / height, goal % height, true);
+			}
+			
+			problem = new MazeworldProblem(maze, start / height,
+					start % height, goal / height, goal % height);
+			
+			// the same problem is searched again after a cell changes, so
+			// that its jump point search reindexes the maze
+			for (int j = 0; j < 2; j++) {
+				expected = problem.breadthFirstSearch();
+				path = problem.jumpPointSearch();
+				
+				if (!sameLength(expected, path) ||
+						!isPath(path, maze, start, goal)) {
+					failedTests++;
+					return false;
+				}
+				
+				cell = random.nextInt(width * height);
+				
+				if (cell != start) {
+					problem.updateCell(cell / height, cell % height,
+							!maze.isFree(cell));
+				}
+			}
+		}
+		
+		return true;
+	}
+	
+	private boolean DistanceFieldTest() {
+		MazeGrid maze = new MazeGrid(30, 30);
+		Random random = new Random(8);
+		MazeworldProblem bfs = null, field = null;
+		List<UUSearchProblem.UUSearchNode> path = null;
+		int goal = 0;
+		
+		for (int x = 0; x < 30; x++) {
+			for (int y = 0; y < 30; y++) {
+				maze.setFree(x, y, random.nextInt(4) != 0);
+			}
+		}
+		
+		goal = maze.nextFreeCell(450);
+		
+		for (int start = maze.nextFreeCell(0); start != MazeGrid.NO_CELL;
+				start = maze.nextFreeCell(start + 1)) {
+			bfs = new MazeworldProblem(maze, start / 30, start % 30,
+					goal / 30, goal % 30);
+			field = new MazeworldProblem(maze, start / 30, start % 30,
+					goal / 30, goal % 30);
+			path = field.distanceFieldSearch();
+			
+			if (!sameLength(bfs.breadthFirstSearch(), path)) {
+				failedTests++;
+				return false;
+			}
+			
+			// every step must be a single move to an empty cell
+			for (int i = 1; path != null && i < path.size(); i++) {
+				int from = path.get(i - 1).getCell(),
+						to = path.get(i).getCell();
+				
+				if (!maze.isFree(to) || Math.abs(from / 30 - to / 30) +
+						Math.abs(from % 30 - to % 30) != 1) {
+					failedTests++;
+					return false;
+				}
+			}
+		}
+		
+		if (DistanceField.of(maze, goal) != DistanceField.of(maze, goal)) {
+			failedTests++;
+			return false;
+		}
+		
+		// walling the goal changes the maze version, so the field is redone
+		maze.setFree(goal / 30, goal % 30, false);
+		
+		if (DistanceField.of(maze, goal).getReachedCells() != 0) {
+			failedTests++;
+			return false;
+		}
+		
+		return true;
+	}
+	
+	private boolean PathCacheTest() {
+		LruCache<Object, int[]> cache = new LruCache<Object, int[]>(2);
+		MazeGrid maze = new MazeGrid(20, 20);
+		MazeworldProblem problem = null;
+		List<UUSearchProblem.UUSearchNode> searched = null;
+		
+		cache.put("a", new int[]{ 1 });
+		cache.put("b", new int[]{ 2 });
+		cache.get("a");
+		cache.put("c", new int[]{ 3 });
+		
+		// "b" was the least recently used entry when "c" came in
+		if (cache.get("b") != null || cache.get("a") == null ||
+				cache.get("c") == null || cache.getEvictions() != 1 ||
+				cache.getHits() != 3 || cache.getMisses() != 1) {
+			failedTests++;
+			return false;
+		}
+		
+		cache = new LruCache<Object, int[]>(4);
+		
+		for (int x = 0; x < 20; x++) {
+			for (int y = 0; y < 20; y++) {
+				maze.setFree(x, y, x % 4 != 1 || y == (x % 8 == 1 ? 19 : 0));
+			}
+		}
+		
+		for (int i = 0; i < 2; i++) {
+			problem = new MazeworldProblem(maze, 0, 0, 19, 19);
+			problem.setPathCache(cache);
+			
+			if (i == 0) {
+				searched = problem.aStarSearch();
+			} else if (!sameCells(searched, problem.aStarSearch()) ||
+					problem.getNodesExplored() != 0) {
+				failedTests++;
+				return false;
+			}
+		}
+		
+		// even walling a wall again changes the maze version
+		maze.setFree(1, 5, false);
+		problem = new MazeworldProblem(maze, 0, 0, 19, 19);
+		problem.setPathCache(cache);
+		
+		if (!sameCells(searched, problem.aStarSearch()) ||
+				cache.getHits() != 1 || cache.getMisses() != 2) {
+			failedTests++;
+			return false;
+		}
+		
+		return true;
+	}
+	
+	private boolean DStarLiteTest() {
+		MazeGrid maze = new MazeGrid(30, 30);
+		Random random = new Random(10);
+		MazeworldProblem replanned = null;
+		int cell = 0;
+		
+		for (int x = 0; x < 30; x++) {
+			for (int y = 0; y < 30; y++) {
+				maze.setFree(x, y, random.nextInt(4) != 0);
+			}
+		}
+		
+		maze.setFree(0, 0, true);
+		maze.setFree(29, 29, true);
+		replanned = new MazeworldProblem(maze, 0, 0, 29, 29);
+		
+		for (int i = 0; i < 100; i++) {
+			if (!sameLength(replanned.dStarLiteSearch(), new MazeworldProblem(
+					maze, 0, 0, 29, 29).breadthFirstSearch())) {
+				failedTests++;
+				return false;
+			}
+			
+			// a few cells change between plans, never the start or the goal
+			for (int j = 0; j < 5; j++) {
+				cell = 1 + random.nextInt(30 * 30 - 2);
+				replanned.updateCell(cell / 30, cell % 30,
+						random.nextBoolean());
+			}
+		}
+		
+		return true;
+	}
+	
+	private boolean MultiRobotTest() {
+		MazeGrid corridor = new MazeGrid(5, 2), maze = new MazeGrid(8, 8);
+		Random random = new Random(11);
+		FleetPlan plan = null;
+		int[] starts = new int[3], goals = new int[3];
+		int lowerBound = 0;
+		
+		// a single pocket at (2, 1) below the corridor
+		for (int x = 0; x < 5; x++) {
+			corridor.setFree(x, 0, true);
+			corridor.setFree(x, 1, x == 2);
+		}
+		
+		plan = new MazeworldProblem(corridor, new int[]{ 0, 8 },
+				new int[]{ 8, 0 }).multiRobotSearch();
+		
+		// one robot ducks into the pocket and the other waits a step for it
+		if (plan == null || !plan.isCollisionFree() || plan.getCost() != 11
+				|| plan.getMakespan() != 6) {
+			failedTests++;
+			return false;
+		}
+		
+		corridor.setFree(2, 1, false);
+		
+		if (new MazeworldProblem(corridor, new int[]{ 0, 8 },
+				new int[]{ 8, 0 }).multiRobotSearch() != null) {
+			failedTests++;
+			return false;
+		}
+		
+		for (int i = 0; i < 20; i++) {
+			for (int x = 0; x < 8; x++) {
+				for (int y = 0; y < 8; y++) {
+					maze.setFree(x, y, random.nextInt(5) != 0);
+				}
+			}
+			
+			// distinct free starts and goals
+			for (int r = 0; r < 3; r++) {
+				do { starts[r] = random.nextInt(64); }
+				while (!maze.isFree(starts[r]) || indexOf(starts, starts[r]) < r);
+				
+				do { goals[r] = random.nextInt(64); }
+				while (!maze.isFree(goals[r]) || indexOf(goals, goals[r]) < r);
+			}
+			
+			plan = new MazeworldProblem(maze, starts, goals).multiRobotSearch();
+			
+			if (plan == null) { continue; }
+			
+			lowerBound = 0;
+			
+			for (int r = 0; r < 3; r++) {
+				lowerBound += DistanceField.of(maze, goals[r]).getDistance(
+						starts[r]);
+				
+				if (plan.getCell(r, 0) != starts[r] ||
+						plan.getCell(r, plan.getMakespan()) != goals[r]) {
+					failedTests++;
+					return false;
+				}
+			}
+			
+			if (!plan.isCollisionFree() || plan.getCost() < lowerBound) {
+				failedTests++;
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	private boolean IndependenceTest() {
+		MazeGrid maze = new MazeGrid(6, 6);
+		Random random = new Random(12);
+		MultiRobotSearch decomposed = null;
+		FleetPlan joint = null, stepped = null, independent = null;
+		int[] starts = new int[3], goals = new int[3];
+		
+		for (int i = 0; i < 50; i++) {
+			for (int x = 0; x < 6; x++) {
+				for (int y = 0; y < 6; y++) {
+					maze.setFree(x, y, random.nextInt(4) != 0);
+				}
+			}
+			
+			for (int r = 0; r < 3; r++) {
+				do { starts[r] = random.nextInt(36); }
+				while (!maze.isFree(starts[r]) || indexOf(starts, starts[r]) < r);
+				
+				do { goals[r] = random.nextInt(36); }
+				while (!maze.isFree(goals[r]) || indexOf(goals, goals[r]) < r);
+			}
+			
+			joint = new MultiRobotSearch(maze, starts, goals).search();
+			decomposed = new MultiRobotSearch(maze, starts, goals);
+			decomposed.setOperatorDecomposition(true);
+			stepped = decomposed.search();
+			independent = new MazeworldProblem(maze, starts,
+					goals).independenceDetectionSearch();
+			
+			if (joint == null) {
+				if (stepped != null || independent != null) {
+					failedTests++;
+					return false;
+				}
+				
+				continue;
+			}
+			
+			if (stepped == null || independent == null ||
+					!stepped.isCollisionFree() ||
+					!independent.isCollisionFree() ||
+					stepped.getCost() != joint.getCost() ||
+					independent.getCost() != joint.getCost()) {
+				failedTests++;
+				return false;
+			}
+			
+			for (int r = 0; r < 3; r++) {
+				if (independent.getCell(r, 0) != starts[r] || independent
+						.getCell(r, independent.getMakespan()) != goals[r]) {
+					failedTests++;
+					return false;
+				}
+			}
+		}
+		
+		return true;
+	}
+	
+	private boolean ConflictBasedTest() {
+		MazeGrid corridor = new MazeGrid(5, 2), maze = new MazeGrid(6, 6);
+		Random random = new Random(13);
+		FleetPlan joint = null, split = null;
+		int[] starts = new int[3], goals = new int[3];
+		
+		for (int x = 0; x < 5; x++) {
+			corridor.setFree(x, 0, true);
+			corridor.setFree(x, 1, x == 2);
+		}
+		
+		split = new MazeworldProblem(corridor, new int[]{ 0, 8 },
+				new int[]{ 8, 0 }).conflictBasedSearch(100);
+		
+		if (split == null || !split.isCollisionFree() ||
+				split.getCost() != 11) {
+			failedTests++;
+			return false;
+		}
+		
+		// with the pocket walled there is no plan, which only the limit ends
+		corridor.setFree(2, 1, false);
+		
+		if (new MazeworldProblem(corridor, new int[]{ 0, 8 },
+				new int[]{ 8, 0 }).conflictBasedSearch(100) != null) {
+			failedTests++;
+			return false;
+		}
+		
+		for (int i = 0; i < 50; i++) {
+			for (int x = 0; x < 6; x++) {
+				for (int y = 0; y < 6; y++) {
+					maze.setFree(x, y, random.nextInt(4) != 0);
+				}
+			}
+			
+			for (int r = 0; r < 3; r++) {
+				do { starts[r] = random.nextInt(36); }
+				while (!maze.isFree(starts[r]) || indexOf(starts, starts[r]) < r);
+				
+				do { goals[r] = random.nextInt(36); }
+				while (!maze.isFree(goals[r]) || indexOf(goals, goals[r]) < r);
+			}
+			
+			joint = new MultiRobotSearch(maze, starts, goals).search();
+			
+			if (joint == null) { continue; }
+			
+			split = new MazeworldProblem(maze, starts,
+					goals).conflictBasedSearch(Integer.MAX_VALUE);
+			
+			if (split == null || !split.isCollisionFree() ||
+					split.getCost() != joint.getCost()) {
+				failedTests++;
+				return false;
+			}
+			
+			for (int r = 0; r < 3; r++) {
+				if (split.getCell(r, 0) != starts[r] ||
+						split.getCell(r, split.getMakespan()) != goals[r]) {
+					failedTests++;
+					return false;
+				}
+			}
+		}
+		
+		return true;
+	}
+	
+	private boolean ReservationTest() {
+		MazeGrid maze = new MazeGrid(6, 6);
+		ReservationTable table = new ReservationTable(maze, 4);
+		Random random = new Random(14);
+		FleetPlan joint = null, prioritized = null;
+		int[] starts = new int[3], goals = new int[3];
+		
+		// cells 0 -> 6 -> 12 at times 0 to 2, then 12 for good
+		table.reservePath(new int[]{ 0, 6, 12 });
+		
+		if (!table.isBlocked(6, 1) || table.isBlocked(6, 2) ||
+				!table.isBlockedMove(12, 6, 2) || table.isBlockedMove(6, 12, 2)
+				|| table.isBlocked(12, 1) || !table.isBlocked(12, 100) ||
+				table.getLastBlockedTime(12) != SpaceTimeConstraints.FOREVER ||
+				table.getLastBlockedTime(6) != 1 || table.getHorizon() != 2) {
+			failedTests++;
+			return false;
+		}
+		
+		// reserving past the window grows it, advancing shifts every time
+		table.reserve(30, 9);
+		table.advance(2);
+		
+		if (table.getWindow() < 10 || table.isBlocked(6, 1) ||
+				!table.isBlocked(30, 7) || !table.isBlocked(12, 0) ||
+				table.getHorizon() != 7) {
+			failedTests++;
+			return false;
+		}
+		
+		for (int i = 0; i < 50; i++) {
+			for (int x = 0; x < 6; x++) {
+				for (int y = 0; y < 6; y++) {
+					maze.setFree(x, y, random.nextInt(4) != 0);
+				}
+			}
+			
+			for (int r = 0; r < 3; r++) {
+				do { starts[r] = random.nextInt(36); }
+				while (!maze.isFree(starts[r]) || indexOf(starts, starts[r]) < r);
+				
+				do { goals[r] = random.nextInt(36); }
+				while (!maze.isFree(goals[r]) || indexOf(goals, goals[r]) < r);
+			}
+			
+			joint = new MultiRobotSearch(maze, starts, goals).search();
+			prioritized = new MazeworldProblem(maze, starts,
+					goals).prioritizedSearch();
+			
+			if (prioritized == null) { continue; }
+			
+			if (joint == null || !prioritized.isCollisionFree() ||
+					prioritized.getCost() < joint.getCost()) {
+				failedTests++;
+				return false;
+			}
+			
+			for (int r = 0; r < 3; r++) {
+				if (prioritized.getCell(r, 0) != starts[r] || prioritized
+						.getCell(r, prioritized.getMakespan()) != goals[r]) {
+					failedTests++;
+					return false;
+				}
+			}
+		}
+		
+		return true;
+	}
+	
+	private boolean BeliefTest() {
+		Random random = new Random(15);
+		MazeGrid maze = null;
+		BeliefState belief = null;
+		boolean[] expected = null;
+		int width = 0, height = 0, dx = 0, dy = 0, x = 0, y = 0, size = 0;
+		boolean free = false;
+		
+		for (int i = 0; i < 200; i++) {
+			width = 1 + random.nextInt(12);
+			height = 1 + random.nextInt(80);
+			maze = new MazeGrid(width, height);
+			expected = new boolean[width * height];
+			
+			for (int c = 0; c < expected.length; c++) {
+				expected[c] = random.nextInt(5) != 0;
+				maze.setFree(c / height, c % height, expected[c]);
+			}
+			
+			belief = new BeliefState(maze);
+			
+			for (int move = 0; move < 8; move++) {
+				dx = random.nextInt(7) - 3;
+				dy = random.nextInt(7) - 3;
+				
+				if (random.nextInt(4) == 0) {
+					maze.setFree(random.nextInt(width), random.nextInt(height),
+							random.nextBoolean());
+				}
+				
+				for (int c = 0; c < expected.length; c++) {
+					x = c / height + dx;
+					y = c % height + dy;
+					free = maze.isFree(x, y);
+					
+					switch (move % 3) {
+						case 0:
+							expected[c] &= -1 <= x && x <= width && -1 <= y &&
+									y <= height && !free;
+							break;
+						case 1:
+							expected[c] &= free;
+							break;
+						default:
+							expected[c] &= 0 <= x && x < width && 0 <= y &&
+									y < height && !free;
+					}
+				}
+				
+				switch (move % 3) {
+					case 0:
+						belief.keepBlocked(dx, dy);
+						break;
+					case 1:
+						belief.keepFree(dx, dy);
+						break;
+					default:
+						belief.keepWalled(dx, dy);
+				}
+				
+				size = 0;
+				
+				for (int c = 0; c < expected.length; c++) {
+					if (belief.contains(c) != expected[c] ||
+							(expected[c] && size == 0 && belief.first() != c)) {
+						failedTests++;
+						return false;
+					}
+					
+					if (expected[c]) { size++; }
+				}
+				
+				if (belief.size() != size || (size == 0 &&
+						belief.first() != MazeGrid.NO_CELL)) {
+					failedTests++;
+					return false;
+				}
+			}
+		}
+		
+		maze = new MazeGrid(20, 20);
+		
+		for (int c = 0; c < 400; c++) { maze.setFree(c / 20, c % 20, true); }
+		
+		if (new MazeworldProblem(1, maze, 19, 19, true, false)
+				.aStarSearch() == null) {
+			failedTests++;
+			return false;
+		}
+		
+		return true;
+	}
+	
+	private boolean MazeFileTest() {
+		Random random = new Random(16);
+		int[][] sizes = new int[][]{ { 1, 1 }, { 7, 9 }, { 8, 8 },
+				{ 13, 11 }, { 64, 3 } };
+		MazeGrid maze = null, opened = null;
+		MazeFile file = null;
+		Path path = null;
+		byte[] bytes = null;
+		int width = 0, height = 0;
+		long length = 0;
+		
+		try {
+			path = Files.createTempFile("maze", ".bin");
+			
+			for (int[] size : sizes) {
+				width = size[0];
+				height = size[1];
+				maze = new MazeGrid(width, height);
+				
+				for (int x = 0; x < width; x++) {
+					for (int y = 0; y < height; y++) {
+						maze.setFree(x, y, random.nextBoolean());
+					}
+				}
+				
+				MazeFile.write(path, maze, width - 1, height / 2);
+				file = MazeFile.open(path);
+				opened = file.getMaze();
+				
+				if (opened.getWidth() != width || opened.getHeight() != height
+						|| file.getGoalX() != width - 1 ||
+						file.getGoalY() != height / 2 || !opened.isReadOnly()) {
+					failedTests++;
+					return false;
+				}
+				
+				for (int cell = 0; cell < width * height; cell++) {
+					if (opened.isFree(cell) != maze.isFree(cell) ||
+							opened.getOpenMoves(cell) !=
+							maze.getOpenMoves(cell)) {
+						failedTests++;
+						return false;
+					}
+				}
+			}
+			
+			try {
+				new MazeworldProblem(opened, 0, 0, width - 1, height / 2)
+						.updateCell(0, 0, true);
+				failedTests++;
+				return false;
+			} catch (IllegalStateException e) {
+				// mapped grids are read-only
+			}
+			
+			length = Files.size(path);
+			
+			try {
+				MazeFile.write(path, maze, width, 0);
+				failedTests++;
+				return false;
+			} catch (IOException e) {
+				// the goal is one column past the maze
+			}
+			
+			// the goal's x-coordinate is the little-endian int at byte 16
+			bytes = Files.readAllBytes(path);
+			bytes[16] = (byte) width;
+			Files.write(path, bytes);
+			
+			try {
+				MazeFile.open(path);
+				failedTests++;
+				return false;
+			} catch (IOException e) {
+				// the goal is one column past the maze
+			}
+			
+			if (bytes.length != length) {
+				failedTests++;
+				return false;
+			}
+		} catch (IOException e) {
+			failedTests++;
+			return false;
+		} finally {
+			try {
+				if (path != null) { Files.deleteIfExists(path); }
+			} catch (IOException e) {
+				// left for the system to clean up
+			}
+		}
+		
+		return true;
+	}
+	
+	private boolean OpenMovesTest() {
+		Random random = new Random(17);
+		MazeGrid maze = null;
+		int width = 0, height = 0, x = 0, y = 0, expected = 0;
+		
+		for (int i = 0; i < 100; i++) {
+			width = 1 + random.nextInt(10);
+			height = 1 + random.nextInt(10);
+			maze = new MazeGrid(width, height);
+			
+			for (int change = 0; change < 4 * width * height; change++) {
+				maze.setFree(random.nextInt(width), random.nextInt(height),
+						random.nextInt(3) != 0);
+				
+				if (change % width != 0) { continue; }
+				
+				for (int cell = 0; cell < width * height; cell++) {
+					x = cell / height;
+					y = cell % height;
+					expected = 0;
+					
+					if (x + 1 < width && maze.isFree(x + 1, y)) {
+						expected |= UUSearchProblem.OPEN_EAST;
+					}
+					if (x > 0 && maze.isFree(x - 1, y)) {
+						expected |= UUSearchProblem.OPEN_WEST;
+					}
+					if (y + 1 < height && maze.isFree(x, y + 1)) {
+						expected |= UUSearchProblem.OPEN_NORTH;
+					}
+					if (y > 0 && maze.isFree(x, y - 1)) {
+						expected |= UUSearchProblem.OPEN_SOUTH;
+					}
+					
+					if (maze.getOpenMoves(cell) != expected) {
+						failedTests++;
+						return false;
+					}
+				}
+			}
+		}
+		
+		return true;
+	}
+	
+	private boolean NodeHashTest() {
+		Random random = new Random(18);
+		MazeworldProblem problem = new MazeworldProblem(new MazeGrid(37, 64),
+				0, 0, 36, 63);
+		HashSet<Integer> hashes = new HashSet<Integer>();
+		UUSearchProblem.UUSearchNode node = null, other = null;
+		
+		for (int cell = 0; cell < 37 * 64; cell++) {
+			node = problem.decodeCell(cell, random.nextInt(1000));
+			other = problem.decodeCell(cell, random.nextInt(1000));
+			
+			if (!node.equals(other) || node.hashCode() != other.hashCode() ||
+					!hashes.add(node.hashCode()) || node.equals(
+							problem.decodeCell((cell + 1) % (37 * 64), 0))) {
+				failedTests++;
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	private boolean LargeReservationTest() {
+		MazeGrid maze = new MazeGrid(1000, 1000);
+		int last = maze.getCellCount() - 1;
+		FleetPlan plan = null;
+		
+		for (int x = 0; x < 1000; x++) {
+			for (int y = 0; y < 1000; y++) { maze.setFree(x, y, true); }
+		}
+		
+		// thousands of steps of reservations on a whole-maze bitset each
+		// wouldn't fit in a small heap
+		plan = new MazeworldProblem(maze, new int[]{ 0, last },
+				new int[]{ last, 0 }).prioritizedSearch();
+		
+		if (plan == null || !plan.isCollisionFree() ||
+				plan.getCell(0, 0) != 0 || plan.getCell(1, 0) != last ||
+				plan.getCell(0, plan.getMakespan()) != last ||
+				plan.getCell(1, plan.getMakespan()) != 0 ||
+				plan.getMakespan() < 1998) {
+			failedTests++;
+			return false;
+		}
+		
+		return true;
+	}
+	
+	private boolean HashMapClearTest() {
+		LongIntHashMap map = new LongIntHashMap();
+		Random random = new Random(22);
+		HashSet<Long> cleared = new HashSet<Long>();
+		long[] keys = new long[100000];
+		int count = 0;
+		
+		for (int round = 0; round < 200; round++) {
+			count = round == 0 ? keys.length : 1 + random.nextInt(500);
+			
+			// every other round repeats keys, which are replayed twice
+			for (int i = 0; i < count; i++) {
+				keys[i] = round % 2 == 0 ? random.nextLong() :
+					random.nextInt(2 * count);
+				map.put(keys[i], i);
+				cleared.add(keys[i]);
+			}
+			
+			map.clear(keys, count);
+			
+			if (!map.isEmpty()) {
+				failedTests++;
+				return false;
+			}
+		}
+		
+		// growing puts back whatever a slot still holds
+		for (long key = 1L << 40; map.size() <= keys.length * 2; key++) {
+			map.put(key, 0);
+		}
+		
+		for (long key : cleared) {
+			if (map.containsKey(key)) {
+				failedTests++;
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	private int indexOf(int[] cells, int cell) {
+		for (int i = 0; i < cells.length; i++) {
+			if (cells[i] == cell) { return i; }
+		}
+		
+		return -1;
+	}
+	
+	/*
+	 * @return true if a path is null, or goes from start to goal over free
+	 * 		   cells one move at a time
+	 */
+	private boolean isPath(List<UUSearchProblem.UUSearchNode> path,
+			MazeGrid maze, int start, int goal) {
+		int height = maze.getHeight(), cell = 0, previous = 0;
+		
+		if (path == null) { return true; }
+		
+		if (path.get(0).getCell() != start ||
+				path.get(path.size() - 1).getCell() != goal) {
+			return false;
+		}
+		
+		for (int i = 0; i < path.size(); i++) {
+			cell = path.get(i).getCell();
+			
+			if (!maze.isFree(cell) || (i > 0 && Math.abs(cell - previous) !=
+					height && !(Math.abs(cell - previous) == 1 &&
+							cell / height == previous / height))) {
+				return false;
+			}
+			
+			previous = cell;
+		}
+		
+		return true;
+	}
+	
+	private boolean sameLength(List<UUSearchProblem.UUSearchNode> x,
+			List<UUSearchProblem.UUSearchNode> y) {
+		return x == null ? y == null : y != null && x.size() == y.size();
+	}
+	
+	private boolean sameCells(List<UUSearchProblem.UUSearchNode> x,
+			List<UUSearchProblem.UUSearchNode> y) {
+		if (x.size() != y.size()) { return false; }
+		
+		for (int i = 0; i < x.size(); i++) {
+			if (x.get(i).getCell() != y.get(i).getCell()) { return false; }
+		}
+		
+		return true;
+	}
 }
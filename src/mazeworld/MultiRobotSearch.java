@@ -0,0 +1,447 @@
+package mazeworld;
+
+import java.util.Arrays;
+
+import datastructures.IndexedDaryHeap;
+import datastructures.LongIntHashMap;
+
+/**
+ * A* over the joint state of several robots sharing a MazeGrid, moving as
+ * described by FleetPlan. A joint state packs every robot's cell into a
+ * single long, robot i in bits [i * cellBits, (i + 1) * cellBits), with
+ * cellBits just enough for any cell id of the maze, and the index of the next
+ * robot to move within the current step above them. Nodes live in flat
+ * arrays indexed by id, so a node costs a few array slots and no objects.
+ *
+ * By default, successors are every combination of one move or a wait per
+ * robot that causes no collision, i.e. up to 5^k of them for k robots. With
+ * operator decomposition (Standley, 2010) on, robots take their turns one
+ * ply at a time instead, so a node has at most 5 successors: the ones where
+ * only some robots have moved are intermediate nodes, with a turn index
+ * other than 0, that remember the cells the moved robots left so that swaps
+ * can still be caught. A* with a good heuristic then never generates most of
+ * the combinations the naive expansion would. Only standard states, those
+ * with turn index 0, are deduplicated, in a LongIntHashMap from packed state
+ * to node id; an intermediate node can only be reached from one standard
+ * node anyway.
+ *
+ * Every step costs one per robot, except for robots waiting on their goal,
+ * which adds up to FleetPlan.getCost(). The heuristic adds up every robot's
+ * exact distance to its goal ignoring the others, read from cached
+ * DistanceFields, which never overestimates and is at least the sum of
+ * Manhattan distances.
+ *
+ * @author Mauricio Esquivel Rogel
+ * @date Fall Term 2016
+ */
+public class MultiRobotSearch {
+/******************************** CONSTANTS ***********************************/
+	// PRIVATE
+	private static final int HEAP_ARITY = 4;
+	private static final int INITIAL_NODES = 1024;
+
+/*************************** INSTANCE VARIABLES *******************************/
+	// PUBLIC
+		//
+
+	// PRIVATE
+	private MazeGrid maze;
+	private int robots, cellBits, turnShift, nodesExplored, maxMemory,
+			numberOfNodes;
+	private long cellMask;
+	private boolean decomposed;
+	private int[] starts, goals, from, to, offsets;
+	private DistanceField[] fields;
+
+	// node id -> packed state, cells left during the step so far (
+	// intermediate nodes only), parent id and cost from the start
+	private long[] states, origins;
+	private int[] parents, costs;
+	private LongIntHashMap ids;
+	private IndexedDaryHeap frontier;
+
+/****************************** CONSTRUCTOR ***********************************/
+	/*
+	 * @param m - maze the robots share
+	 * @param s - start cell of every robot
+	 * @param g - goal cell of every robot
+	 * @throws IllegalArgumentException if the joint state of that many robots
+	 * 		   doesn't fit in a long on this maze (see fits())
+	 */
+	public MultiRobotSearch(MazeGrid m, int[] s, int[] g) {
+		if (!fits(s.length, m.getCellCount())) {
+			throw new IllegalArgumentException(s.length + " robots don't " +
+					"fit in a packed state on " + m.getCellCount() + " cells");
+		}
+
+		maze = m;
+		robots = s.length;
+		cellBits = bitsFor(m.getCellCount());
+		cellMask = (1L << cellBits) - 1;
+		turnShift = robots * cellBits;
+		decomposed = false;
+		starts = s.clone();
+		goals = g.clone();
+		from = new int[robots];
+		to = new int[robots];
+		offsets = new int[]{ m.getHeight(), -m.getHeight(), 1, -1 };
+		fields = new DistanceField[robots];
+	}
+
+/******************************* PUBLIC METHODS *******************************/
+//--------------------------------- search() ---------------------------------//
+	/*
+	 * @return collision-free plan of least total cost, or null if there is
+	 * 		   none
+	 */
+	public FleetPlan search() {
+		long goalState = 0, state = 0;
+		int node = 0;
+
+		this.nodesExplored = 0;
+		this.maxMemory = 0;
+
+		if (!isValidInstance(this.maze, this.starts, this.goals)) {
+			return null;
+		}
+
+		for (int i = 0; i < this.robots; i++) {
+			this.fields[i] = DistanceField.of(this.maze, this.goals[i]);
+
+			if (this.fields[i].getDistance(this.starts[i]) ==
+					DistanceField.UNREACHABLE) {
+				return null;
+			}
+		}
+
+		this.states = new long[INITIAL_NODES];
+		this.origins = new long[INITIAL_NODES];
+		this.parents = new int[INITIAL_NODES];
+		this.costs = new int[INITIAL_NODES];
+		this.numberOfNodes = 0;
+		this.ids = new LongIntHashMap(INITIAL_NODES);
+		this.frontier = new IndexedDaryHeap(HEAP_ARITY, INITIAL_NODES);
+		goalState = pack(this.goals);
+
+		addNode(pack(this.starts), 0, LongIntHashMap.NO_VALUE, 0);
+
+		while ((node = this.frontier.poll()) != IndexedDaryHeap.NO_HANDLE) {
+			state = this.states[node];
+
+			if (state == goalState) { return backchain(node); }
+
+			this.nodesExplored++;
+
+			if (this.decomposed) {
+				expandTurn(node);
+			} else {
+				unpack(state, this.from);
+				expand(node, 0, 0);
+			}
+
+			this.maxMemory = Math.max(this.maxMemory, this.numberOfNodes);
+		}
+
+		return null;
+	}
+
+//------------------------- setOperatorDecomposition() -----------------------//
+	/*
+	 * @param on - true to move one robot per ply from the next search on,
+	 * 			   false to move them all at once; off by default
+	 */
+	public void setOperatorDecomposition(boolean on) {
+		this.decomposed = on;
+	}
+
+//---------------------------- getNodesExplored() ----------------------------//
+	/*
+	 * @return joint states expanded during the last search
+	 */
+	public int getNodesExplored() {
+		return this.nodesExplored;
+	}
+
+//------------------------------ getMaxMemory() ------------------------------//
+	/*
+	 * @return joint states stored during the last search
+	 */
+	public int getMaxMemory() {
+		return this.maxMemory;
+	}
+
+//---------------------------------- fits() ----------------------------------//
+	/*
+	 * @param robots - number of robots
+	 * @param cells - number of cells of the maze
+	 * @return true if a joint state of that many robots, turn index included,
+	 * 		   fits in the 63 non-negative bits of a long
+	 */
+	public static boolean fits(int robots, int cells) {
+		return robots > 0 && (long) robots * bitsFor(cells) +
+				bitsFor(robots) <= Long.SIZE - 1;
+	}
+
+/**************************** PROTECTED METHODS *******************************/
+//---------------------------- isValidInstance() -----------------------------//
+	/*
+	 * @param m - maze the robots share
+	 * @param s - start cell of every robot
+	 * @param g - goal cell of every robot
+	 * @return false if a start or goal is walled, or two robots share one,
+	 * 		   in which case no plan exists
+	 */
+	protected static boolean isValidInstance(MazeGrid m, int[] s, int[] g) {
+		for (int i = 0; i < s.length; i++) {
+			if (!m.isFree(s[i]) || !m.isFree(g[i])) { return false; }
+
+			for (int j = 0; j < i; j++) {
+				if (s[i] == s[j] || g[i] == g[j]) { return false; }
+			}
+		}
+
+		return true;
+	}
+
+/**************************** PRIVATE METHODS *********************************/
+//--------------------------------- expand() ---------------------------------//
+	/*
+	 * Picks the move of one robot after another, dropping any that collides
+	 * with the moves already picked, and adds every full combination as a
+	 * successor.
+	 * @param node - node being expanded, whose robots are in from
+	 * @param robot - robot whose move is picked next
+	 * @param stepCost - cost of the moves picked so far
+	 */
+	private void expand(int node, int robot, int stepCost) {
+		int cell = 0, next = 0;
+
+		if (robot == this.robots) {
+			relax(pack(this.to), node, this.costs[node] + stepCost);
+			return;
+		}
+
+		cell = this.from[robot];
+
+		// waiting first, free on the goal, then every open move
+		if (isFreeFor(robot, cell)) {
+			this.to[robot] = cell;
+			expand(node, robot + 1, stepCost +
+					(cell == this.goals[robot] ? 0 : 1));
+		}
+
+		for (int moves = this.maze.getOpenMoves(cell); moves != 0;
+				moves &= moves - 1) {
+			next = cell + this.offsets[Integer.numberOfTrailingZeros(moves)];
+
+			if (isFreeFor(robot, next)) {
+				this.to[robot] = next;
+				expand(node, robot + 1, stepCost + 1);
+			}
+		}
+	}
+
+//------------------------------- expandTurn() -------------------------------//
+	/*
+	 * Operator decomposition: moves the robot whose turn it is, leaving the
+	 * others where they are, and adds a standard successor once the last
+	 * robot has moved or an intermediate one otherwise.
+	 * @param node - node being expanded
+	 */
+	private void expandTurn(int node) {
+		long state = this.states[node];
+		int turn = (int) (state >>> this.turnShift), cell = 0, next = 0;
+
+		unpack(state, this.to);
+
+		if (turn == 0) {
+			System.arraycopy(this.to, 0, this.from, 0, this.robots);
+		} else {
+			unpack(this.origins[node], this.from);
+
+			// robots yet to move haven't left anything
+			for (int i = turn; i < this.robots; i++) {
+				this.from[i] = this.to[i];
+			}
+		}
+
+		cell = this.from[turn];
+
+		if (isFreeFor(turn, cell)) {
+			step(node, turn, cell, cell == this.goals[turn] ? 0 : 1);
+		}
+
+		for (int moves = this.maze.getOpenMoves(cell); moves != 0;
+				moves &= moves - 1) {
+			next = cell + this.offsets[Integer.numberOfTrailingZeros(moves)];
+
+			if (isFreeFor(turn, next)) { step(node, turn, next, 1); }
+		}
+	}
+
+//---------------------------------- step() ----------------------------------//
+	/*
+	 * Adds the successor where a robot has taken its turn.
+	 * @param node - node being expanded, with the robots' cells in to and
+	 * 				 the cells they left in from
+	 * @param turn - robot moving
+	 * @param next - cell it moves to
+	 * @param stepCost - cost of the move
+	 */
+	private void step(int node, int turn, int next, int stepCost) {
+		int cost = this.costs[node] + stepCost;
+
+		this.to[turn] = next;
+
+		if (turn + 1 == this.robots) {
+			relax(pack(this.to), node, cost);
+		} else {
+			addNode(pack(this.to) | ((long) (turn + 1) << this.turnShift),
+					pack(this.from), node, cost);
+		}
+
+		this.to[turn] = this.from[turn];
+	}
+
+//-------------------------------- isFreeFor() -------------------------------//
+	/*
+	 * @return true if a robot can end the step in a cell given the moves
+	 * 		   picked for the robots before it, i.e. nobody ends there and
+	 * 		   nobody comes the other way
+	 */
+	private boolean isFreeFor(int robot, int cell) {
+		for (int other = 0; other < robot; other++) {
+			if (this.to[other] == cell || (this.to[other] == this.from[robot] &&
+					this.from[other] == cell)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+//--------------------------------- relax() ----------------------------------//
+	/*
+	 * Adds a successor, or moves it to a cheaper path if it is still on the
+	 * frontier. The heuristic is consistent, so expanded nodes never get
+	 * cheaper.
+	 */
+	private void relax(long state, int parent, int cost) {
+		int node = this.ids.get(state);
+
+		if (node == LongIntHashMap.NO_VALUE) {
+			addNode(state, 0, parent, cost);
+		} else if (cost < this.costs[node] && this.frontier.contains(node)) {
+			this.parents[node] = parent;
+			this.costs[node] = cost;
+			this.frontier.decreaseKey(node, cost + estimate(state));
+		}
+	}
+
+//-------------------------------- addNode() ---------------------------------//
+	/*
+	 * @param origin - cells the robots that already moved left, packed like
+	 * 				   a state; ignored for standard states
+	 */
+	private void addNode(long state, long origin, int parent, int cost) {
+		int node = this.numberOfNodes++;
+
+		if (node == this.states.length) {
+			this.states = Arrays.copyOf(this.states, node * 2);
+			this.origins = Arrays.copyOf(this.origins, node * 2);
+			this.parents = Arrays.copyOf(this.parents, node * 2);
+			this.costs = Arrays.copyOf(this.costs, node * 2);
+		}
+
+		this.states[node] = state;
+		this.origins[node] = origin;
+		this.parents[node] = parent;
+		this.costs[node] = cost;
+
+		if (state >>> this.turnShift == 0) { this.ids.put(state, node); }
+
+		this.frontier.insert(node, cost + estimate(state));
+	}
+
+//-------------------------------- estimate() --------------------------------//
+	/*
+	 * @return sum of every robot's distance to its goal
+	 */
+	private int estimate(long state) {
+		int total = 0;
+
+		for (int i = 0; i < this.robots; i++, state >>>= this.cellBits) {
+			total += this.fields[i].getDistance((int) (state & this.cellMask));
+		}
+
+		return total;
+	}
+
+//------------------------------- backchain() --------------------------------//
+	/*
+	 * Rebuilds every robot's path from the standard joint states, one per
+	 * time step, cutting each one where the robot reaches its goal for good.
+	 */
+	private FleetPlan backchain(int node) {
+		int steps = 0, end = 0, time = 0;
+		int[][] paths = new int[this.robots][];
+
+		for (int n = this.parents[node]; n != LongIntHashMap.NO_VALUE;
+				n = this.parents[n]) {
+			if (this.states[n] >>> this.turnShift == 0) { steps++; }
+		}
+
+		int[][] cells = new int[steps + 1][this.robots];
+
+		time = steps;
+
+		for (int n = node; n != LongIntHashMap.NO_VALUE; n = this.parents[n]) {
+			if (this.states[n] >>> this.turnShift == 0) {
+				unpack(this.states[n], cells[time--]);
+			}
+		}
+
+		for (int i = 0; i < this.robots; i++) {
+			end = steps;
+
+			// drop the steps the robot spent resting on its goal at the end
+			while (end > 0 && cells[end - 1][i] == this.goals[i]) { end--; }
+
+			paths[i] = new int[end + 1];
+
+			for (int t = 0; t <= end; t++) { paths[i][t] = cells[t][i]; }
+		}
+
+		return new FleetPlan(paths);
+	}
+
+//---------------------------------- pack() ----------------------------------//
+	/*
+	 * @return joint state of robots in the given cells, turn index 0
+	 */
+	private long pack(int[] cells) {
+		long state = 0;
+
+		for (int i = this.robots - 1; i >= 0; i--) {
+			state = (state << this.cellBits) | cells[i];
+		}
+
+		return state;
+	}
+
+//--------------------------------- unpack() ---------------------------------//
+	private void unpack(long state, int[] cells) {
+		for (int i = 0; i < this.robots; i++, state >>>= this.cellBits) {
+			cells[i] = (int) (state & this.cellMask);
+		}
+	}
+
+//-------------------------------- bitsFor() ---------------------------------//
+	/*
+	 * @return bits needed to write any value in [0, values)
+	 */
+	private static int bitsFor(int values) {
+		return Math.max(1, Integer.SIZE - Integer.numberOfLeadingZeros(
+				values - 1));
+	}
+}
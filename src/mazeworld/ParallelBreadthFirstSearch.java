@@ -0,0 +1,348 @@
+package mazeworld;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import mazeworld.UUSearchProblem.UUSearchNode;
+
+/**
+ * Level-synchronous breadth-first search over packed cell ids. Each level of
+ * the search is a flat int array cut into chunks of CHUNK_SIZE cells, and
+ * the chunks are expanded in parallel on a ForkJoinPool in two passes:
+ *
+ *   - claim: every unvisited successor is claimed by the earliest frontier
+ *     cell (by position in the level) that reaches it, with a compare-and-set
+ *     loop on a shared parent array, and appended to its chunk's slice of
+ *     the next level
+ *   - collect: every chunk drops the cells an earlier chunk took over and
+ *     records the parents of the rest, and the slices are then joined in
+ *     chunk order
+ *
+ * Earliest-position-wins and in-order joining are exactly what a serial
+ * FIFO queue does, so every level comes out in the same order and every cell
+ * gets the same parent as in UUSearchProblem.breadthFirstSearch(): the path
+ * found is identical, not just as short, whatever the number of threads.
+ * Levels of fewer than PARALLEL_CHUNKS chunks run on the calling thread.
+ *
+ * @author Mauricio Esquivel Rogel
+ * @date Fall Term 2016
+ */
+public class ParallelBreadthFirstSearch {
+/******************************** CONSTANTS ***********************************/
+	// PRIVATE
+	private static final int UNVISITED = -1;
+	private static final int CHUNK_SIZE = 256;
+	private static final int PARALLEL_CHUNKS = 16;
+	private static final int INITIAL_CAPACITY = 1024;
+
+/*************************** INSTANCE VARIABLES *******************************/
+	// PUBLIC
+		//
+
+	// PRIVATE
+	private UUSearchProblem problem;
+	private UUSearchNode controller;
+	private ForkJoinPool pool;
+	private int nodesExplored, maxMemory, levelSize;
+	private int[] level, nextLevel, discovered, chunkCounts;
+
+	// parent cell of every visited cell, the start cell being its own
+	// parent; while a level is expanded, a cell claimed by the frontier cell
+	// at position i holds claimOf(i) instead
+	private AtomicIntegerArray parents;
+
+	// MAX_SUCCESSORS cells per thread that claims chunks
+	private ThreadLocal<int[]> successorBuffers;
+
+/***************************** INNER CLASSES **********************************/
+	/**
+	 * Runs one pass, claim or collect, over chunks [from, to) of the current
+	 * level, splitting the range in halves down to single chunks
+	 *
+	 * @author Mauricio Esquivel Rogel
+	 * @date Fall Term 2016
+	 */
+	private class ExpandTask extends RecursiveAction {
+	//----------------------------- CONSTANTS --------------------------------//
+		// PRIVATE
+		private static final long serialVersionUID = 1L;
+
+	//----------------------INSTANCE VARIABLES--------------------------------//
+		// PRIVATE
+		private int from, to;
+		private boolean claiming;
+
+	//--------------------------- CONSTRUCTOR --------------------------------//
+		private ExpandTask(int f, int t, boolean c) {
+			from = f;
+			to = t;
+			claiming = c;
+		}
+
+	//----------------------------- OVERRIDES --------------------------------//
+	//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ compute() ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~//
+		@Override
+		protected void compute() {
+			int middle = 0;
+
+			if (this.to - this.from == 1) {
+				if (this.claiming) {
+					claimChunk(this.from);
+				} else {
+					collectChunk(this.from);
+				}
+
+				return;
+			}
+
+			middle = (this.from + this.to) >>> 1;
+			invokeAll(new ExpandTask(this.from, middle, this.claiming),
+					new ExpandTask(middle, this.to, this.claiming));
+		}
+	}
+
+/****************************** CONSTRUCTOR ***********************************/
+	/*
+	 * @param p - cell-encodable problem to search, whose getSuccessorCells()
+	 * 			  and isGoalCell() may be called from several threads at once
+	 * @param c - any node of p, used to generate successor cells
+	 * @param fjp - pool the levels are expanded on
+	 */
+	public ParallelBreadthFirstSearch(UUSearchProblem p, UUSearchNode c,
+			ForkJoinPool fjp) {
+		problem = p;
+		controller = c;
+		pool = fjp;
+		successorBuffers = new ThreadLocal<int[]>() {
+			@Override
+			protected int[] initialValue() {
+				return new int[UUSearchProblem.MAX_SUCCESSORS];
+			}
+		};
+	}
+
+/******************************* PUBLIC METHODS *******************************/
+//--------------------------------- search() ---------------------------------//
+	/*
+	 * @param startCell - packed cell id of the start
+	 * @return every cell of the path from the start to the nearest goal cell,
+	 * 		   both included, or null if no goal cell can be reached
+	 */
+	public int[] search(int startCell) {
+		int goalCell = UNVISITED, visited = 1,
+				cellCount = this.problem.getCellCount();
+
+		// handing the levels to the pool publishes these writes
+		this.parents = new AtomicIntegerArray(cellCount);
+
+		for (int cell = 0; cell < cellCount; cell++) {
+			this.parents.lazySet(cell, UNVISITED);
+		}
+
+		this.level = new int[INITIAL_CAPACITY];
+		this.nextLevel = new int[INITIAL_CAPACITY];
+		this.discovered = new int[INITIAL_CAPACITY *
+		                          UUSearchProblem.MAX_SUCCESSORS];
+		this.chunkCounts = new int[INITIAL_CAPACITY / CHUNK_SIZE];
+
+		this.parents.set(startCell, startCell);
+		this.level[0] = startCell;
+		this.levelSize = 1;
+		this.nodesExplored = 1;
+		this.maxMemory = 2;
+
+		if (this.problem.isGoalCell(startCell)) {
+			return new int[]{ startCell };
+		}
+
+		while (this.levelSize > 0 && goalCell == UNVISITED) {
+			goalCell = expandLevel();
+			visited += this.levelSize;
+			this.nodesExplored += this.levelSize;
+			this.maxMemory = Math.max(this.maxMemory, visited + this.levelSize);
+		}
+
+		return goalCell == UNVISITED ? null : backchain(goalCell);
+	}
+
+//---------------------------- getNodesExplored() ----------------------------//
+	/*
+	 * @return cells visited during the last search; the whole level the goal
+	 * 		   is found on is counted
+	 */
+	public int getNodesExplored() {
+		return this.nodesExplored;
+	}
+
+//------------------------------ getMaxMemory() ------------------------------//
+	/*
+	 * @return largest visited plus frontier cell count during the last search
+	 */
+	public int getMaxMemory() {
+		return this.maxMemory;
+	}
+
+/**************************** PRIVATE METHODS *********************************/
+//------------------------------ expandLevel() -------------------------------//
+	/*
+	 * Replaces the current level with the next one.
+	 * @return first goal cell of the next level, or UNVISITED if it has none
+	 */
+	private int expandLevel() {
+		int chunks = (this.levelSize + CHUNK_SIZE - 1) / CHUNK_SIZE, size = 0,
+				goalCell = UNVISITED;
+		int[] swap = null;
+
+		ensureCapacity(chunks);
+
+		if (chunks < PARALLEL_CHUNKS) {
+			// handing a level this small to the pool costs more than it saves
+			for (int c = 0; c < chunks; c++) { claimChunk(c); }
+			for (int c = 0; c < chunks; c++) { collectChunk(c); }
+		} else {
+			this.pool.invoke(new ExpandTask(0, chunks, true));
+			this.pool.invoke(new ExpandTask(0, chunks, false));
+		}
+
+		// join the slices in chunk order, which is the order a FIFO queue
+		// would have discovered the cells in
+		for (int c = 0; c < chunks; c++) {
+			if (size + this.chunkCounts[c] > this.nextLevel.length) {
+				this.nextLevel = Arrays.copyOf(this.nextLevel, Math.max(
+						this.nextLevel.length * 2, size + this.chunkCounts[c]));
+			}
+
+			System.arraycopy(this.discovered, c * CHUNK_SIZE *
+					UUSearchProblem.MAX_SUCCESSORS, this.nextLevel, size,
+					this.chunkCounts[c]);
+			size += this.chunkCounts[c];
+		}
+
+		for (int i = 0; i < size && goalCell == UNVISITED; i++) {
+			if (this.problem.isGoalCell(this.nextLevel[i])) {
+				goalCell = this.nextLevel[i];
+			}
+		}
+
+		swap = this.level;
+		this.level = this.nextLevel;
+		this.nextLevel = swap;
+		this.levelSize = size;
+
+		return goalCell;
+	}
+
+//------------------------------- claimChunk() -------------------------------//
+	/*
+	 * Claims the unvisited successors of every frontier cell in a chunk,
+	 * taking over claims made by frontier cells further down the level, and
+	 * writes every cell claimed, in discovery order, to the chunk's slice of
+	 * discovered.
+	 */
+	private void claimChunk(int chunk) {
+		int[] successors = this.successorBuffers.get();
+		int end = Math.min(this.levelSize, (chunk + 1) * CHUNK_SIZE),
+				offset = chunk * CHUNK_SIZE * UUSearchProblem.MAX_SUCCESSORS,
+				total = 0, totalSuccessors = 0, claim = 0, current = 0;
+
+		for (int i = chunk * CHUNK_SIZE; i < end; i++) {
+			totalSuccessors = this.controller.getSuccessorCells(this.level[i],
+					successors);
+			claim = claimOf(i);
+
+			for (int s = 0; s < totalSuccessors; s++) {
+				// visited cells hold their parent (>= 0); earlier positions
+				// have larger claims
+				while ((current = this.parents.get(successors[s])) ==
+						UNVISITED || (current < UNVISITED && current < claim)) {
+					if (this.parents.compareAndSet(successors[s], current,
+							claim)) {
+						this.discovered[offset + total++] = successors[s];
+						break;
+					}
+				}
+			}
+		}
+
+		this.chunkCounts[chunk] = total;
+	}
+
+//------------------------------ collectChunk() ------------------------------//
+	/*
+	 * Drops the cells of a chunk's slice that an earlier chunk took over and
+	 * settles the parents of the rest. Claims only ever move to earlier
+	 * positions, and a chunk's own cells run in order, so a cell shows up at
+	 * most once in a slice.
+	 */
+	private void collectChunk(int chunk) {
+		int first = claimOf(chunk * CHUNK_SIZE), last = claimOf(Math.min(
+				this.levelSize, (chunk + 1) * CHUNK_SIZE) - 1),
+				offset = chunk * CHUNK_SIZE * UUSearchProblem.MAX_SUCCESSORS,
+				total = 0, cell = 0, claim = 0;
+
+		for (int i = 0; i < this.chunkCounts[chunk]; i++) {
+			cell = this.discovered[offset + i];
+			claim = this.parents.get(cell);
+
+			if (last <= claim && claim <= first) {
+				// joining the pass orders this write before any later read
+				this.parents.lazySet(cell, this.level[positionOf(claim)]);
+				this.discovered[offset + total++] = cell;
+			}
+		}
+
+		this.chunkCounts[chunk] = total;
+	}
+
+//----------------------------- ensureCapacity() -----------------------------//
+	/*
+	 * Grows the per-chunk buffers to hold a level of the given chunk count.
+	 */
+	private void ensureCapacity(int chunks) {
+		if (chunks > this.chunkCounts.length) {
+			this.chunkCounts = new int[Math.max(chunks,
+					this.chunkCounts.length * 2)];
+		}
+
+		if (chunks * CHUNK_SIZE * UUSearchProblem.MAX_SUCCESSORS >
+				this.discovered.length) {
+			this.discovered = new int[this.chunkCounts.length * CHUNK_SIZE *
+			                          UUSearchProblem.MAX_SUCCESSORS];
+		}
+	}
+
+//------------------------------- backchain() --------------------------------//
+	private int[] backchain(int goalCell) {
+		int depth = 0;
+
+		for (int c = goalCell; this.parents.get(c) != c;
+				c = this.parents.get(c)) {
+			depth++;
+		}
+
+		int[] path = new int[depth + 1];
+
+		for (int d = depth, c = goalCell; d >= 0; d--) {
+			path[d] = c;
+			c = this.parents.get(c);
+		}
+
+		return path;
+	}
+
+//-------------------------------- claimOf() ---------------------------------//
+	/*
+	 * @return claim a frontier cell writes to the successors it reaches, below
+	 * 		   UNVISITED and larger the earlier the cell is in its level
+	 */
+	private static int claimOf(int position) {
+		return UNVISITED - 1 - position;
+	}
+
+//------------------------------- positionOf() -------------------------------//
+	private static int positionOf(int claim) {
+		return UNVISITED - 1 - claim;
+	}
+}
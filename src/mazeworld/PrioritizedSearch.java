@@ -0,0 +1,107 @@
+package mazeworld;
+
+/**
+ * Prioritized planning for robots sharing a MazeGrid, moving as described
+ * by FleetPlan. Robots are planned one at a time in index order, robot 0
+ * having the highest priority, each by SpaceTimeAStar around the cells and
+ * moves the robots before it hold in a ReservationTable, and then reserve
+ * their own path and goal in turn. Every robot is searched once, so the
+ * search takes about as long as k single-robot searches; the price is that
+ * plans may cost more than the optimal one, and that a robot boxed in by
+ * the ones before it has no plan at all, even if a different order would
+ * have found one.
+ *
+ * @author Mauricio Esquivel Rogel
+ * @date Fall Term 2016
+ */
+public class PrioritizedSearch {
+/******************************** CONSTANTS ***********************************/
+	// PRIVATE
+	private static final int INITIAL_WINDOW = 64;
+
+/*************************** INSTANCE VARIABLES *******************************/
+	// PUBLIC
+		//
+
+	// PRIVATE
+	private MazeGrid maze;
+	private int robots, nodesExplored, maxMemory;
+	private int[] starts, goals;
+	private SpaceTimeAStar planner;
+	private ReservationTable reservations;
+
+/****************************** CONSTRUCTOR ***********************************/
+	/*
+	 * @param m - maze the robots share
+	 * @param s - start cell of every robot, in priority order
+	 * @param g - goal cell of every robot
+	 */
+	public PrioritizedSearch(MazeGrid m, int[] s, int[] g) {
+		maze = m;
+		robots = s.length;
+		starts = s.clone();
+		goals = g.clone();
+		planner = new SpaceTimeAStar(m);
+		reservations = new ReservationTable(m, INITIAL_WINDOW);
+	}
+
+/******************************* PUBLIC METHODS *******************************/
+//--------------------------------- search() ---------------------------------//
+	/*
+	 * @return collision-free plan, or null if some robot can't get past the
+	 * 		   ones with a higher priority
+	 */
+	public FleetPlan search() {
+		int[][] paths = new int[this.robots][];
+
+		this.nodesExplored = 0;
+		this.maxMemory = 0;
+		this.reservations.clear();
+
+		if (!MultiRobotSearch.isValidInstance(this.maze, this.starts,
+				this.goals)) {
+			return null;
+		}
+
+		for (int i = 0; i < this.robots; i++) {
+			paths[i] = this.planner.search(this.starts[i], this.goals[i],
+					this.reservations);
+			this.nodesExplored += this.planner.getNodesExplored();
+			this.maxMemory = Math.max(this.maxMemory,
+					this.planner.getMaxMemory());
+
+			if (paths[i] == null) { return null; }
+
+			this.reservations.reservePath(paths[i]);
+		}
+
+		return new FleetPlan(paths);
+	}
+
+//---------------------------- getNodesExplored() ----------------------------//
+	/*
+	 * @return (cell, time) states expanded for every robot during the last
+	 * 		   search
+	 */
+	public int getNodesExplored() {
+		return this.nodesExplored;
+	}
+
+//------------------------------ getMaxMemory() ------------------------------//
+	/*
+	 * @return (cell, time) states stored by the largest single-robot search
+	 * 		   during the last search
+	 */
+	public int getMaxMemory() {
+		return this.maxMemory;
+	}
+
+//---------------------------- getReservations() -----------------------------//
+	/*
+	 * @return reservations of every robot planned by the last search, e.g.
+	 * 		   to advance() as the robots move and plan newcomers around them
+	 */
+	public ReservationTable getReservations() {
+		return this.reservations;
+	}
+}
@@ -0,0 +1,74 @@
+package mazeworld;
+
+import java.time.Duration;
+import java.util.List;
+
+import mazeworld.UUSearchProblem.UUSearchNode;
+
+/**
+ * Outcome of a MazeQuery: the solution path along with the stats of the
+ * search that found it, copied out of the problem that ran it, so results
+ * stay valid once that problem is gone.
+ *
+ * @author Mauricio Esquivel Rogel
+ * @date Fall Term 2016
+ */
+public class QueryResult {
+/*************************** INSTANCE VARIABLES *******************************/
+	// PUBLIC
+		//
+
+	// PRIVATE
+	private MazeQuery query;
+	private List<UUSearchNode> solution;
+	private int nodesExplored, maxMemory;
+	private Duration runningTime;
+
+/****************************** CONSTRUCTOR ***********************************/
+	/*
+	 * @param q - query that was solved
+	 * @param s - solution path, or null if there is none
+	 * @param problem - problem whose last search produced s
+	 */
+	QueryResult(MazeQuery q, List<UUSearchNode> s, UUSearchProblem problem) {
+		query = q;
+		solution = s;
+		nodesExplored = problem.getNodesExplored();
+		maxMemory = problem.getMaxMemory();
+		runningTime = problem.getRunningTime();
+	}
+
+/******************************* PUBLIC METHODS *******************************/
+//-------------------------------- getQuery() --------------------------------//
+	public MazeQuery getQuery() {
+		return this.query;
+	}
+
+//------------------------------ getSolution() -------------------------------//
+	/*
+	 * @return solution path from start to goal, or null if there is none
+	 */
+	public List<UUSearchNode> getSolution() {
+		return this.solution;
+	}
+
+//-------------------------------- isSolved() --------------------------------//
+	public boolean isSolved() {
+		return this.solution != null;
+	}
+
+//---------------------------- getNodesExplored() ----------------------------//
+	public int getNodesExplored() {
+		return this.nodesExplored;
+	}
+
+//------------------------------ getMaxMemory() ------------------------------//
+	public int getMaxMemory() {
+		return this.maxMemory;
+	}
+
+//----------------------------- getRunningTime() -----------------------------//
+	public Duration getRunningTime() {
+		return this.runningTime;
+	}
+}
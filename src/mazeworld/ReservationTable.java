@@ -0,0 +1,280 @@
+package mazeworld;
+
+import datastructures.LongIntHashMap;
+
+/**
+ * Space-time reservations of a MazeGrid's cells, as SpaceTimeConstraints for
+ * the robots that come after the ones holding them. Every time step of a
+ * sliding window has a LongIntHashMap in a ring holding only what the step
+ * is reserved for: the cells, and the moves that end in a cell at that step,
+ * by direction, so that robots coming the other way can be kept from
+ * swapping with it. Checking or reserving a cell at a time is a single
+ * lookup, and a step costs memory for the few robots on it rather than for
+ * the whole maze, so plans thousands of steps long fit on mazes of millions
+ * of cells. Robots that are done stay on their goal, which is parked for
+ * good from some time on instead of being reserved step by step.
+ *
+ * Times are relative to the start of the window, which advance() moves
+ * forward as the fleet executes its plans, e.g. once per control loop
+ * iteration, dropping the oldest steps. Reserving past the end of the
+ * window doubles it, which only takes a slot per step; steps get their map
+ * the first time something is reserved at them, and clearing one takes time
+ * proportional to what was reserved at it.
+ *
+ * @author Mauricio Esquivel Rogel
+ * @date Fall Term 2016
+ */
+public class ReservationTable implements SpaceTimeConstraints {
+/******************************** CONSTANTS ***********************************/
+	// PRIVATE
+	private static final int RESERVED = 1;
+
+/*************************** INSTANCE VARIABLES *******************************/
+	// PUBLIC
+		//
+
+	// PRIVATE
+	private MazeGrid maze;
+	private int cellCount, origin, elapsed, horizon;
+
+	// time step -> cells and moves reserved at it, null until one is
+	private LongIntHashMap[] ring;
+
+	// cell -> absolute time from which it is parked
+	private LongIntHashMap parkedSince;
+
+/****************************** CONSTRUCTOR ***********************************/
+	/*
+	 * @param m - maze the robots share
+	 * @param window - time steps to keep at first, rounded up to a power of
+	 * 				   two
+	 */
+	public ReservationTable(MazeGrid m, int window) {
+		int steps = Integer.highestOneBit(Math.max(1, window - 1)) << 1;
+
+		maze = m;
+		cellCount = m.getCellCount();
+		ring = new LongIntHashMap[steps];
+		parkedSince = new LongIntHashMap();
+		origin = 0;
+		elapsed = 0;
+		horizon = NEVER;
+	}
+
+/******************************* PUBLIC METHODS *******************************/
+//------------------------------- reservePath() ------------------------------//
+	/*
+	 * Reserves every cell and move of a robot's path, and parks its last
+	 * cell from then on.
+	 * @param path - cell of the robot at every time step from the start of
+	 * 				 the window, e.g. as found by SpaceTimeAStar
+	 */
+	public void reservePath(int[] path) {
+		for (int t = 0; t < path.length; t++) {
+			reserve(path[t], t);
+
+			if (t > 0 && path[t] != path[t - 1]) {
+				reserveMove(path[t - 1], path[t], t);
+			}
+		}
+
+		park(path[path.length - 1], path.length - 1);
+	}
+
+//--------------------------------- reserve() --------------------------------//
+	/*
+	 * @param cell - packed cell id
+	 * @param time - time step from the start of the window
+	 */
+	public void reserve(int cell, int time) {
+		set(cell, time);
+	}
+
+//------------------------------- reserveMove() ------------------------------//
+	/*
+	 * Reserves the move from a cell to a neighbouring one that ends at a
+	 * time, so that nobody makes the opposite move at that time.
+	 */
+	public void reserveMove(int from, int to, int time) {
+		set(moveKey(from, to), time);
+	}
+
+//---------------------------------- park() ----------------------------------//
+	/*
+	 * Reserves a cell from a time on, for good.
+	 */
+	public void park(int cell, int time) {
+		int since = this.parkedSince.get(cell);
+
+		if (since == LongIntHashMap.NO_VALUE || this.elapsed + time < since) {
+			this.parkedSince.put(cell, this.elapsed + time);
+		}
+
+		this.horizon = Math.max(this.horizon, time);
+	}
+
+//--------------------------------- advance() --------------------------------//
+	/*
+	 * Moves the start of the window a number of time steps forward, e.g. as
+	 * robots take them, dropping the reservations of the steps left behind.
+	 */
+	public void advance(int steps) {
+		for (int i = 0; i < steps && i < this.ring.length; i++) {
+			clearSlot(i);
+		}
+
+		this.origin = (this.origin + steps) & (this.ring.length - 1);
+		this.elapsed += steps;
+		this.horizon = Math.max(NEVER, this.horizon - steps);
+	}
+
+//---------------------------------- clear() ---------------------------------//
+	/*
+	 * Drops every reservation, keeping the window's length.
+	 */
+	public void clear() {
+		// nothing is set past the horizon
+		for (int t = Math.min(this.horizon, this.ring.length - 1); t >= 0;
+				t--) {
+			clearSlot(t);
+		}
+
+		this.parkedSince.clear();
+		this.origin = 0;
+		this.elapsed = 0;
+		this.horizon = NEVER;
+	}
+
+//-------------------------------- getWindow() -------------------------------//
+	/*
+	 * @return time steps the window holds
+	 */
+	public int getWindow() {
+		return this.ring.length;
+	}
+
+/********************************** OVERRIDES *********************************/
+//-------------------------------- isBlocked() -------------------------------//
+	@Override
+	public boolean isBlocked(int cell, int time) {
+		int since = this.parkedSince.get(cell);
+
+		return (since != LongIntHashMap.NO_VALUE &&
+				since <= this.elapsed + (long) time) || isSet(cell, time);
+	}
+
+//------------------------------ isBlockedMove() -----------------------------//
+	/*
+	 * @return true if a robot makes the opposite move at that time
+	 */
+	@Override
+	public boolean isBlockedMove(int from, int to, int time) {
+		return isSet(moveKey(to, from), time);
+	}
+
+//--------------------------- getLastBlockedTime() ---------------------------//
+	@Override
+	public int getLastBlockedTime(int cell) {
+		if (this.parkedSince.containsKey(cell)) { return FOREVER; }
+
+		for (int t = Math.min(this.horizon, this.ring.length - 1); t >= 0;
+				t--) {
+			if (isSet(cell, t)) { return t; }
+		}
+
+		return NEVER;
+	}
+
+//-------------------------------- getHorizon() ------------------------------//
+	@Override
+	public int getHorizon() {
+		return this.horizon;
+	}
+
+/**************************** PRIVATE METHODS *********************************/
+//----------------------------------- set() ----------------------------------//
+	/*
+	 * @param key - cell, or moveKey(), reserved at a time step
+	 */
+	private void set(long key, int time) {
+		int slot = 0;
+
+		if (time < 0) {
+			throw new IllegalArgumentException("time " + time +
+					" before the window");
+		}
+
+		while (time >= this.ring.length) { grow(); }
+
+		slot = slotOf(time);
+
+		if (this.ring[slot] == null) { this.ring[slot] = new LongIntHashMap(); }
+
+		this.ring[slot].put(key, RESERVED);
+		this.horizon = Math.max(this.horizon, time);
+	}
+
+//---------------------------------- isSet() ---------------------------------//
+	private boolean isSet(long key, int time) {
+		LongIntHashMap step = time >= 0 && time < this.ring.length ?
+				this.ring[slotOf(time)] : null;
+
+		return step != null && step.containsKey(key);
+	}
+
+//--------------------------------- slotOf() ---------------------------------//
+	/*
+	 * @return index in the ring of a time step from the start of the window
+	 */
+	private int slotOf(int time) {
+		return (this.origin + time) & (this.ring.length - 1);
+	}
+
+//-------------------------------- clearSlot() -------------------------------//
+	/*
+	 * Drops the reservations of a time step from the start of the window.
+	 */
+	private void clearSlot(int time) {
+		LongIntHashMap step = this.ring[slotOf(time)];
+
+		if (step != null && !step.isEmpty()) { step.clear(); }
+	}
+
+//----------------------------------- grow() ---------------------------------//
+	/*
+	 * Doubles the window, moving the start of the window to the first slot.
+	 */
+	private void grow() {
+		LongIntHashMap[] steps = new LongIntHashMap[this.ring.length * 2];
+
+		for (int t = 0; t < this.ring.length; t++) {
+			steps[t] = this.ring[slotOf(t)];
+		}
+
+		this.ring = steps;
+		this.origin = 0;
+	}
+
+//--------------------------------- moveKey() --------------------------------//
+	/*
+	 * @return key of the move from a cell to a neighbouring one, past every
+	 * 		   cell's key
+	 */
+	private long moveKey(int from, int to) {
+		return (long) this.cellCount * (1 + directionOf(from, to)) + to;
+	}
+
+//------------------------------- directionOf() ------------------------------//
+	/*
+	 * @return index of the move from a cell to a neighbouring one in
+	 * 		   MazeworldProblem's order (east, west, north, south)
+	 */
+	private int directionOf(int from, int to) {
+		int step = to - from, height = this.maze.getHeight();
+
+		if (step == height) { return 0; }
+		if (step == -height) { return 1; }
+
+		return step == 1 ? 2 : 3;
+	}
+}
@@ -0,0 +1,202 @@
+package mazeworld;
+
+import java.util.Arrays;
+
+import datastructures.IndexedPriorityQueue;
+import datastructures.IntRingBufferQueue;
+
+/**
+ * Scratch space for the cell-based searches of a UUSearchProblem, owned by
+ * the caller and handed to any number of problems in turn with
+ * UUSearchProblem.setSearchContext(), so that a stream of small queries
+ * stops allocating per-cell arrays, queues and buffers on every search.
+ *
+ * Visited cells are generation-stamped: a cell counts as visited only if its
+ * stamp equals the current generation, so starting a new search is a single
+ * increment instead of an O(cells) wipe of the parent array. Stamps are
+ * single bytes, which keeps the array every visited check reads at a
+ * quarter of the parent array's size, at the cost of wiping it once every
+ * GENERATIONS searches. Frontiers are kept per frontier type and cleared in
+ * time proportional to what the last search left in them. Bidirectional
+ * searches run their backward half on a second context, created the first
+ * time one is needed.
+ *
+ * A context may only be used by one search at a time, i.e. by one thread.
+ *
+ * @author Mauricio Esquivel Rogel
+ * @date Fall Term 2016
+ */
+public class SearchContext {
+/******************************** CONSTANTS ***********************************/
+	// PRIVATE
+	private static final int UNVISITED = -1;
+	private static final int FRONTIER_TYPES = 3;
+	private static final int GENERATIONS = 255;
+
+/*************************** INSTANCE VARIABLES *******************************/
+	// PUBLIC
+		//
+
+	// PRIVATE
+	private byte generation;
+	private byte[] stamps;  // generation each cell was last visited in
+	private int[] parents, depths, successors, path;
+	private IntRingBufferQueue queue;
+	private IndexedPriorityQueue[] frontiers;
+	private SearchContext reverse;
+
+/****************************** CONSTRUCTOR ***********************************/
+	/*
+	 * Creates an empty context that grows to fit the first problem it is
+	 * used with.
+	 */
+	public SearchContext() {
+		this(0);
+	}
+
+	/*
+	 * @param cells - cell count (see UUSearchProblem.getCellCount()) of the
+	 * 				  largest problem the context is expected to serve
+	 */
+	public SearchContext(int cells) {
+		generation = 0;
+		stamps = new byte[cells];
+		parents = new int[cells];
+		depths = new int[cells];
+		successors = new int[UUSearchProblem.MAX_SUCCESSORS];
+		path = new int[0];
+		queue = new IntRingBufferQueue();
+		frontiers = new IndexedPriorityQueue[FRONTIER_TYPES];
+	}
+
+/******************************* PUBLIC METHODS *******************************/
+//------------------------------ getCapacity() -------------------------------//
+	/*
+	 * @return number of cells the context holds without growing
+	 */
+	public int getCapacity() {
+		return this.stamps.length;
+	}
+
+/**************************** PROTECTED METHODS *******************************/
+//--------------------------------- begin() ----------------------------------//
+	/*
+	 * Forgets every visited cell and empties the queue, readying the context
+	 * for a new search. Frontiers are emptied by getFrontier().
+	 * @param cells - cell count of the problem about to be searched
+	 */
+	protected void begin(int cells) {
+		if (cells > this.stamps.length) {
+			// fresh stamps are all 0, which no generation uses
+			this.stamps = new byte[cells];
+			this.parents = new int[cells];
+			this.depths = new int[cells];
+			this.generation = 0;
+		}
+
+		// stamps are wiped once every GENERATIONS searches
+		if ((this.generation & 0xFF) == GENERATIONS) {
+			Arrays.fill(this.stamps, (byte) 0);
+			this.generation = 0;
+		}
+
+		this.generation++;
+
+		this.queue.clear();
+	}
+
+//------------------------------- isVisited() --------------------------------//
+	protected boolean isVisited(int cell) {
+		return this.stamps[cell] == this.generation;
+	}
+
+//--------------------------------- visit() ----------------------------------//
+	/*
+	 * Marks a cell as visited, or moves an already visited one to a cheaper
+	 * path. Searches that never ask for depths use this one, which leaves
+	 * the depth array alone.
+	 * @param cell - cell reached
+	 * @param parent - cell it was reached from, cell itself for a root
+	 */
+	protected void visit(int cell, int parent) {
+		this.stamps[cell] = this.generation;
+		this.parents[cell] = parent;
+	}
+
+	/*
+	 * @param depth - moves from the root
+	 */
+	protected void visit(int cell, int parent, int depth) {
+		visit(cell, parent);
+		this.depths[cell] = depth;
+	}
+
+//------------------------------- getParent() --------------------------------//
+	/*
+	 * @return parent of a cell, or UNVISITED if it hasn't been visited
+	 */
+	protected int getParent(int cell) {
+		return isVisited(cell) ? this.parents[cell] : UNVISITED;
+	}
+
+//-------------------------------- getDepth() --------------------------------//
+	/*
+	 * @return depth of a cell visited with a depth
+	 */
+	protected int getDepth(int cell) {
+		return this.depths[cell];
+	}
+
+//-------------------------------- getQueue() --------------------------------//
+	protected IntRingBufferQueue getQueue() {
+		return this.queue;
+	}
+
+//------------------------------ getFrontier() -------------------------------//
+	/*
+	 * @param type - UUSearchProblem frontier type
+	 * @return emptied frontier of that type, or null if none was stored yet
+	 */
+	protected IndexedPriorityQueue getFrontier(int type) {
+		if (this.frontiers[type] != null) { this.frontiers[type].clear(); }
+
+		return this.frontiers[type];
+	}
+
+//------------------------------ setFrontier() -------------------------------//
+	protected void setFrontier(int type, IndexedPriorityQueue frontier) {
+		this.frontiers[type] = frontier;
+	}
+
+//--------------------------- getSuccessorBuffer() ---------------------------//
+	/*
+	 * @return buffer of MAX_SUCCESSORS cells for getSuccessorCells()
+	 */
+	protected int[] getSuccessorBuffer() {
+		return this.successors;
+	}
+
+//----------------------------- getPathBuffer() ------------------------------//
+	/*
+	 * @return buffer of at least the given number of cells, for backchaining,
+	 * 		   keeping whatever was written to it before
+	 */
+	protected int[] getPathBuffer(int length) {
+		if (length > this.path.length) {
+			this.path = Arrays.copyOf(this.path, Math.max(length,
+					this.path.length * 2));
+		}
+
+		return this.path;
+	}
+
+//------------------------------- getReverse() -------------------------------//
+	/*
+	 * @return context for the backward half of bidirectional searches
+	 */
+	protected SearchContext getReverse() {
+		if (this.reverse == null) { this.reverse = new SearchContext(); }
+
+		return this.reverse;
+	}
+}
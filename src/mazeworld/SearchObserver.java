@@ -0,0 +1,22 @@
+package mazeworld;
+
+import java.util.List;
+
+import mazeworld.UUSearchProblem.UUSearchNode;
+
+/**
+ * Gets told about every search run by the UUSearchProblem it is attached to
+ * (see UUSearchProblem.setObserver()), e.g. to draw the solution. Searches
+ * call it from the thread they ran on, once their stats are final.
+ *
+ * @author Mauricio Esquivel Rogel
+ * @date Fall Term 2016
+ */
+public interface SearchObserver {
+	/*
+	 * @param problem - problem that ran the search, holding its stats
+	 * @param solution - solution path found, or null if there is none
+	 */
+	public void searchFinished(UUSearchProblem problem,
+			List<UUSearchNode> solution);
+}
@@ -0,0 +1,221 @@
+package mazeworld;
+
+import java.util.Arrays;
+
+import datastructures.IndexedDaryHeap;
+import datastructures.LongIntHashMap;
+
+/**
+ * A* for a single robot over (cell, time) states, avoiding the cells and
+ * moves that SpaceTimeConstraints block at each time step, e.g. the ones
+ * other robots of a fleet use. Costs follow FleetPlan: every move or wait
+ * costs one except waiting on the goal, and the robot is done once it
+ * stands on its goal and the goal is never blocked again. The heuristic is
+ * the robot's distance to its goal on the empty maze, read from the goal's
+ * cached DistanceField, so only detours the constraints force are searched.
+ *
+ * Past the constraints' horizon nothing changes anymore, so all states of a
+ * cell after it are merged into one, which keeps the state space finite
+ * even when waiting is free. States are deduplicated in a LongIntHashMap
+ * and nodes live in flat arrays that are kept across searches, ties on f
+ * going to the node farther from the start. Nodes remember their state's
+ * key, so the map is emptied by replaying the last search's keys, and a
+ * small search after a large one doesn't wipe the whole table that grew.
+ *
+ * @author Mauricio Esquivel Rogel
+ * @date Fall Term 2016
+ */
+public class SpaceTimeAStar {
+/******************************** CONSTANTS ***********************************/
+	// PRIVATE
+	private static final int HEAP_ARITY = 4;
+	private static final int INITIAL_NODES = 1024;
+
+/*************************** INSTANCE VARIABLES *******************************/
+	// PUBLIC
+		//
+
+	// PRIVATE
+	private MazeGrid maze;
+	private int cellCount, nodesExplored, maxMemory, numberOfNodes;
+	private int[] offsets;
+
+	// node id -> cell, time step, parent id, cost from the start and key
+	private int[] cells, times, parents, costs;
+	private long[] keys;
+	private LongIntHashMap ids;
+	private IndexedDaryHeap frontier;
+
+/****************************** CONSTRUCTOR ***********************************/
+	/*
+	 * @param m - maze to plan on
+	 */
+	public SpaceTimeAStar(MazeGrid m) {
+		maze = m;
+		cellCount = m.getCellCount();
+		offsets = new int[]{ m.getHeight(), -m.getHeight(), 1, -1 };
+		cells = new int[INITIAL_NODES];
+		times = new int[INITIAL_NODES];
+		parents = new int[INITIAL_NODES];
+		costs = new int[INITIAL_NODES];
+		keys = new long[INITIAL_NODES];
+		ids = new LongIntHashMap(INITIAL_NODES);
+		frontier = new IndexedDaryHeap(HEAP_ARITY, INITIAL_NODES);
+	}
+
+/******************************* PUBLIC METHODS *******************************/
+//--------------------------------- search() ---------------------------------//
+	/*
+	 * @param start - packed cell id of the robot at time 0
+	 * @param goal - packed cell id of its goal
+	 * @param constraints - cells and moves the robot may not use
+	 * @return cell of the robot at every time step of a path of least cost,
+	 * 		   ending once it reaches its goal for good, or null if there is
+	 * 		   none
+	 */
+	public int[] search(int start, int goal, SpaceTimeConstraints constraints) {
+		DistanceField field = null;
+		int node = 0, cell = 0, time = 0, next = 0, last = 0, horizon = 0;
+
+		this.nodesExplored = 0;
+		this.maxMemory = 0;
+
+		if (!this.maze.isFree(start) || !this.maze.isFree(goal) ||
+				constraints.isBlocked(start, 0)) {
+			return null;
+		}
+
+		field = DistanceField.of(this.maze, goal);
+		last = constraints.getLastBlockedTime(goal);
+		horizon = constraints.getHorizon();
+
+		if (field.getDistance(start) == DistanceField.UNREACHABLE ||
+				last == SpaceTimeConstraints.FOREVER) {
+			return null;
+		}
+
+		this.ids.clear(this.keys, this.numberOfNodes);
+		this.numberOfNodes = 0;
+		this.frontier.clear();
+		addNode(start, 0, LongIntHashMap.NO_VALUE, 0, field, horizon);
+
+		while ((node = this.frontier.poll()) != IndexedDaryHeap.NO_HANDLE) {
+			cell = this.cells[node];
+			time = this.times[node];
+
+			if (cell == goal && time > last) { return backchain(node); }
+
+			this.nodesExplored++;
+
+			if (!constraints.isBlocked(cell, time + 1)) {
+				relax(cell, time + 1, node, this.costs[node] +
+						(cell == goal ? 0 : 1), field, horizon);
+			}
+
+			for (int moves = this.maze.getOpenMoves(cell); moves != 0;
+					moves &= moves - 1) {
+				next = cell +
+						this.offsets[Integer.numberOfTrailingZeros(moves)];
+
+				if (!constraints.isBlocked(next, time + 1) &&
+						!constraints.isBlockedMove(cell, next, time + 1)) {
+					relax(next, time + 1, node, this.costs[node] + 1, field,
+							horizon);
+				}
+			}
+
+			this.maxMemory = Math.max(this.maxMemory, this.numberOfNodes);
+		}
+
+		return null;
+	}
+
+//---------------------------- getNodesExplored() ----------------------------//
+	/*
+	 * @return (cell, time) states expanded during the last search
+	 */
+	public int getNodesExplored() {
+		return this.nodesExplored;
+	}
+
+//------------------------------ getMaxMemory() ------------------------------//
+	/*
+	 * @return (cell, time) states stored during the last search
+	 */
+	public int getMaxMemory() {
+		return this.maxMemory;
+	}
+
+/**************************** PRIVATE METHODS *********************************/
+//--------------------------------- relax() ----------------------------------//
+	/*
+	 * Adds a successor, or moves it to a cheaper path if it is still on the
+	 * frontier.
+	 */
+	private void relax(int cell, int time, int parent, int cost,
+			DistanceField field, int horizon) {
+		int node = this.ids.get(keyOf(cell, time, horizon));
+
+		if (node == LongIntHashMap.NO_VALUE) {
+			addNode(cell, time, parent, cost, field, horizon);
+		} else if (cost < this.costs[node] && this.frontier.contains(node)) {
+			this.times[node] = time;
+			this.parents[node] = parent;
+			this.costs[node] = cost;
+			this.frontier.update(node, priorityOf(cell, cost, field));
+		}
+	}
+
+//-------------------------------- addNode() ---------------------------------//
+	private void addNode(int cell, int time, int parent, int cost,
+			DistanceField field, int horizon) {
+		int node = this.numberOfNodes++;
+
+		if (node == this.cells.length) {
+			this.cells = Arrays.copyOf(this.cells, node * 2);
+			this.times = Arrays.copyOf(this.times, node * 2);
+			this.parents = Arrays.copyOf(this.parents, node * 2);
+			this.costs = Arrays.copyOf(this.costs, node * 2);
+			this.keys = Arrays.copyOf(this.keys, node * 2);
+		}
+
+		this.cells[node] = cell;
+		this.times[node] = time;
+		this.parents[node] = parent;
+		this.costs[node] = cost;
+		this.keys[node] = keyOf(cell, time, horizon);
+		this.ids.put(this.keys[node], node);
+		this.frontier.insert(node, priorityOf(cell, cost, field));
+	}
+
+//--------------------------------- keyOf() ----------------------------------//
+	/*
+	 * @return state key of a cell at a time, the same for every time past
+	 * 		   the horizon
+	 */
+	private long keyOf(int cell, int time, int horizon) {
+		return (long) Math.min(time, horizon + 1) * this.cellCount + cell;
+	}
+
+//------------------------------- priorityOf() -------------------------------//
+	/*
+	 * @return f in the high 32 bits, ties broken in favour of larger costs
+	 */
+	private static long priorityOf(int cell, int cost, DistanceField field) {
+		return ((long) (cost + field.getDistance(cell)) << 32) - cost;
+	}
+
+//------------------------------- backchain() --------------------------------//
+	/*
+	 * @return cells of the path to a node, one per time step
+	 */
+	private int[] backchain(int node) {
+		int[] path = new int[this.times[node] + 1];
+
+		for (int n = node; n != LongIntHashMap.NO_VALUE; n = this.parents[n]) {
+			path[this.times[n]] = this.cells[n];
+		}
+
+		return path;
+	}
+}
@@ -0,0 +1,27 @@
+package mazeworld;
+
+/**
+ * Interface for the cells and moves a robot may not use at given time steps,
+ * e.g. because other robots have them, as read by SpaceTimeAStar. Cells are
+ * packed cell ids (x * height + y) and time step t is the robot's t-th step
+ * from its start; a move at time t is the one that ends at time t.
+ *
+ * @author Mauricio Esquivel Rogel
+ * @date Fall Term 2016
+ */
+public interface SpaceTimeConstraints {
+	public static final int NEVER = -1;
+	public static final int FOREVER = Integer.MAX_VALUE;
+	
+	public boolean isBlocked(int cell, int time);
+	public boolean isBlockedMove(int from, int to, int time);
+	
+	// last time step at which a cell is blocked, NEVER if it isn't, or
+	// FOREVER if it stays blocked from some time on
+	public int getLastBlockedTime(int cell);
+	
+	// time step after which nothing changes anymore, i.e. every cell and
+	// move is either blocked at every later time or at none; NEVER if
+	// nothing is ever blocked
+	public int getHorizon();
+}
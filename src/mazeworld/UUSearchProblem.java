@@ -11,6 +11,7 @@ import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Queue;
+import java.util.concurrent.ForkJoinPool;
 
 import datastructures.*;
 
@@ -22,6 +23,12 @@ import datastructures.*;
  */
 public abstract class UUSearchProblem {
 /******************************** CONSTANTS ***********************************/
+	// PUBLIC
+	// frontier used by aStarSearch() on cell-encodable problems
+	public static final int FIBONACCI_HEAP_FRONTIER = 0;
+	public static final int DARY_HEAP_FRONTIER = 1;
+	public static final int BUCKET_QUEUE_FRONTIER = 2;
+	
 	// PROTECTED
 	protected static final int INIT_MOVE = 0;
 	protected static final int MOVE_NORTH = 1;
@@ -30,9 +37,20 @@ public abstract class UUSearchProblem {
 	protected static final int MOVE_WEST = 4;
 	protected static final int[] POSSIBLE_DIRECTIONS = 
 			new int []{ MOVE_EAST, MOVE_SOUTH, MOVE_WEST, MOVE_NORTH };
+	
+	// bits of the per-cell open-move masks, in successor order
+	protected static final int OPEN_EAST = 1;
+	protected static final int OPEN_WEST = 2;
+	protected static final int OPEN_NORTH = 4;
+	protected static final int OPEN_SOUTH = 8;
+	
+	protected static final int UNVISITED = -1;
+	protected static final int MAX_SUCCESSORS = 4;
+	protected static final int HEAP_ARITY = 4;
 		
 	// PRIVATE
-		//
+	// cached in place of a path when the goal can't be reached
+	private static final int[] NO_PATH = new int[0];
 	
 /*************************** INSTANCE VARIABLES *******************************/
 	// used to store performance information about search runs;
@@ -44,10 +62,14 @@ public abstract class UUSearchProblem {
 	protected Duration runningTime;
 	protected String searchName;
 	protected ArrayList<UUSearchNode> startNode;
-	protected ArrayList<ArrayList<UUSearchNode>> beliefStates;
+	protected BeliefState[] beliefStates;
 	
 	// PRIVATE
 	private Instant initialTime;
+	private int frontierType = FIBONACCI_HEAP_FRONTIER;
+	private SearchObserver observer;
+	private SearchContext context;
+	private LruCache<Object, int[]> pathCache;
 	
 /***************************** INNER INTERFACES *******************************/
 	protected interface UUSearchNode extends KeyableObject {
@@ -59,6 +81,12 @@ public abstract class UUSearchProblem {
 		public void updateStartNodeToCurrent();
 		public boolean beliefStateReached();
 		public boolean[] getObstacles(int[] offset);
+		public int getCell();
+		
+		// writes the cells reachable in one move from a cell into a
+		// caller-owned buffer of at least MAX_SUCCESSORS entries, in the same
+		// order as getSuccessors(), and returns how many were written
+		public int getSuccessorCells(int cell, int[] successors);
 	}
 	
 /***************************** INNER CLASSES **********************************/
@@ -80,13 +108,14 @@ public abstract class UUSearchProblem {
 	public List<UUSearchNode> breadthFirstSearch(){
 		resetStats("Breadth-First Search");
 		
+		if (getCellCount() > 0) { return cellBreadthFirstSearch(); }
+		
 		// to hold specific nodes
 		UUSearchNode currentNode = this.startNode.get(0), successor = null;
 		
 		// if the startNode=goalNode there's no need to even begin the search
 		if (currentNode.goalTest()) {
-			runningTime = Duration.between(initialTime, Instant.now());
-			return Arrays.asList(currentNode);
+			return finishSearch(Arrays.asList(currentNode));
 		}
 		
 		// all the nodes to be explored next 
@@ -107,7 +136,9 @@ public abstract class UUSearchProblem {
 		// do an infinite loop until a solution is found or there are no nodes left unexplored
 		while (true) {
 			// check that the frontier is not empty and get the next item in the queue
-			if ((currentNode = frontier.poll()) == null) { return null; }
+			if ((currentNode = frontier.poll()) == null) {
+				return finishSearch(null);
+			}
 			
 			successors = currentNode.getSuccessors();			
 			
@@ -128,7 +159,7 @@ public abstract class UUSearchProblem {
 					// solution
 					if (successor.goalTest()) {
 						updateMemory(frontier.size() + visited.size());
-						return backchain(successor, visited); 
+						return finishSearch(backchain(successor, visited)); 
 					}
 					
 					// it wasn't the goal node, but add it to the frontier to check its successors and update the memory
@@ -144,15 +175,21 @@ public abstract class UUSearchProblem {
 	public List<UUSearchNode> aStarSearch(){
 		resetStats("A* Search");
 		
-		if (this.beliefStates != null && !deriveStartNodes()) { return null; }
+		if (this.beliefStates != null && !deriveStartNodes()) {
+			return finishSearch(null);
+		}
+		
+		if (getCellCount() > 0) {
+			return this.pathCache == null ? cellAStarSearch() :
+				cachedCellAStarSearch();
+		}
 		
 		FibonacciHeapNode<UUSearchNode> currentNode = 
 				new FibonacciHeapNode<UUSearchNode>(this.startNode.get(0)),
 				successor = null, original = null;
 		
 		if (currentNode.getValue().goalTest()) {
-			runningTime = Duration.between(initialTime, Instant.now());
-			return Arrays.asList(currentNode.getValue());
+			return finishSearch(Arrays.asList(currentNode.getValue()));
 		}
 		
 		PriorityFibonacciHeap<UUSearchNode> frontier = new PriorityFibonacciHeap<UUSearchNode>(new PathCostComparator());
@@ -175,8 +212,7 @@ public abstract class UUSearchProblem {
 		while (true) {
 			// check that the frontier is not empty and get the next item in the queue
 			if ((currentNode = frontier.poll()) == null) {
-				runningTime = Duration.between(initialTime, Instant.now());
-				return null;
+				return finishSearch(null);
 			}
 			
 			visited.get(currentNode).originalElement = null;
@@ -195,7 +231,7 @@ public abstract class UUSearchProblem {
 					// solution
 					if (successor.getValue().goalTest()) {
 						updateMemory(frontier.size() + visited.size());
-						return backchainFibonacci(successor, visited); 
+						return finishSearch(backchainFibonacci(successor, visited)); 
 					}
 					
 					frontier.insert(successor);
@@ -218,7 +254,237 @@ public abstract class UUSearchProblem {
 		}
 	}
 
+//-------------------- bidirectionalBreadthFirstSearch() ---------------------//
+	/*
+	 * Breadth-first search growing one frontier from the start and another
+	 * one from the goal (see getGoalCell()) a whole level at a time, always
+	 * on the side whose frontier is smaller. Once a level reaches cells seen
+	 * from the other side, the shortest path through any of them is spliced
+	 * together from both parent arrays. On long corridors each side only
+	 * explores about half of the way.
+	 * @return optimal solution path or null if there is none
+	 */
+	public List<UUSearchNode> bidirectionalBreadthFirstSearch() {
+		if (getCellCount() == 0) { return breadthFirstSearch(); }
+		
+		resetStats("Bidirectional Breadth-First Search");
+		
+		return cellBidirectionalBreadthFirstSearch();
+	}
+
+//------------------------ bidirectionalAStarSearch() ------------------------//
+	/*
+	 * A* search running forward from the start towards the goal and backward
+	 * from the goal towards the start, expanding the side with the smaller
+	 * frontier each time. Every cell reached from both sides gives a path;
+	 * the search stops once the cheapest one found costs no more than the
+	 * larger of the two smallest frontier keys, since no path through the
+	 * unexpanded cells of that side can be cheaper.
+	 * @return optimal solution path or null if there is none
+	 */
+	public List<UUSearchNode> bidirectionalAStarSearch() {
+		if (getCellCount() == 0) { return aStarSearch(); }
+		
+		resetStats("Bidirectional A* Search");
+		
+		if (this.beliefStates != null && !deriveStartNodes()) {
+			return finishSearch(null);
+		}
+		
+		return cellBidirectionalAStarSearch();
+	}
+
+//----------------------- parallelBreadthFirstSearch() -----------------------//
+	/*
+	 * Breadth-first search expanding every level in parallel on the common
+	 * ForkJoinPool (see ParallelBreadthFirstSearch).
+	 * @return same solution path as breadthFirstSearch(), or null if there is
+	 * 		   none
+	 */
+	public List<UUSearchNode> parallelBreadthFirstSearch() {
+		return parallelBreadthFirstSearch(ForkJoinPool.commonPool());
+	}
+
+	/*
+	 * @param pool - pool the levels are expanded on
+	 */
+	public List<UUSearchNode> parallelBreadthFirstSearch(ForkJoinPool pool) {
+		if (getCellCount() == 0) { return breadthFirstSearch(); }
+		
+		UUSearchNode controller = this.startNode.get(0);
+		ParallelBreadthFirstSearch engine = null;
+		UUSearchNode[] path = null;
+		int[] cells = null;
+		
+		resetStats("Parallel Breadth-First Search");
+		
+		engine = new ParallelBreadthFirstSearch(this, controller, pool);
+		cells = engine.search(controller.getCell());
+		nodesExplored = engine.getNodesExplored();
+		maxMemory = engine.getMaxMemory();
+		
+		if (cells == null) { return finishSearch(null); }
+		
+		path = new UUSearchNode[cells.length];
+		
+		for (int i = 0; i < cells.length; i++) {
+			path[i] = decodeCell(cells[i], i);
+		}
+		
+		return finishSearch(Arrays.asList(path));
+	}
+
+//---------------------------- setFrontierType() -----------------------------//
+	/*
+	 * Chooses the priority queue aStarSearch() uses on cell-encodable
+	 * problems.
+	 * @param type - FIBONACCI_HEAP_FRONTIER, DARY_HEAP_FRONTIER or
+	 * 					BUCKET_QUEUE_FRONTIER (keys must be small non-negative ints)
+	 */
+	public void setFrontierType(int type) {
+		this.frontierType = type;
+	}
+
+//---------------------------- getFrontierType() -----------------------------//
+	/*
+	 * @return priority queue type chosen with setFrontierType()
+	 */
+	public int getFrontierType() {
+		return this.frontierType;
+	}
+
+//------------------------------ setObserver() -------------------------------//
+	/*
+	 * Attaches an observer that gets every search's outcome, e.g. a
+	 * MazeworldRenderer; searches run without one by default.
+	 * @param o - observer, or null to detach the current one
+	 */
+	public void setObserver(SearchObserver o) {
+		this.observer = o;
+	}
+
+//---------------------------- setSearchContext() ----------------------------//
+	/*
+	 * Makes cell-based searches keep their visited cells, parents, queues and
+	 * path buffers in a context owned by the caller, which can hand the same
+	 * context to one problem after another, e.g. one per worker thread.
+	 * Without one, a problem creates its own on its first search and reuses
+	 * it from then on.
+	 * @param c - context, or null to go back to the problem's own one
+	 */
+	public void setSearchContext(SearchContext c) {
+		this.context = c;
+	}
+
+//------------------------------ setPathCache() ------------------------------//
+	/*
+	 * Makes aStarSearch() look its path up in a cache shared with other
+	 * problems before searching, and store it there afterwards, as long as
+	 * the problem has a path key (see getPathKey()). A path found in the
+	 * cache is optimal but may differ from the one a search on the current
+	 * frontier type would pick among equally short ones, and its search
+	 * reports no nodes explored.
+	 * @param c - cache of paths, as cell ids, by path key, or null to search
+	 * 			  every time
+	 */
+	public void setPathCache(LruCache<Object, int[]> c) {
+		this.pathCache = c;
+	}
+
+//---------------------------- getNodesExplored() ----------------------------//
+	public int getNodesExplored() {
+		return this.nodesExplored;
+	}
+
+//------------------------------ getMaxMemory() ------------------------------//
+	public int getMaxMemory() {
+		return this.maxMemory;
+	}
+
+//----------------------------- getRunningTime() -----------------------------//
+	public Duration getRunningTime() {
+		return this.runningTime;
+	}
+
+//----------------------------- getSearchName() ------------------------------//
+	public String getSearchName() {
+		return this.searchName;
+	}
+
 /**************************** PROTECTED METHODS *******************************/
+//------------------------------ getCellCount() ------------------------------//
+	/*
+	 * Size of the packed cell id space i.e. every getCell() value lies in
+	 * [0, getCellCount()). Problems whose nodes can't be packed into a cell id
+	 * return 0, and searches fall back to hashing node objects.
+	 */
+	protected abstract int getCellCount();
+
+//------------------------------- isGoalCell() -------------------------------//
+	protected abstract boolean isGoalCell(int cell);
+
+//------------------------------ getGoalCell() -------------------------------//
+	/*
+	 * Packed cell id of the goal, where bidirectional searches start their
+	 * backward half. Backward searches expand cells with getSuccessorCells()
+	 * too, so they assume every move can be undone.
+	 * @return goal cell, or UNVISITED if no path can ever reach the goal
+	 */
+	protected abstract int getGoalCell();
+
+//------------------------------ estimateCost() ------------------------------//
+	/*
+	 * Admissible estimate of the number of moves from a cell to the goal,
+	 * consistent with UUSearchNode.calculateKey().
+	 */
+	protected abstract int estimateCost(int cell);
+	
+	/*
+	 * Consistent, admissible estimate of the number of moves between any two
+	 * cells.
+	 */
+	protected abstract int estimateCost(int cell, int target);
+
+//------------------------------- decodeCell() -------------------------------//
+	/*
+	 * Rebuilds the node represented by a packed cell id.
+	 * @param cell - packed cell id
+	 * @param depth - depth of the rebuilt node
+	 * @return node at that cell
+	 */
+	protected abstract UUSearchNode decodeCell(int cell, int depth);
+
+//------------------------------- getPathKey() -------------------------------//
+	/*
+	 * Key under which the solution of this problem is cached (see
+	 * setPathCache()): equal keys must mean equal solutions, so it has to
+	 * cover whatever the solution depends on, e.g. the start, the goal and
+	 * the version of the map. Problems whose solutions can't be reused
+	 * return null, which is the default.
+	 * @return immutable key with equals() and hashCode(), or null
+	 */
+	protected Object getPathKey() {
+		return null;
+	}
+
+//----------------------------- createFrontier() -----------------------------//
+	/*
+	 * @return empty priority queue of the type chosen with setFrontierType()
+	 */
+	protected IndexedPriorityQueue createFrontier() {
+		switch (this.frontierType) {
+			case DARY_HEAP_FRONTIER:
+				return new IndexedDaryHeap(HEAP_ARITY, getCellCount());
+				
+			case BUCKET_QUEUE_FRONTIER:
+				// buckets grow with the largest key seen
+				return new BucketPriorityQueue(getCellCount(), 0);
+				
+			default:
+				return new IndexedFibonacciHeap(getCellCount());
+		}
+	}
+
 //------------------------------ resetStats() --------------------------------//
 	protected void resetStats(String name) {
 		searchName = name;
@@ -239,6 +505,32 @@ public abstract class UUSearchProblem {
 		System.out.println(searchName);
 	}
 
+//------------------------------ finishSearch() ------------------------------//
+	/*
+	 * Stops the clock of the running search and reports its outcome to the
+	 * observer, if any. Every search returns through here.
+	 * @param solution - solution path found, or null if there is none
+	 * @return solution
+	 */
+	protected List<UUSearchNode> finishSearch(List<UUSearchNode> solution) {
+		stopClock();
+		
+		if (this.observer != null) {
+			this.observer.searchFinished(this, solution);
+		}
+		
+		return solution;
+	}
+
+//------------------------------- stopClock() --------------------------------//
+	/*
+	 * Stops the clock of the running search, for searches whose solution
+	 * isn't a path of UUSearchNodes and so can't go through finishSearch().
+	 */
+	protected void stopClock() {
+		runningTime = Duration.between(initialTime, Instant.now());
+	}
+
 //----------------------------- updateMemory() -------------------------------//
 	protected void updateMemory(int currentMemory) {
 		maxMemory = Math.max(currentMemory, maxMemory);
@@ -268,8 +560,6 @@ public abstract class UUSearchProblem {
 		// return optimal solution
 		Collections.reverse(backchainPath);
 		
-		runningTime = Duration.between(initialTime, Instant.now());
-		
 		return backchainPath;
 	}
 	
@@ -292,11 +582,452 @@ public abstract class UUSearchProblem {
 		// return optimal solution
 		Collections.reverse(backchainPath);
 		
-		runningTime = Duration.between(initialTime, Instant.now());
-		
 		return backchainPath;
 	}
 	
+//------------------------- cellBreadthFirstSearch() -------------------------//
+	/*
+	 * Breadth-first search over packed cell ids. Successors are written into
+	 * a reusable buffer by getSuccessorCells(), the frontier is an
+	 * IntRingBufferQueue, which only ever grows to the widest level, and
+	 * parents are kept by a SearchContext (see setSearchContext()), so once
+	 * the context is warm a search allocates nothing but the nodes on the
+	 * solution path.
+	 * @return optimal solution path or null if there is none
+	 */
+	private List<UUSearchNode> cellBreadthFirstSearch() {
+		UUSearchNode controller = this.startNode.get(0);
+		int currentCell = controller.getCell(), successorCell = 0,
+				totalSuccessors = 0;
+		
+		// if the startNode=goalNode there's no need to even begin the search
+		if (controller.goalTest()) {
+			return finishSearch(Arrays.asList(controller));
+		}
+		
+		SearchContext context = acquireContext();
+		IntRingBufferQueue frontier = context.getQueue();
+		int[] successors = context.getSuccessorBuffer();
+		
+		// the start cell is its own parent
+		context.visit(currentCell, currentCell);
+		frontier.add(currentCell);
+		incrementNodeCount();
+		updateMemory(frontier.size() + nodesExplored);
+		
+		while (!frontier.isEmpty()) {
+			currentCell = frontier.poll();
+			totalSuccessors = controller.getSuccessorCells(currentCell,
+					successors);
+			
+			for (int i = 0; i < totalSuccessors; i++) {
+				successorCell = successors[i];
+				
+				if (!context.isVisited(successorCell)) {
+					context.visit(successorCell, currentCell);
+					incrementNodeCount();
+					
+					if (isGoalCell(successorCell)) {
+						updateMemory(frontier.size() + nodesExplored);
+						return finishSearch(backchainCells(successorCell,
+								context));
+					}
+					
+					frontier.add(successorCell);
+					updateMemory(frontier.size() + nodesExplored);
+				}
+			}
+		}
+		
+		return finishSearch(null);
+	}
+
+//---------------------------- cellAStarSearch() -----------------------------//
+	/*
+	 * A* search over packed cell ids. Successors come from
+	 * getSuccessorCells(), path costs and parents are kept by a SearchContext
+	 * and the frontier is an IndexedPriorityQueue of cells (see
+	 * setFrontierType()) kept by that same context, so expanding a cell
+	 * allocates nothing beyond what the chosen queue itself needs.
+	 * @return optimal solution path or null if there is none
+	 */
+	private List<UUSearchNode> cellAStarSearch() {
+		UUSearchNode controller = this.startNode.get(0);
+		int currentCell = controller.getCell(), successorCell = 0,
+				totalSuccessors = 0, visitedCells = 0, depth = 0;
+		
+		if (controller.goalTest()) {
+			return finishSearch(Arrays.asList(controller));
+		}
+		
+		SearchContext context = acquireContext();
+		IndexedPriorityQueue frontier = acquireFrontier(context);
+		int[] successors = context.getSuccessorBuffer();
+		
+		context.visit(currentCell, currentCell, controller.getDepth());
+		frontier.insert(currentCell, controller.calculateKey());
+		visitedCells++;
+		incrementNodeCount();
+		updateMemory(frontier.size() + visitedCells);
+		
+		while ((currentCell = frontier.poll()) != IndexedPriorityQueue.NO_HANDLE) {
+			depth = context.getDepth(currentCell) + 1;
+			totalSuccessors = controller.getSuccessorCells(currentCell,
+					successors);
+			
+			for (int i = 0; i < totalSuccessors; i++) {
+				successorCell = successors[i];
+				
+				// check that the cell hasn't already been visited
+				if (!context.isVisited(successorCell)) {
+					context.visit(successorCell, currentCell, depth);
+					visitedCells++;
+					
+					if (isGoalCell(successorCell)) {
+						updateMemory(frontier.size() + visitedCells);
+						return finishSearch(backchainCells(successorCell,
+								context));
+					}
+					
+					frontier.insert(successorCell,
+							depth + estimateCost(successorCell));
+					incrementNodeCount();
+					updateMemory(frontier.size() + visitedCells);
+				}
+				
+				// if the cell is still in the frontier and was reached through
+				// a cheaper path, re-parent it and decrease its key
+				else if (depth < context.getDepth(successorCell) &&
+						frontier.contains(successorCell)) {
+					context.visit(successorCell, currentCell, depth);
+					frontier.decreaseKey(successorCell,
+							depth + estimateCost(successorCell));
+				}
+			}
+		}
+		
+		return finishSearch(null);
+	}
+
+//------------------------- cachedCellAStarSearch() --------------------------//
+	/*
+	 * cellAStarSearch() behind the path cache. Paths are cached as cell ids
+	 * rather than nodes, so that entries are small, immutable and shared by
+	 * problems of any thread; unreachable goals are cached too, as NO_PATH.
+	 * @return optimal solution path or null if there is none
+	 */
+	private List<UUSearchNode> cachedCellAStarSearch() {
+		Object key = getPathKey();
+		List<UUSearchNode> solution = null;
+		int[] cells = key == null ? null : this.pathCache.get(key);
+		
+		if (key == null) { return cellAStarSearch(); }
+		
+		if (cells != null) {
+			if (cells == NO_PATH) { return finishSearch(null); }
+			
+			UUSearchNode[] path = new UUSearchNode[cells.length];
+			
+			for (int i = 0; i < cells.length; i++) {
+				path[i] = decodeCell(cells[i], i);
+			}
+			
+			return finishSearch(Arrays.asList(path));
+		}
+		
+		solution = cellAStarSearch();
+		cells = solution == null ? NO_PATH : new int[solution.size()];
+		
+		for (int i = 0; i < cells.length; i++) {
+			cells[i] = solution.get(i).getCell();
+		}
+		
+		this.pathCache.put(key, cells);
+		
+		return solution;
+	}
+
+//------------------ cellBidirectionalBreadthFirstSearch() -------------------//
+	/*
+	 * Bidirectional breadth-first search over packed cell ids. Index 0 of
+	 * every pair belongs to the forward search, which runs on the problem's
+	 * SearchContext, and index 1 to the backward one, which runs on that
+	 * context's reverse context; the start and goal cells are their own
+	 * parents.
+	 * @return optimal solution path or null if there is none
+	 */
+	private List<UUSearchNode> cellBidirectionalBreadthFirstSearch() {
+		UUSearchNode controller = this.startNode.get(0);
+		int goalCell = getGoalCell(), side = 0, other = 0, currentCell = 0,
+				successorCell = 0, totalSuccessors = 0, levelSize = 0,
+				depth = 0, meetingCell = UNVISITED,
+				shortest = Integer.MAX_VALUE;
+		
+		if (controller.goalTest()) {
+			return finishSearch(Arrays.asList(controller));
+		}
+		
+		if (goalCell == UNVISITED) { return finishSearch(null); }
+		
+		SearchContext[] contexts = acquireContexts();
+		IntRingBufferQueue[] frontiers = new IntRingBufferQueue[]{
+				contexts[0].getQueue(), contexts[1].getQueue() };
+		int[] successors = contexts[0].getSuccessorBuffer(),
+				roots = new int[]{ controller.getCell(), goalCell };
+		
+		for (side = 0; side < 2; side++) {
+			contexts[side].visit(roots[side], roots[side], 0);
+			frontiers[side].add(roots[side]);
+			incrementNodeCount();
+		}
+		
+		updateMemory(frontiers[0].size() + frontiers[1].size() + nodesExplored);
+		
+		while (!frontiers[0].isEmpty() && !frontiers[1].isEmpty()) {
+			// grow the smaller frontier by one whole level
+			side = frontiers[0].size() <= frontiers[1].size() ? 0 : 1;
+			other = 1 - side;
+			levelSize = frontiers[side].size();
+			
+			for (int l = 0; l < levelSize; l++) {
+				currentCell = frontiers[side].poll();
+				depth = contexts[side].getDepth(currentCell) + 1;
+				totalSuccessors = controller.getSuccessorCells(currentCell,
+						successors);
+				
+				for (int i = 0; i < totalSuccessors; i++) {
+					successorCell = successors[i];
+					
+					if (contexts[side].isVisited(successorCell)) { continue; }
+					
+					contexts[side].visit(successorCell, currentCell, depth);
+					frontiers[side].add(successorCell);
+					incrementNodeCount();
+					updateMemory(frontiers[0].size() + frontiers[1].size() +
+							nodesExplored);
+					
+					// the frontiers met; keep the shortest meeting of the level
+					if (contexts[other].isVisited(successorCell) &&
+							depth + contexts[other].getDepth(successorCell) <
+							shortest) {
+						shortest = depth +
+								contexts[other].getDepth(successorCell);
+						meetingCell = successorCell;
+					}
+				}
+			}
+			
+			if (meetingCell != UNVISITED) {
+				return finishSearch(spliceCells(meetingCell, contexts[0],
+						contexts[1]));
+			}
+		}
+		
+		return finishSearch(null);
+	}
+
+//---------------------- cellBidirectionalAStarSearch() ----------------------//
+	/*
+	 * Bidirectional A* search over packed cell ids, with the forward search
+	 * estimating costs to the goal and the backward one to the start.
+	 * Contexts and frontiers are paired as in
+	 * cellBidirectionalBreadthFirstSearch().
+	 * @return optimal solution path or null if there is none
+	 */
+	private List<UUSearchNode> cellBidirectionalAStarSearch() {
+		UUSearchNode controller = this.startNode.get(0);
+		int goalCell = getGoalCell(), side = 0, other = 0, currentCell = 0,
+				successorCell = 0, totalSuccessors = 0, depth = 0,
+				visitedCells = 0, meetingCell = UNVISITED,
+				shortest = Integer.MAX_VALUE;
+		
+		if (controller.goalTest()) {
+			return finishSearch(Arrays.asList(controller));
+		}
+		
+		if (goalCell == UNVISITED) { return finishSearch(null); }
+		
+		SearchContext[] contexts = acquireContexts();
+		IndexedPriorityQueue[] frontiers = new IndexedPriorityQueue[]{
+				acquireFrontier(contexts[0]), acquireFrontier(contexts[1]) };
+		int[] successors = contexts[0].getSuccessorBuffer(),
+				roots = new int[]{ controller.getCell(), goalCell };
+		
+		for (side = 0; side < 2; side++) {
+			contexts[side].visit(roots[side], roots[side], 0);
+			frontiers[side].insert(roots[side],
+					estimateCost(roots[side], roots[1 - side]));
+			visitedCells++;
+			incrementNodeCount();
+		}
+		
+		updateMemory(frontiers[0].size() + frontiers[1].size() + visitedCells);
+		
+		while (!frontiers[0].isEmpty() && !frontiers[1].isEmpty()) {
+			// no path through either frontier can beat the best one found
+			if (shortest <= Math.max(frontiers[0].getKey(frontiers[0].peek()),
+					frontiers[1].getKey(frontiers[1].peek()))) {
+				break;
+			}
+			
+			side = frontiers[0].size() <= frontiers[1].size() ? 0 : 1;
+			other = 1 - side;
+			currentCell = frontiers[side].poll();
+			depth = contexts[side].getDepth(currentCell) + 1;
+			totalSuccessors = controller.getSuccessorCells(currentCell,
+					successors);
+			
+			for (int i = 0; i < totalSuccessors; i++) {
+				successorCell = successors[i];
+				
+				if (!contexts[side].isVisited(successorCell)) {
+					contexts[side].visit(successorCell, currentCell, depth);
+					frontiers[side].insert(successorCell,
+							depth + estimateCost(successorCell, roots[other]));
+					visitedCells++;
+					incrementNodeCount();
+					updateMemory(frontiers[0].size() + frontiers[1].size() +
+							visitedCells);
+				}
+				
+				// a cell still in the frontier reached through a cheaper path
+				else if (depth < contexts[side].getDepth(successorCell) &&
+						frontiers[side].contains(successorCell)) {
+					contexts[side].visit(successorCell, currentCell, depth);
+					frontiers[side].decreaseKey(successorCell,
+							depth + estimateCost(successorCell, roots[other]));
+				}
+				
+				else { continue; }
+				
+				if (contexts[other].isVisited(successorCell) && depth +
+						contexts[other].getDepth(successorCell) < shortest) {
+					shortest = depth + contexts[other].getDepth(successorCell);
+					meetingCell = successorCell;
+				}
+			}
+		}
+		
+		return finishSearch(meetingCell == UNVISITED ? null :
+			spliceCells(meetingCell, contexts[0], contexts[1]));
+	}
+
+//----------------------------- acquireContext() -----------------------------//
+	/*
+	 * @return the context set with setSearchContext(), or one owned by this
+	 * 		   problem if there is none, readied for a new search
+	 */
+	private SearchContext acquireContext() {
+		if (this.context == null) {
+			this.context = new SearchContext(getCellCount());
+		}
+		
+		this.context.begin(getCellCount());
+		
+		return this.context;
+	}
+
+//---------------------------- acquireContexts() -----------------------------//
+	/*
+	 * @return forward and backward contexts of a bidirectional search, both
+	 * 		   readied for a new search
+	 */
+	private SearchContext[] acquireContexts() {
+		SearchContext forward = acquireContext(),
+				backward = forward.getReverse();
+		
+		backward.begin(getCellCount());
+		
+		return new SearchContext[]{ forward, backward };
+	}
+
+//---------------------------- acquireFrontier() -----------------------------//
+	/*
+	 * @return empty frontier of the type chosen with setFrontierType(), kept
+	 * 		   by a context so later searches on it can reuse it
+	 */
+	private IndexedPriorityQueue acquireFrontier(SearchContext c) {
+		IndexedPriorityQueue frontier = c.getFrontier(this.frontierType);
+		
+		if (frontier == null) {
+			frontier = createFrontier();
+			c.setFrontier(this.frontierType, frontier);
+		}
+		
+		return frontier;
+	}
+
+//----------------------------- backchainCells() -----------------------------//
+	/*
+	 * Rebuilds the solution path from the parents kept by a context.
+	 * @param cell - goal cell
+	 * @param c - context of the search, the start cell being its own parent
+	 */
+	private List<UUSearchNode> backchainCells(int cell, SearchContext c) {
+		int[] path = null;
+		int length = 0;
+		
+		// walk from the goal back to the start, recording the cells
+		for (int current = cell; ; current = c.getParent(current)) {
+			path = c.getPathBuffer(length + 1);
+			path[length++] = current;
+			
+			if (c.getParent(current) == current) { break; }
+		}
+		
+		UUSearchNode[] backchainPath = new UUSearchNode[length];
+		
+		for (int d = 0; d < length; d++) {
+			backchainPath[d] = decodeCell(path[length - 1 - d], d);
+		}
+		
+		return Arrays.asList(backchainPath);
+	}
+	
+//------------------------------ spliceCells() -------------------------------//
+	/*
+	 * Joins the two halves of a bidirectional search's solution path.
+	 * @param meetingCell - cell reached from both the start and the goal
+	 * @param forward - context of the start's side, the start cell being its
+	 * 					own parent
+	 * @param backward - context of the goal's side, the goal cell being its
+	 * 					 own parent
+	 */
+	private List<UUSearchNode> spliceCells(int meetingCell,
+			SearchContext forward, SearchContext backward) {
+		int[] path = null;
+		int length = 0, depth = 0;
+		
+		// record the cells from the meeting cell back to the start, then from
+		// the meeting cell on to the goal
+		for (int cell = meetingCell; ; cell = forward.getParent(cell)) {
+			path = forward.getPathBuffer(length + 1);
+			path[length++] = cell;
+			
+			if (forward.getParent(cell) == cell) { break; }
+		}
+		
+		depth = length - 1;
+		
+		for (int cell = meetingCell; backward.getParent(cell) != cell; ) {
+			cell = backward.getParent(cell);
+			path = forward.getPathBuffer(length + 1);
+			path[length++] = cell;
+		}
+		
+		UUSearchNode[] splicedPath = new UUSearchNode[length];
+		
+		for (int d = 0; d <= depth; d++) {
+			splicedPath[d] = decodeCell(path[depth - d], d);
+		}
+		
+		for (int d = depth + 1; d < length; d++) {
+			splicedPath[d] = decodeCell(path[d], d);
+		}
+		
+		return Arrays.asList(splicedPath);
+	}
+	
 	private boolean deriveStartNodes() {
 		UUSearchNode controller = this.startNode.get(0);
 		int[] initPosition = new int[]{ 0, 0 },
@@ -312,11 +1043,11 @@ public abstract class UUSearchProblem {
 		if (!existingWalls[0])
 			currentPosition[0]++;
 		
-		updateMemory(this.beliefStates.size());
+		updateMemory(this.beliefStates.length);
 		incrementNodeCount();
 		
 		while (!controller.beliefStateReached()) {	
-			updateMemory(this.beliefStates.size());
+			updateMemory(this.beliefStates.length);
 			incrementNodeCount();
 			
 			targetMove = direction + 1 > 3 ? 0 : direction + 1;
@@ -390,9 +1121,9 @@ public abstract class UUSearchProblem {
 			currentPosition[1] += offsetY;
 		}
 		
-		updateMemory(this.beliefStates.size());
+		updateMemory(this.beliefStates.length);
 		
-		controller.updateStartNode(this.beliefStates.get(0).get(0));
+		controller.updateStartNode(decodeCell(this.beliefStates[0].first(), 0));
 		
 		return true;
 	}